@@ -0,0 +1,106 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.util.Base58;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the byte at a time base58 encoding (the previous Base58 path, one division of the whole number per
+ * digit) with the 32-bit limb encoding of {@link Base58}, and measures checked encoding and decoding of 25 byte
+ * addresses and 38 byte compressed WIFs, one at a time and in batches of BATCH_SIZE.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1) // A new JVM is forked to minimize the effects and optimizations of one specific JVM run.
+@State(Scope.Thread)
+public class Base58Benchmark {
+
+    static final int BATCH_SIZE = 1024;
+
+    @Param({"21", "34"})  // a prefixed hash160, a prefixed and suffixed private key
+    public int payloadLength;
+
+    private byte[] checkedPayload;   // the payload and its checksum
+    private byte[][] payloads;
+    private String[] encoded;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(payloadLength);
+        payloads = new byte[BATCH_SIZE][payloadLength];
+        for (byte[] payload : payloads) {
+            random.nextBytes(payload);
+            payload[0] = 0;  // a mainnet P2PKH prefix, to encode a leading zero
+        }
+        encoded = Base58.encodeCheckedAll(payloads);
+        checkedPayload = Base58.decode(encoded[0]);
+    }
+
+    @Benchmark
+    public void encodeByteAtATime(Blackhole blackhole) {
+        blackhole.consume(byteAtATimeEncode(checkedPayload));
+    }
+
+    @Benchmark
+    public void encode(Blackhole blackhole) {
+        blackhole.consume(Base58.encode(checkedPayload));
+    }
+
+    @Benchmark
+    public void encodeChecked(Blackhole blackhole) {
+        blackhole.consume(Base58.encodeChecked(payloads[0]));
+    }
+
+    @Benchmark
+    public void decodeChecked(Blackhole blackhole) {
+        blackhole.consume(Base58.decodeChecked(encoded[0], false));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void encodeCheckedAll(Blackhole blackhole) {
+        blackhole.consume(Base58.encodeCheckedAll(payloads));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void decodeCheckedAll(Blackhole blackhole) {
+        blackhole.consume(Base58.decodeCheckedAll(encoded, false));
+    }
+
+    // The byte at a time conversion Base58.encode used before it worked on limbs.
+    private static String byteAtATimeEncode(byte[] input) {
+        int zeros = 0;
+        while (zeros < input.length && input[zeros] == 0) {
+            ++zeros;
+        }
+        input = Arrays.copyOf(input, input.length);
+        char[] encoded = new char[input.length * 2];
+        int outputStart = encoded.length;
+        for (int inputStart = zeros; inputStart < input.length; ) {
+            int remainder = 0;
+            for (int i = inputStart; i < input.length; i++) {
+                int temp = remainder * 256 + (input[i] & 0xff);
+                input[i] = (byte) (temp / 58);
+                remainder = temp % 58;
+            }
+            encoded[--outputStart] = Base58.ALPHABET[remainder];
+            if (input[inputStart] == 0) {
+                ++inputStart;
+            }
+        }
+        while (outputStart < encoded.length && encoded[outputStart] == Base58.ALPHABET[0]) {
+            ++outputStart;
+        }
+        while (--zeros >= 0) {
+            encoded[--outputStart] = Base58.ALPHABET[0];
+        }
+        return new String(encoded, outputStart, encoded.length - outputStart);
+    }
+}
@@ -0,0 +1,85 @@
+package mandioca.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static mandioca.bitcoin.function.HashFunctions.*;
+
+/**
+ * Measures hashing throughput under contention:  a new MessageDigest per hash (the previous HashFunctions path,
+ * which looks up the provider and allocates an engine per call) against the thread-local engines of
+ * {@link mandioca.bitcoin.function.HashFunctions}, for an 80 byte block header and a typical 250 byte transaction.
+ * <p>
+ * Run with increasing thread counts, e.g., -t 1 and -t 4 (see HashFunctionsBenchmarkTest):  throughput should
+ * scale with the threads while they have cores to run on, since no state is shared between them.
+ * <p>
+ * The hash160 benchmarks compare the two pass path (a SHA-256 array, then a new RIPEMD-160 hasher) with the fused,
+ * thread-local SHA-256 to RIPEMD-160 engine.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1) // A new JVM is forked to minimize the effects and optimizations of one specific JVM run.
+@State(Scope.Thread)
+public class HashFunctionsBenchmark {
+
+    @Param({"80", "250"})
+    public int messageLength;
+
+    private byte[] message;
+    private final byte[] hash = new byte[32];
+
+    @Setup
+    public void setup() {
+        message = new byte[messageLength];
+        new Random(messageLength).nextBytes(message);
+    }
+
+    @Benchmark
+    public void hash256NewDigest(Blackhole blackhole) {
+        MessageDigest digest = newSHA256Digest.get();
+        blackhole.consume(digest.digest(digest.digest(message)));
+    }
+
+    @Benchmark
+    public void hash256(Blackhole blackhole) {
+        blackhole.consume(hash256.apply(message));
+    }
+
+    @Benchmark
+    public void hash256Into(Blackhole blackhole) {
+        hash256Into.accept(message, hash, 0);
+        blackhole.consume(hash);
+    }
+
+    @Benchmark
+    public void sha256NewDigest(Blackhole blackhole) {
+        blackhole.consume(newSHA256Digest.get().digest(message));
+    }
+
+    @Benchmark
+    public void sha256(Blackhole blackhole) {
+        blackhole.consume(sha256Hash.apply(message));
+    }
+
+    @Benchmark
+    public void hash160(Blackhole blackhole) {
+        blackhole.consume(hash160.apply(message));
+    }
+
+    @Benchmark
+    public void hash160TwoPass(Blackhole blackhole) {
+        blackhole.consume(hashRipemd160.apply(sha256Hash.apply(message)));
+    }
+
+    @Benchmark
+    public void hash160Into(Blackhole blackhole) {
+        hash160Into.accept(message, hash, 0);
+        blackhole.consume(hash);
+    }
+}
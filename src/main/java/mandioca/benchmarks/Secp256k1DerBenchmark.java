@@ -0,0 +1,59 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.ecc.Secp256k1PrivateKey;
+import mandioca.bitcoin.ecc.Signature;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static mandioca.bitcoin.util.HashUtils.getDoubleSHA256HashAsInteger;
+
+/**
+ * Measures the DER signature codec on OP_CHECKSIG's path:  parsing a copy of a script stack element without its
+ * sighash byte (as OP_CHECKSIG used to), against parsing the element in place through a ByteBuffer slice;  and
+ * serializing to a new byte[] against writing into a reused buffer.  Run with -prof gc to compare allocation rates.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1) // A new JVM is forked to minimize the effects and optimizations of one specific JVM run.
+@State(Scope.Thread)
+public class Secp256k1DerBenchmark {
+
+    private Signature signature;
+    private byte[] stackElement;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        Secp256k1PrivateKey privateKey = new Secp256k1PrivateKey(getDoubleSHA256HashAsInteger("my secret"));
+        signature = privateKey.sign(getDoubleSHA256HashAsInteger("my message"));
+        byte[] der = signature.getDer();
+        stackElement = Arrays.copyOf(der, der.length + 1);
+        stackElement[der.length] = 0x01;  // SIGHASH_ALL
+        buffer = ByteBuffer.allocate(72);
+    }
+
+    @Benchmark
+    public Signature parseCopy() {
+        return Signature.parse(Arrays.copyOfRange(stackElement, 0, stackElement.length - 1));
+    }
+
+    @Benchmark
+    public Signature parseSlice() {
+        return Signature.parse(ByteBuffer.wrap(stackElement, 0, stackElement.length - 1));
+    }
+
+    @Benchmark
+    public byte[] getDer() {
+        return signature.getDer();
+    }
+
+    @Benchmark
+    public int writeDer() {
+        return signature.writeDer(buffer.clear());
+    }
+}
@@ -0,0 +1,77 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.ecc.Secp256k1KeyTableCache;
+import mandioca.bitcoin.ecc.Secp256k1Point;
+import mandioca.bitcoin.ecc.Secp256k1PrivateKey;
+import mandioca.bitcoin.ecc.Signature;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.N;
+
+/**
+ * Measures ECDSA signing (with RFC 6979 nonces) and verification of one signature at a time, over a pool of
+ * signatures by {@link #keys} distinct keys.  Verification looks up the keys' tables in a
+ * {@link Secp256k1KeyTableCache} of {@link #keyTableCacheSize} keys, 0 to build the tables per signature.
+ * <p>
+ * Field and point operations are measured by {@link Secp256k1FieldBenchmark} and {@link Secp256k1PointBenchmark}.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1) // A new JVM is forked to minimize the effects and optimizations of one specific JVM run.
+@State(Scope.Thread)
+public class Secp256k1EcdsaBenchmark {
+
+    private static final int POOL_SIZE = 256;  // a power of 2
+
+    @Param({"1", "64"})
+    public int keys;
+
+    @Param({"0", "1024"})
+    public int keyTableCacheSize;
+
+    private final Secp256k1PrivateKey[] privateKeys = new Secp256k1PrivateKey[POOL_SIZE];
+    private final Secp256k1Point[] publicKeys = new Secp256k1Point[POOL_SIZE];
+    private final BigInteger[] hashes = new BigInteger[POOL_SIZE];
+    private final Signature[] signatures = new Signature[POOL_SIZE];
+    private Secp256k1KeyTableCache cache;
+    private int i;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(256);
+        Secp256k1PrivateKey[] distinctKeys = new Secp256k1PrivateKey[keys];
+        for (int j = 0; j < keys; j++) {
+            distinctKeys[j] = new Secp256k1PrivateKey(new BigInteger(256, random).mod(N));
+        }
+        for (int j = 0; j < POOL_SIZE; j++) {
+            privateKeys[j] = distinctKeys[j % keys];
+            publicKeys[j] = privateKeys[j].getPublicKey();
+            hashes[j] = new BigInteger(256, random);
+            signatures[j] = privateKeys[j].sign(hashes[j]);
+        }
+        cache = new Secp256k1KeyTableCache(keyTableCacheSize);
+    }
+
+    private int next() {
+        return i = (i + 1) & (POOL_SIZE - 1);
+    }
+
+    @Benchmark
+    public void sign(Blackhole blackhole) {
+        int j = next();
+        blackhole.consume(privateKeys[j].sign(hashes[j]));
+    }
+
+    @Benchmark
+    public void verify(Blackhole blackhole) {
+        int j = next();
+        blackhole.consume(publicKeys[j].verify(hashes[j], signatures[j], cache));
+    }
+}
@@ -0,0 +1,96 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.ecc.Secp256k1FieldElement;
+import mandioca.bitcoin.ecc.Secp256k1PrivateKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import static mandioca.bitcoin.util.HashUtils.getDoubleSHA256HashAsInteger;
+
+/**
+ * Compares the scalar and the Vector API field batch backends (see secp256k1.vector.enabled in ecc.properties) on
+ * BATCH_SIZE element-wise multiplications, a batch inversion of BATCH_SIZE elements, and a batch key derivation;
+ * each backend runs in its own forked JVM.  On a JIT that does not intrinsify the Vector API, the vector backend
+ * is expected to be much slower than the scalar one.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1) // A new JVM is forked to minimize the effects and optimizations of one specific JVM run.
+@State(Scope.Benchmark)
+public class Secp256k1FieldBatchBenchmark {
+
+    static final int BATCH_SIZE = 1024;
+
+    private static final String VECTOR_MODULE = "--add-modules=jdk.incubator.vector";
+    private static final String SCALAR_BACKEND = "-Dsecp256k1.vector.enabled=false";
+    private static final String VECTOR_BACKEND = "-Dsecp256k1.vector.enabled=true";
+
+    private Secp256k1FieldElement[] a;
+    private Secp256k1FieldElement[] b;
+    private Secp256k1FieldElement[] r;
+    private BigInteger[] secrets;
+
+    @Setup
+    public void setup() {
+        a = new Secp256k1FieldElement[BATCH_SIZE];
+        b = new Secp256k1FieldElement[BATCH_SIZE];
+        r = new Secp256k1FieldElement[BATCH_SIZE];
+        secrets = new BigInteger[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            secrets[i] = getDoubleSHA256HashAsInteger("my secret " + i);
+            a[i] = new Secp256k1FieldElement(getDoubleSHA256HashAsInteger("a" + i).shiftRight(1));
+            b[i] = new Secp256k1FieldElement(getDoubleSHA256HashAsInteger("b" + i).shiftRight(1));
+            r[i] = new Secp256k1FieldElement();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, SCALAR_BACKEND})
+    public Secp256k1FieldElement[] multiplyAllScalar() {
+        Secp256k1FieldElement.setMultiplyAll(r, a, b);
+        return r;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, VECTOR_BACKEND})
+    public Secp256k1FieldElement[] multiplyAllVector() {
+        Secp256k1FieldElement.setMultiplyAll(r, a, b);
+        return r;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, SCALAR_BACKEND})
+    public Secp256k1FieldElement[] inverseAllScalar() {
+        Secp256k1FieldElement.setInverseAll(a);  // inverting twice restores the elements
+        return a;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, VECTOR_BACKEND})
+    public Secp256k1FieldElement[] inverseAllVector() {
+        Secp256k1FieldElement.setInverseAll(a);
+        return a;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, SCALAR_BACKEND})
+    public Secp256k1PrivateKey[] deriveAllScalar() {
+        return Secp256k1PrivateKey.deriveAll(secrets);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, VECTOR_BACKEND})
+    public Secp256k1PrivateKey[] deriveAllVector() {
+        return Secp256k1PrivateKey.deriveAll(secrets);
+    }
+}
@@ -0,0 +1,78 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.ecc.Secp256k1FieldElement;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.p;
+
+/**
+ * Measures single secp256k1 field operations on 5x52-bit limbs ({@link Secp256k1FieldElement}), one operation per
+ * benchmark, so a regression in field arithmetic shows up here before it shows up in point arithmetic
+ * ({@link Secp256k1PointBenchmark}) or signatures ({@link Secp256k1EcdsaBenchmark}).
+ * <p>
+ * Operands cycle through a pool of {@link #poolSize} random elements, so the JIT cannot fold a constant input, and
+ * results go to a Blackhole.  A small pool stays in the L1 cache;  the largest one does not fit in L2, so its
+ * operations also pay for loading their operands' limbs from memory.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1) // A new JVM is forked to minimize the effects and optimizations of one specific JVM run.
+@State(Scope.Thread)
+public class Secp256k1FieldBenchmark {
+
+    @Param({"16", "1024", "65536"})  // powers of 2
+    public int poolSize;
+
+    private Secp256k1FieldElement[] elements;
+    private int mask;
+    private final Secp256k1FieldElement result = new Secp256k1FieldElement();
+    private int i;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(256);
+        elements = new Secp256k1FieldElement[poolSize];
+        mask = poolSize - 1;
+        for (int j = 0; j < poolSize; j++) {
+            elements[j] = new Secp256k1FieldElement(new BigInteger(256, random).mod(p));
+        }
+    }
+
+    private int next() {
+        return i = (i + 1) & mask;
+    }
+
+    @Benchmark
+    public void add(Blackhole blackhole) {
+        int j = next();
+        blackhole.consume(result.setAdd(elements[j], elements[(j + 1) & mask]));
+    }
+
+    @Benchmark
+    public void multiply(Blackhole blackhole) {
+        int j = next();
+        blackhole.consume(result.setMultiply(elements[j], elements[(j + 1) & mask]));
+    }
+
+    @Benchmark
+    public void square(Blackhole blackhole) {
+        blackhole.consume(result.setSquare(elements[next()]));
+    }
+
+    @Benchmark
+    public void inverse(Blackhole blackhole) {
+        blackhole.consume(result.setInverse(elements[next()]));
+    }
+
+    @Benchmark
+    public void sqrt(Blackhole blackhole) {
+        blackhole.consume(result.setSqrt(elements[next()]));
+    }
+}
@@ -0,0 +1,63 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.ecc.Secp256k1Point;
+import mandioca.bitcoin.ecc.Secp256k1PrivateKey;
+import mandioca.bitcoin.ecc.Signature;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import static mandioca.bitcoin.util.HashUtils.getDoubleSHA256HashAsInteger;
+
+/**
+ * Compares secp256k1 variable-base scalar multiplication and signature verification with and without the GLV
+ * endomorphism.  GLV is configured once per JVM (see ecc.properties), so the non-GLV benchmarks run in a fork
+ * with -Dsecp256k1.glv.enabled=false.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1) // A new JVM is forked to minimize the effects and optimizations of one specific JVM run.
+@State(Scope.Benchmark)
+public class Secp256k1GlvBenchmark {
+
+    private static final String NO_GLV = "-Dsecp256k1.glv.enabled=false";
+
+    private Secp256k1Point publicKey;
+    private BigInteger scalar;
+    private BigInteger z;
+    private Signature signature;
+
+    @Setup
+    public void setup() {
+        Secp256k1PrivateKey privateKey = new Secp256k1PrivateKey(getDoubleSHA256HashAsInteger("my secret"));
+        publicKey = privateKey.getPublicKey();
+        scalar = getDoubleSHA256HashAsInteger("my scalar");
+        z = getDoubleSHA256HashAsInteger("my message");
+        signature = privateKey.sign(z);
+    }
+
+    @Benchmark
+    public Secp256k1Point scalarMultiplyGlv() {
+        return publicKey.scalarMultiply(scalar);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = NO_GLV)
+    public Secp256k1Point scalarMultiplyNoGlv() {
+        return publicKey.scalarMultiply(scalar);
+    }
+
+    @Benchmark
+    public boolean verifyGlv() {
+        return publicKey.verify(z, signature);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = NO_GLV)
+    public boolean verifyNoGlv() {
+        return publicKey.verify(z, signature);
+    }
+}
@@ -0,0 +1,78 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.ecc.SafeGcdInverse;
+import mandioca.bitcoin.ecc.Secp256k1FieldElement;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import static java.math.BigInteger.TWO;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.N;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.p;
+import static mandioca.bitcoin.util.HashUtils.getDoubleSHA256HashAsInteger;
+
+/**
+ * Compares modular inversion by the secp256k1 field prime p and group order N:  Fermat exponentiation
+ * (BigInteger.modPow(m - 2), the previous path of FieldElement.divide, Signature.sInverse and signing's k inverse),
+ * BigInteger.modInverse, and safegcd ({@link SafeGcdInverse}) on BigIntegers and on 5x52-bit field limbs.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1) // A new JVM is forked to minimize the effects and optimizations of one specific JVM run.
+@State(Scope.Thread)
+public class Secp256k1InverseBenchmark {
+
+    private static final BigInteger P_MINUS_TWO = p.subtract(TWO);
+    private static final BigInteger N_MINUS_TWO = N.subtract(TWO);
+
+    private BigInteger fieldNumber;
+    private BigInteger scalar;
+    private Secp256k1FieldElement fieldElement;
+    private Secp256k1FieldElement inverse;
+
+    @Setup
+    public void setup() {
+        fieldNumber = getDoubleSHA256HashAsInteger("my field number").mod(p);
+        scalar = getDoubleSHA256HashAsInteger("my scalar").mod(N);
+        fieldElement = new Secp256k1FieldElement(fieldNumber);
+        inverse = new Secp256k1FieldElement();
+    }
+
+    @Benchmark
+    public BigInteger fieldModPow() {
+        return fieldNumber.modPow(P_MINUS_TWO, p);
+    }
+
+    @Benchmark
+    public BigInteger fieldModInverse() {
+        return fieldNumber.modInverse(p);
+    }
+
+    @Benchmark
+    public BigInteger fieldSafeGcd() {
+        return SafeGcdInverse.FIELD.invert(fieldNumber);
+    }
+
+    @Benchmark
+    public Secp256k1FieldElement fieldElementSafeGcd() {
+        return inverse.setInverse(fieldElement);
+    }
+
+    @Benchmark
+    public BigInteger scalarModPow() {
+        return scalar.modPow(N_MINUS_TWO, N);
+    }
+
+    @Benchmark
+    public BigInteger scalarModInverse() {
+        return scalar.modInverse(N);
+    }
+
+    @Benchmark
+    public BigInteger scalarSafeGcd() {
+        return SafeGcdInverse.ORDER.invert(scalar);
+    }
+}
@@ -0,0 +1,50 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.ecc.Secp256k1PrivateKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import static mandioca.bitcoin.util.HashUtils.getDoubleSHA256HashAsInteger;
+
+/**
+ * Compares the average time per public key of deriving BATCH_SIZE keys one by one, each paying for its own field
+ * inversion, and with Secp256k1PrivateKey.deriveAll, which pays for a single batched inversion.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1) // A new JVM is forked to minimize the effects and optimizations of one specific JVM run.
+@State(Scope.Benchmark)
+public class Secp256k1KeyDerivationBenchmark {
+
+    static final int BATCH_SIZE = 1024;
+
+    private BigInteger[] secrets;
+
+    @Setup
+    public void setup() {
+        secrets = new BigInteger[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            secrets[i] = getDoubleSHA256HashAsInteger("my secret " + i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Secp256k1PrivateKey[] deriveOneByOne() {
+        Secp256k1PrivateKey[] privateKeys = new Secp256k1PrivateKey[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            privateKeys[i] = new Secp256k1PrivateKey(secrets[i]);
+        }
+        return privateKeys;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Secp256k1PrivateKey[] deriveAll() {
+        return Secp256k1PrivateKey.deriveAll(secrets);
+    }
+}
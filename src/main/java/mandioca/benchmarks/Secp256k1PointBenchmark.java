@@ -0,0 +1,86 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.ecc.Secp256k1JacobianPoint;
+import mandioca.bitcoin.ecc.Secp256k1Point;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static mandioca.bitcoin.ecc.Secp256k1Point.G;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.N;
+
+/**
+ * Measures single secp256k1 point operations:  Jacobian addition, mixed Jacobian + affine addition and doubling,
+ * and whole scalar multiplications by the generator (fixed-base, looked up in the precomputed generator table) and
+ * by an arbitrary point (variable-base, wNAF with GLV), including their conversions to affine coordinates.
+ * <p>
+ * Operands cycle through a pool of random points and scalars of {@link #scalarBits} bits, and results go to a
+ * Blackhole.  128-bit scalars, like the randomizers of batch verification, show what a short scalar saves in each
+ * multiplication.  GLV is configured once per JVM, so its on/off comparison is in {@link Secp256k1GlvBenchmark},
+ * which runs a fork per setting.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1) // A new JVM is forked to minimize the effects and optimizations of one specific JVM run.
+@State(Scope.Thread)
+public class Secp256k1PointBenchmark {
+
+    private static final int POOL_SIZE = 64;  // a power of 2
+
+    @Param({"128", "256"})
+    public int scalarBits;
+
+    private final Secp256k1Point[] points = new Secp256k1Point[POOL_SIZE];
+    private final Secp256k1JacobianPoint[] jacobianPoints = new Secp256k1JacobianPoint[POOL_SIZE];
+    private final BigInteger[] scalars = new BigInteger[POOL_SIZE];
+    private final Secp256k1JacobianPoint result = new Secp256k1JacobianPoint();
+    private int i;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(256);
+        for (int j = 0; j < POOL_SIZE; j++) {
+            scalars[j] = new BigInteger(scalarBits, random).mod(N);
+            points[j] = G.scalarMultiply(new BigInteger(256, random).mod(N));
+            // Non-trivial Z coordinates, as in the middle of a multiplication.
+            jacobianPoints[j] = new Secp256k1JacobianPoint(points[j]).setDouble(new Secp256k1JacobianPoint(points[j]));
+        }
+    }
+
+    private int next() {
+        return i = (i + 1) & (POOL_SIZE - 1);
+    }
+
+    @Benchmark
+    public void add(Blackhole blackhole) {
+        int j = next();
+        blackhole.consume(result.setAdd(jacobianPoints[j], jacobianPoints[(j + 1) & (POOL_SIZE - 1)]));
+    }
+
+    @Benchmark
+    public void addAffine(Blackhole blackhole) {
+        int j = next();
+        blackhole.consume(result.setAddAffine(jacobianPoints[j], points[(j + 1) & (POOL_SIZE - 1)]));
+    }
+
+    @Benchmark
+    public void doubling(Blackhole blackhole) {
+        blackhole.consume(result.setDouble(jacobianPoints[next()]));
+    }
+
+    @Benchmark
+    public void fixedBaseMultiply(Blackhole blackhole) {
+        blackhole.consume(G.scalarMultiply(scalars[next()]));
+    }
+
+    @Benchmark
+    public void variableBaseMultiply(Blackhole blackhole) {
+        int j = next();
+        blackhole.consume(points[j].scalarMultiply(scalars[(j + 1) & (POOL_SIZE - 1)]));
+    }
+}
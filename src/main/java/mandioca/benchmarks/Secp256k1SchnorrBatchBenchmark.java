@@ -0,0 +1,78 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.ecc.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static mandioca.bitcoin.function.HashFunctions.sha256Hash;
+import static mandioca.bitcoin.util.HashUtils.getDoubleSHA256HashAsInteger;
+
+/**
+ * Compares the average time per signature of verifying BATCH_SIZE ECDSA signatures one by one, BATCH_SIZE BIP340
+ * Schnorr signatures one by one, and the same Schnorr signatures with Secp256k1Schnorr.verifyBatch, which does one
+ * multi-scalar multiplication per chunk of signatures.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1) // A new JVM is forked to minimize the effects and optimizations of one specific JVM run.
+@State(Scope.Benchmark)
+public class Secp256k1SchnorrBatchBenchmark {
+
+    static final int BATCH_SIZE = 256;
+
+    private Secp256k1Point[] ecdsaPublicKeys;
+    private BigInteger[] ecdsaZs;
+    private Signature[] ecdsaSignatures;
+    private List<SchnorrCheck> schnorrChecks;
+
+    @Setup
+    public void setup() {
+        ecdsaPublicKeys = new Secp256k1Point[BATCH_SIZE];
+        ecdsaZs = new BigInteger[BATCH_SIZE];
+        ecdsaSignatures = new Signature[BATCH_SIZE];
+        schnorrChecks = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            BigInteger secret = getDoubleSHA256HashAsInteger("my secret " + i);
+            Secp256k1PrivateKey privateKey = new Secp256k1PrivateKey(secret);
+            ecdsaPublicKeys[i] = privateKey.getPublicKey();
+            ecdsaZs[i] = getDoubleSHA256HashAsInteger("my message " + i);
+            ecdsaSignatures[i] = privateKey.sign(ecdsaZs[i]);
+
+            byte[] message = sha256Hash.apply(("my message " + i).getBytes());
+            SchnorrSignature signature = Secp256k1Schnorr.sign(secret, message, new byte[32]);
+            schnorrChecks.add(new SchnorrCheck(message, signature, Secp256k1Schnorr.xOnlyPublicKey(secret)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public boolean ecdsaVerifyOneByOne() {
+        boolean valid = true;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            valid &= ecdsaPublicKeys[i].verify(ecdsaZs[i], ecdsaSignatures[i]);
+        }
+        return valid;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public boolean schnorrVerifyOneByOne() {
+        boolean valid = true;
+        for (SchnorrCheck check : schnorrChecks) {
+            valid &= Secp256k1Schnorr.verify(check.getPublicKey(), check.getMessage(), check.getSignature());
+        }
+        return valid;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public boolean[] schnorrVerifyBatch() {
+        return Secp256k1Schnorr.verifyBatch(schnorrChecks);
+    }
+}
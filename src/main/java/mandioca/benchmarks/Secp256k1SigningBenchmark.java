@@ -0,0 +1,80 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.ecc.Secp256k1PrivateKey;
+import mandioca.bitcoin.ecc.Signature;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static mandioca.bitcoin.util.HashUtils.getDoubleSHA256HashAsInteger;
+
+/**
+ * Measures concurrent ECDSA signing throughput.  Compare the score of signOneThread with signMaxThreads (one
+ * benchmark thread per core, all signing with the same key), and signAllSequential with signAll (one batch of
+ * BATCH_SIZE signature hashes signed on the common ForkJoinPool);  both pairs should scale with the number of cores.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1) // A new JVM is forked to minimize the effects and optimizations of one specific JVM run.
+public class Secp256k1SigningBenchmark {
+
+    static final int BATCH_SIZE = 256;
+
+    @State(Scope.Benchmark)
+    public static class SigningKey {
+        Secp256k1PrivateKey privateKey;
+        List<BigInteger> zs;
+
+        @Setup
+        public void setup() {
+            privateKey = new Secp256k1PrivateKey(getDoubleSHA256HashAsInteger("my secret"));
+            zs = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                zs.add(getDoubleSHA256HashAsInteger("my message " + i));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Digest {
+        int next;
+
+        BigInteger next(SigningKey key) {
+            next = (next + 1) % BATCH_SIZE;
+            return key.zs.get(next);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Signature signOneThread(SigningKey key, Digest digest) {
+        return key.privateKey.sign(digest.next(key));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Signature signMaxThreads(SigningKey key, Digest digest) {
+        return key.privateKey.sign(digest.next(key));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Signature> signAllSequential(SigningKey key) {
+        List<Signature> signatures = new ArrayList<>(BATCH_SIZE);
+        for (BigInteger z : key.zs) {
+            signatures.add(key.privateKey.sign(z));
+        }
+        return signatures;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Signature> signAll(SigningKey key) {
+        return key.privateKey.signAll(key.zs);
+    }
+}
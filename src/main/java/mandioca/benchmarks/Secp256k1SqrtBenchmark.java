@@ -0,0 +1,76 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.ecc.Secp256k1FieldElement;
+import mandioca.bitcoin.ecc.Secp256k1Point;
+import mandioca.bitcoin.ecc.Secp256k1PointCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import static java.math.BigInteger.ONE;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.p;
+import static mandioca.bitcoin.util.HashUtils.getDoubleSHA256HashAsInteger;
+
+/**
+ * Compares square roots in the secp256k1 field:  BigInteger.modPow((p + 1) / 4), the 5x52-bit limb exponentiation
+ * by a BigInteger exponent (the previous Secp256k1FieldElement.sqrt), and the fixed addition chain of setSqrt;
+ * and square tests:  Euler's criterion with modPow((p - 1) / 2) against the safegcd Jacobi symbol of isSquare.
+ * parseCompressedSec measures the whole uncached decoding of a compressed SEC public key.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1) // A new JVM is forked to minimize the effects and optimizations of one specific JVM run.
+@State(Scope.Thread)
+public class Secp256k1SqrtBenchmark {
+
+    private static final BigInteger SQRT_EXPONENT = p.add(ONE).shiftRight(2);
+    private static final BigInteger EULER_EXPONENT = p.subtract(ONE).shiftRight(1);
+
+    private BigInteger fieldNumber;
+    private Secp256k1FieldElement fieldElement;
+    private Secp256k1FieldElement root;
+    private Secp256k1PointCache uncached;
+    private byte[] compressedSec;
+
+    @Setup
+    public void setup() {
+        fieldNumber = getDoubleSHA256HashAsInteger("my field number").mod(p);
+        fieldElement = new Secp256k1FieldElement(fieldNumber);
+        root = new Secp256k1FieldElement();
+        uncached = new Secp256k1PointCache(0);
+        compressedSec = Secp256k1Point.G.scalarMultiply(getDoubleSHA256HashAsInteger("my secret")).getSec(true);
+    }
+
+    @Benchmark
+    public BigInteger sqrtModPow() {
+        return fieldNumber.modPow(SQRT_EXPONENT, p);
+    }
+
+    @Benchmark
+    public Secp256k1FieldElement sqrtSetPower() {
+        return root.setPower(fieldElement, SQRT_EXPONENT);
+    }
+
+    @Benchmark
+    public Secp256k1FieldElement sqrtAdditionChain() {
+        return root.setSqrt(fieldElement);
+    }
+
+    @Benchmark
+    public boolean isSquareEuler() {
+        return fieldNumber.modPow(EULER_EXPONENT, p).equals(ONE);
+    }
+
+    @Benchmark
+    public boolean isSquareJacobi() {
+        return fieldElement.isSquare();
+    }
+
+    @Benchmark
+    public Secp256k1Point parseCompressedSec() {
+        return uncached.parse(compressedSec);
+    }
+}
@@ -0,0 +1,46 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.ecc.EccProperties;
+import mandioca.bitcoin.ecc.Secp256k1PrivateKey;
+import mandioca.bitcoin.ecc.Signature;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+
+import static mandioca.bitcoin.util.HashUtils.getDoubleSHA256HashAsInteger;
+
+/**
+ * Measures startup-to-first-signature time:  from process start to main, and from main to the first ECDSA
+ * signature, which pays for loading (or building) the generator table.  JMH cannot run in a native image, so this
+ * is a plain main class, to run the same way on OpenJDK and on a GraalVM native image (see build-native.txt), e.g.,
+ * <pre>
+ *   java -cp "$(printf %s: lib/*.jar)" mandioca.benchmarks.Secp256k1StartupApp
+ *   java -Dsecp256k1.generator.table.embedded=false -cp "$(printf %s: lib/*.jar)" mandioca.benchmarks.Secp256k1StartupApp
+ *   ./startup-app
+ * </pre>
+ * {@link Secp256k1StartupBenchmark} measures the first signature in forked JVMs with JMH.
+ */
+public class Secp256k1StartupApp {
+
+    public static void main(String[] args) {
+        Instant mainStart = Instant.now();
+        long start = System.nanoTime();
+        Secp256k1PrivateKey privateKey = new Secp256k1PrivateKey(getDoubleSHA256HashAsInteger("my secret"));
+        BigInteger z = getDoubleSHA256HashAsInteger("my message");
+        Signature signature = privateKey.sign(z);
+        long firstSignature = System.nanoTime() - start;
+        if (!privateKey.getPublicKey().verify(z, signature)) {
+            throw new IllegalStateException("Invalid first signature");
+        }
+        start = System.nanoTime();
+        privateKey.sign(getDoubleSHA256HashAsInteger("my second message"));
+        long secondSignature = System.nanoTime() - start;
+
+        System.out.println("Embedded generator table:  " + EccProperties.GENERATOR_TABLE_EMBEDDED);
+        ProcessHandle.current().info().startInstant().ifPresent(processStart ->
+                System.out.println("Process start to main:  " + Duration.between(processStart, mainStart).toMillis() + " ms"));
+        System.out.printf("Main to first signature:  %.3f ms%n", firstSignature / 1e6);
+        System.out.printf("Second signature:  %.3f ms%n", secondSignature / 1e6);
+    }
+}
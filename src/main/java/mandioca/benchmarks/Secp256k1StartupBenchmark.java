@@ -0,0 +1,36 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.ecc.Secp256k1PrivateKey;
+import mandioca.bitcoin.ecc.Signature;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the first ECDSA signature in a new JVM, including the key's derivation and the generator table's
+ * creation:  read from the resource precomputed by the build, or built at runtime.  Every fork signs once, cold.
+ * See {@link Secp256k1StartupApp} for the time from process start, on OpenJDK and in a native image.
+ */
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Secp256k1StartupBenchmark {
+
+    @Benchmark
+    @Fork(value = 10, jvmArgsAppend = {"-Dsecp256k1.generator.table.embedded=true"})
+    public Signature firstSignatureEmbeddedTable() {
+        return firstSignature();
+    }
+
+    @Benchmark
+    @Fork(value = 10, jvmArgsAppend = {"-Dsecp256k1.generator.table.embedded=false"})
+    public Signature firstSignatureBuiltTable() {
+        return firstSignature();
+    }
+
+    private static Signature firstSignature() {
+        return new Secp256k1PrivateKey(BigInteger.valueOf(0xC0FFEE)).sign(BigInteger.valueOf(0xBEEF));
+    }
+}
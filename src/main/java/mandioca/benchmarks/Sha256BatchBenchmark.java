@@ -0,0 +1,73 @@
+package mandioca.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static mandioca.bitcoin.function.HashFunctions.hash256Batch;
+import static mandioca.bitcoin.function.HashFunctions.hash256Into;
+
+/**
+ * Compares double SHA-256 hashing of BATCH_SIZE independent messages, 64 byte merkle tree pairs and 80 byte block
+ * headers, one at a time with the intrinsic-backed MessageDigest against the scalar and the Vector API batch
+ * backends (see Sha256Batch and its sha256.vector.enabled property);  each backend runs in its own forked
+ * JVM.  On a CPU with SHA extensions, which the JVM uses for MessageDigest, the vector backend is expected to be
+ * slower than a message at a time.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1) // A new JVM is forked to minimize the effects and optimizations of one specific JVM run.
+@State(Scope.Benchmark)
+public class Sha256BatchBenchmark {
+
+    static final int BATCH_SIZE = 1024;
+
+    private static final String VECTOR_MODULE = "--add-modules=jdk.incubator.vector";
+    private static final String SCALAR_BACKEND = "-Dsha256.vector.enabled=false";
+    private static final String VECTOR_BACKEND = "-Dsha256.vector.enabled=true";
+
+    @Param({"64", "80"})
+    public int messageLength;
+
+    private byte[][] messages;
+    private byte[][] hashes;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(messageLength);
+        messages = new byte[BATCH_SIZE][messageLength];
+        hashes = new byte[BATCH_SIZE][32];
+        for (byte[] message : messages) {
+            random.nextBytes(message);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, SCALAR_BACKEND})
+    public byte[][] messageDigest() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            hash256Into.accept(messages[i], hashes[i], 0);
+        }
+        return hashes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, SCALAR_BACKEND})
+    public byte[][] hash256BatchScalar() {
+        hash256Batch.accept(messages, hashes);
+        return hashes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, VECTOR_BACKEND})
+    public byte[][] hash256BatchVector() {
+        hash256Batch.accept(messages, hashes);
+        return hashes;
+    }
+}
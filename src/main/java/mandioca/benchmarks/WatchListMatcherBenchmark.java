@@ -0,0 +1,70 @@
+package mandioca.benchmarks;
+
+import mandioca.bitcoin.script.ScriptType;
+import mandioca.bitcoin.script.WatchListMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static mandioca.bitcoin.script.Script.StandardScripts.hashToP2pkhScript;
+import static mandioca.bitcoin.script.Script.StandardScripts.hashToP2wpkhScript;
+
+/**
+ * Measures matching BATCH_SIZE P2PKH and P2WPKH scriptPubKeys, 1 in 100 of them watched, against a watch-list of
+ * WATCH_LIST_SIZE hash160s, with and without the prefilter (see {@link mandioca.bitcoin.util.HashKeyTable}).  The
+ * watch-list's table is larger than the CPU caches, so most of a lookup's time is a cache miss the prefilter avoids.
+ */
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class WatchListMatcherBenchmark {
+
+    static final int WATCH_LIST_SIZE = 2_000_000;
+    static final int BATCH_SIZE = 4096;
+
+    @Param({"false", "true"})
+    public boolean prefilter;
+
+    private WatchListMatcher matcher;
+    private byte[][] scriptPubKeys;
+    private ScriptType[] matches;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(WATCH_LIST_SIZE);
+        matcher = new WatchListMatcher(WATCH_LIST_SIZE, 0, prefilter);
+        byte[] hash160 = new byte[20];
+        byte[][] watched = new byte[BATCH_SIZE / 100][];
+        for (int i = 0; i < WATCH_LIST_SIZE; i++) {
+            random.nextBytes(hash160);
+            matcher.addHash160(hash160);
+            if (i < watched.length) {
+                watched[i] = hash160.clone();
+            }
+        }
+        scriptPubKeys = new byte[BATCH_SIZE][];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            if (i % 100 == 0 && i / 100 < watched.length) {
+                hash160 = watched[i / 100];
+            } else {
+                hash160 = new byte[20];
+                random.nextBytes(hash160);
+            }
+            byte[] serialized = (i % 2 == 0 ? hashToP2pkhScript : hashToP2wpkhScript).apply(hash160).serialize();
+            scriptPubKeys[i] = Arrays.copyOfRange(serialized, 1, serialized.length);  // without the length prefix
+        }
+        matches = new ScriptType[BATCH_SIZE];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void matchAll(Blackhole blackhole) {
+        blackhole.consume(matcher.matchAll(scriptPubKeys, matches));
+    }
+}
@@ -5,13 +5,9 @@ import mandioca.bitcoin.function.ThrowingFunction;
 import mandioca.bitcoin.function.TriFunction;
 import mandioca.bitcoin.network.NetworkType;
 
-import java.io.ByteArrayOutputStream;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
-import static java.util.Arrays.copyOfRange;
-import static mandioca.bitcoin.function.ByteArrayFunctions.concatenate;
-import static mandioca.bitcoin.function.HashFunctions.hash256;
 import static mandioca.bitcoin.network.NetworkType.p2pkhNetworkPrefix;
 import static mandioca.bitcoin.network.NetworkType.p2shNetPrefix;
 import static mandioca.bitcoin.util.Base58.*;
@@ -39,7 +35,7 @@ public class AddressFactory {
     public static final BiFunction<byte[], NetworkType, Address> scriptHashToP2pkh = (hash, n) -> {
         validateLegacyAddressSecHash.apply(hash);
         byte[] prefix = p2pkhNetworkPrefix.apply(n);
-        String address = encodeChecked(concatenate.apply(prefix, hash));
+        String address = encodeChecked(prefix, hash);
         return new Pay2PubKeyHashAddress(n, address);
     };
 
@@ -47,7 +43,7 @@ public class AddressFactory {
     public static final BiFunction<byte[], NetworkType, Address> scriptHashToP2sh = (hash, n) -> {
         validateLegacyAddressSecHash.apply(hash);
         byte[] prefix = p2shNetPrefix.apply(n);
-        String address = encodeChecked(concatenate.apply(prefix, hash));
+        String address = encodeChecked(prefix, hash);
         return new Pay2ScriptHashAddress(n, address);
     };
 
@@ -65,15 +61,11 @@ public class AddressFactory {
 
 
     private static String getAddress(Secp256k1Point publicKey, byte[] networkPrefix, boolean compressed) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            baos.write(networkPrefix);                                      // step 1:  define addr prefix
-            byte[] hash160 = publicKey.secHash160.apply(compressed);        // step 2:  hash160(hash of sec)
+        try {
+            byte[] hash160 = publicKey.secHash160.apply(compressed);        // step 1:  hash160(hash of sec)
             validateLegacyAddressSecHash.apply(hash160);
-            baos.write(hash160);            // step 3:  append hash160 to prefix to get the payload to be base58 encoded
-            byte[] payload = baos.toByteArray();    // step 4:  take 1st 4 bytes of dbl-hashed payload to get checksum
-            byte[] checksum = copyOfRange(hash256.apply(payload), 0, 4);
-            baos.write(checksum);           // step 5:  append the checksum to the payload and encode it
-            return encode(baos.toByteArray());
+            // step 2:  base58 encode the prefix, the hash160, and the 1st 4 bytes of the dbl-hashed prefix and hash160
+            return encodeChecked(networkPrefix, hash160);
         } catch (Exception e) {
             throw new RuntimeException("Error deriving address from public key:\n" + publicKey, e);
         }
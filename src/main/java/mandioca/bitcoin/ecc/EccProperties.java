@@ -0,0 +1,52 @@
+package mandioca.bitcoin.ecc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Integer.parseInt;
+
+public class EccProperties {
+
+    private static final Properties eccProperties = readEccProperties();
+
+    // Property Names
+
+    static final String PROPERTY_GENERATOR_WINDOW_BITS = "secp256k1.generator.window.bits";
+    static final String PROPERTY_GENERATOR_TABLE_EMBEDDED = "secp256k1.generator.table.embedded";
+    static final String PROPERTY_GLV_ENABLED = "secp256k1.glv.enabled";
+    static final String PROPERTY_POINT_CACHE_SIZE = "secp256k1.point.cache.size";
+    static final String PROPERTY_VECTOR_ENABLED = "secp256k1.vector.enabled";
+    static final String PROPERTY_KEY_TABLE_CACHE_SIZE = "secp256k1.key.table.cache.size";
+
+
+    // Property Values (a system property of the same name takes precedence over ecc.properties)
+
+    public static final int GENERATOR_WINDOW_BITS = parseInt(getProperty(PROPERTY_GENERATOR_WINDOW_BITS));
+    public static final boolean GENERATOR_TABLE_EMBEDDED = parseBoolean(getProperty(PROPERTY_GENERATOR_TABLE_EMBEDDED));
+    public static final boolean GLV_ENABLED = parseBoolean(getProperty(PROPERTY_GLV_ENABLED));
+    public static final int POINT_CACHE_SIZE = parseInt(getProperty(PROPERTY_POINT_CACHE_SIZE));
+    public static final boolean VECTOR_ENABLED = parseBoolean(getProperty(PROPERTY_VECTOR_ENABLED));
+    public static final int KEY_TABLE_CACHE_SIZE = parseInt(getProperty(PROPERTY_KEY_TABLE_CACHE_SIZE));
+
+    private static String getProperty(String name) {
+        return System.getProperty(name, eccProperties.getProperty(name));
+    }
+
+    private static Properties readEccProperties() {
+        String filename = "ecc.properties";
+        try {
+            Properties props = new Properties();
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            InputStream stream = loader.getResourceAsStream(filename);
+            if (stream == null) {
+                throw new RuntimeException("Could not read ecc.properties file " + filename + " as stream");
+            }
+            props.load(stream);
+            return props;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not load ecc.properties file " + filename, e);
+        }
+    }
+}
@@ -9,7 +9,6 @@ import java.util.function.BiFunction;
 import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 
-import static java.math.BigInteger.TWO;
 import static java.math.BigInteger.ZERO;
 import static mandioca.bitcoin.ecc.FieldArithmeticFunctions.cube;
 import static mandioca.bitcoin.ecc.FieldArithmeticFunctions.square;
@@ -65,11 +64,10 @@ public class EllipticCurvePoint implements Point {
 
     protected final Function<Point, Field> slopeOfTangent = (p) -> {
         // slope of line tangent to curve is dy/dx = (3x^2 + a) / 2y
-        Field dy = new FieldElement(THREE, this.getX().getPrime())
-                .multiply(square.apply(this.getX()))
-                .add(this.getA());
-        Field dx = new FieldElement(TWO, this.getX().getPrime())
-                .multiply(this.getY());
+        // (3x^2 and 2y are sums, so the result keeps the Field implementation of this point's coordinates)
+        Field xSquared = square.apply(this.getX());
+        Field dy = xSquared.add(xSquared).add(xSquared).add(this.getA());
+        Field dx = this.getY().add(this.getY());
         return dy.divide(dx);
     };
 
@@ -86,23 +84,25 @@ public class EllipticCurvePoint implements Point {
 
     private final Function<Point, Point> pointDerivedFromSlopeOfTangent = (other) -> {
         Field m = slopeOfTangent.apply(other), x = this.getX(), y = this.getY(), a = this.getA(), b = this.getB();
-        Field x3 = square.apply(m).subtract(new FieldElement(TWO, x.getPrime()).multiply(x)); // x3 = m^2 - 2x1
+        Field x3 = square.apply(m).subtract(x).subtract(x); // x3 = m^2 - 2x1
         Field y3 = m.multiply(x.subtract(x3)).subtract(y); // y3 = m(x1 - x3) - y1
         return new EllipticCurvePoint(x3, y3, a, b);
     };
 
+    // Adds and doubles in Jacobian coordinates, so only the conversion of the result back to affine coordinates
+    // pays for a field division, instead of every add and double paying for one in the slope calculation.
     private final Function<BigInteger, Point> doubleAndAdd = (c) -> {
         BigInteger coefficient = clone.apply(c);  // don't change c arg's value
-        Point current = this.clone();
-        Point result = getIdentity(this.getA(), this.getB());  // start at identity
+        JacobianPoint current = JacobianPoint.fromAffine(this);
+        JacobianPoint result = JacobianPoint.infinity(this.getA());  // start at identity
         while (isNotZero.test(coefficient)) {
             if (coefficient.testBit(0)) {
                 result = result.add(current);
             }
-            current = current.add(current);
+            current = current.doubled();
             coefficient = coefficient.shiftRight(1);
         }
-        return result;
+        return result.toAffine(this.getB());
     };
 
     public EllipticCurvePoint(Field x, Field y, Field a, Field b) {
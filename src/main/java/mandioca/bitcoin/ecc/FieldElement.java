@@ -22,7 +22,10 @@ public class FieldElement implements Field {
     protected BigInteger prime;
 
     private final Supplier<Field> squareRoot = () -> {
-        if (isThree.test(this.getPrime().mod(FOUR))) {  // Prime p in secp256k1 is such that p % 4 == 3
+        if (prime.equals(SafeGcdInverse.FIELD.getModulus())) {  // secp256k1's field prime has a fast addition chain
+            BigInteger root = new Secp256k1FieldElement().setSqrt(new Secp256k1FieldElement(number)).getNumber();
+            return new FieldElement(root, prime);
+        } else if (isThree.test(this.getPrime().mod(FOUR))) {  // Prime p in secp256k1 is such that p % 4 == 3
             return this.power(prime.add(ONE).divide(FOUR));  // JSong's python sqrt():  self**( (P+1)//4 ).
         } else {
             throw new RuntimeException("Not implemented for fields on any curve except secp256k1");
@@ -160,11 +163,18 @@ public class FieldElement implements Field {
         if (!prime.equals(other.getPrime())) {
             throw new IllegalArgumentException("Cannot divide two numbers in different finite fields");
         }
-        BigInteger product = number.multiply(other.getNumber().modPow(prime.subtract(TWO), prime));
+        BigInteger product = number.multiply(inverse(other.getNumber()));
         BigInteger result = product.modPow(ONE, prime);
         return new FieldElement(result, prime);
     }
 
+    // The secp256k1 field prime has a fast inverse;  other primes use Fermat's Little Theorem, x^(p-2).
+    private BigInteger inverse(BigInteger x) {
+        return prime.equals(SafeGcdInverse.FIELD.getModulus())
+                ? SafeGcdInverse.FIELD.invert(x)
+                : x.modPow(prime.subtract(TWO), prime);
+    }
+
     @Override
     public Field sqrt() {
         return squareRoot.get();
@@ -189,16 +199,17 @@ public class FieldElement implements Field {
         }
     }
 
+    // Any Field implementation with the same number and prime is equal, e.g., a Secp256k1FieldElement.
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        FieldElement that = (FieldElement) o;
-        return Objects.equals(this.number, that.number) && Objects.equals(this.prime, that.prime);
+        if (!(o instanceof Field)) return false;
+        Field that = (Field) o;
+        return Objects.equals(this.number, that.getNumber()) && Objects.equals(this.prime, that.getPrime());
     }
 
     public boolean notEquals(Field o) {
-        if (o == null || getClass() != o.getClass()) return true;
+        if (o == null) return true;
         return !this.number.equals(o.getNumber()) || !this.prime.equals(o.getPrime());
     }
 
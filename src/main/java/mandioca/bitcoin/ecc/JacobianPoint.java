@@ -0,0 +1,109 @@
+package mandioca.bitcoin.ecc;
+
+import static java.math.BigInteger.ONE;
+import static mandioca.bitcoin.ecc.FieldElement.newField;
+
+/**
+ * An elliptic curve point in Jacobian coordinates (X, Y, Z), representing the affine point (X/Z^2, Y/Z^3) on the
+ * curve y^2 = x^3 + ax + b.  Point addition and doubling need no field division in this representation, so a
+ * scalar multiplication only pays for a single inversion, when the result is converted back to affine coordinates.
+ * <p>
+ * Works with any {@link Field} implementation;  constant multiples (2Y, 3X^2, ...) are computed with additions
+ * so the results keep the Field implementation of the point's coordinates.
+ * <p>
+ * See https://hyperelliptic.org/EFD/g1p/auto-shortw-jacobian.html
+ */
+final class JacobianPoint {
+
+    private final Field x;
+    private final Field y;
+    private final Field z;  // null for the point at infinity
+    private final Field a;
+
+    private JacobianPoint(Field x, Field y, Field z, Field a) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.a = a;
+    }
+
+    static JacobianPoint infinity(Field a) {
+        return new JacobianPoint(null, null, null, a);
+    }
+
+    static JacobianPoint fromAffine(Point p) {
+        if (p.getX() == null) {
+            return infinity(p.getA());
+        }
+        Field one = newField.apply(ONE, p.getX().getPrime());
+        return new JacobianPoint(p.getX(), p.getY(), one, p.getA());
+    }
+
+    boolean isInfinity() {
+        return z == null;
+    }
+
+    JacobianPoint doubled() {
+        if (isInfinity() || isZero(y)) {
+            return infinity(a);  // tangent line is vertical
+        }
+        Field xx = x.multiply(x);
+        Field yy = y.multiply(y);
+        Field yyyy = yy.multiply(yy);
+        Field zz = z.multiply(z);
+        Field s = times4(x.multiply(yy));                                 // S = 4XY^2
+        Field m = xx.add(xx).add(xx).add(a.multiply(zz.multiply(zz)));    // M = 3X^2 + aZ^4
+        Field x3 = m.multiply(m).subtract(s).subtract(s);                 // X3 = M^2 - 2S
+        Field y3 = m.multiply(s.subtract(x3)).subtract(times4(yyyy.add(yyyy)));  // Y3 = M(S - X3) - 8Y^4
+        Field z3 = y.multiply(z).add(y.multiply(z));                      // Z3 = 2YZ
+        return new JacobianPoint(x3, y3, z3, a);
+    }
+
+    JacobianPoint add(JacobianPoint other) {
+        if (isInfinity()) {
+            return other;
+        }
+        if (other.isInfinity()) {
+            return this;
+        }
+        Field z1z1 = z.multiply(z);
+        Field z2z2 = other.z.multiply(other.z);
+        Field u1 = x.multiply(z2z2);                                      // U1 = X1*Z2^2
+        Field u2 = other.x.multiply(z1z1);                                // U2 = X2*Z1^2
+        Field s1 = y.multiply(other.z).multiply(z2z2);                    // S1 = Y1*Z2^3
+        Field s2 = other.y.multiply(z).multiply(z1z1);                    // S2 = Y2*Z1^3
+        if (u1.equals(u2)) {
+            return s1.equals(s2) ? doubled() : infinity(a);               // p == q, or p == -q
+        }
+        Field h = u2.subtract(u1);
+        Field r = s2.subtract(s1);
+        Field hh = h.multiply(h);
+        Field hhh = h.multiply(hh);
+        Field v = u1.multiply(hh);
+        Field x3 = r.multiply(r).subtract(hhh).subtract(v).subtract(v);   // X3 = R^2 - H^3 - 2*U1*H^2
+        Field y3 = r.multiply(v.subtract(x3)).subtract(s1.multiply(hhh)); // Y3 = R(U1*H^2 - X3) - S1*H^3
+        Field z3 = h.multiply(z).multiply(other.z);                       // Z3 = H*Z1*Z2
+        return new JacobianPoint(x3, y3, z3, a);
+    }
+
+    /**
+     * Returns the affine point (X/Z^2, Y/Z^3), paying for the only field division of the computation.
+     */
+    EllipticCurvePoint toAffine(Field b) {
+        if (isInfinity()) {
+            return new EllipticCurvePoint(null, null, a, b);
+        }
+        Field zInverse = newField.apply(ONE, z.getPrime()).divide(z);
+        Field zInverseSquared = zInverse.multiply(zInverse);
+        return new EllipticCurvePoint(x.multiply(zInverseSquared), y.multiply(zInverseSquared).multiply(zInverse), a, b);
+    }
+
+    private static Field times4(Field f) {
+        Field twice = f.add(f);
+        return twice.add(twice);
+    }
+
+    private static boolean isZero(Field f) {
+        return f.getNumber().signum() == 0;
+    }
+}
@@ -0,0 +1,103 @@
+package mandioca.bitcoin.ecc;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, least recently used cache of values keyed by byte sequences, e.g., SEC public keys, shared by
+ * {@link Secp256k1PointCache} and {@link Secp256k1KeyTableCache}.  Hits and misses are counted, to size a cache
+ * against real workloads.  A capacity of 0 disables caching:  the owner is expected to check {@link #isEnabled()}
+ * and skip the lookup.  Instances are thread safe.
+ */
+final class LruCache<V> {
+
+    private final int capacity;
+    private final Map<ByteBuffer, V> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param description what is cached, for the exception message of a negative capacity, e.g., "Point cache"
+     */
+    LruCache(String description, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(description + " capacity " + capacity + " is negative");
+        }
+        this.capacity = capacity;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ByteBuffer, V> eldest) {
+                return size() > LruCache.this.capacity;
+            }
+        });
+    }
+
+    boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * Returns the cached value of the key, or null, counting the lookup as a hit or a miss.
+     */
+    V get(ByteBuffer key) {
+        V value = cache.get(key);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Caches the value of a missed key, evicting the least recently used value if the cache is full.  The value is
+     * built by the caller outside the cache's lock, so racing threads may build the same value twice.
+     */
+    void put(ByteBuffer key, V value) {
+        cache.put(key, value);
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    // Returns hits / (hits + misses), or 0 before the first lookup.
+    double getHitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    // Removes all cached values and resets the hit and miss counts.
+    void clear() {
+        cache.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "capacity=" + capacity +
+                ", size=" + size() +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", hitRate=" + String.format("%.3f", getHitRate()) +
+                '}';
+    }
+}
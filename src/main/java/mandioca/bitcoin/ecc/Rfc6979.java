@@ -1,16 +1,14 @@
 package mandioca.bitcoin.ecc;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import mandioca.bitcoin.util.HmacSha256;
+
 import java.math.BigInteger;
 import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
 
 import static java.lang.System.out;
 import static java.util.Arrays.fill;
-import static java.util.Arrays.stream;
 import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.N;
 import static mandioca.bitcoin.function.BigIntegerFunctions.*;
 import static mandioca.bitcoin.function.ByteArrayFunctions.*;
@@ -19,26 +17,25 @@ import static mandioca.bitcoin.util.HexUtils.HEX;
 /**
  * Deterministic K calculator based on the algorithm defined in section 3.2 of RFC 6979.
  * <p>
+ * K and V live in fixed 32 byte buffers, and every HMAC_K is computed from the inner and outer pad states
+ * precomputed when K last changed (see {@link HmacSha256}), so V = HMAC_K(V) costs two SHA-256 compressions and
+ * generating candidates allocates nothing.  Instances are not thread safe.
+ * <p>
  * See https://tools.ietf.org/html/rfc6979
  */
 public class Rfc6979 {
 
-    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int LENGTH = HmacSha256.MAC_LEN;
+    private static final byte[] N_BYTES = bigIntToUnsignedByteArray.apply(N);
 
-    private final Mac mac;
-    private byte[] k;
-    private byte[] v;
+    private final HmacSha256 hmac = new HmacSha256();  // keyed with k
+    private final byte[] k = new byte[LENGTH];
+    private final byte[] v = new byte[LENGTH];
+    private final byte[] secretAndH1 = new byte[2 * LENGTH];  // int2octets(x) || bits2octets(h1)
     @Deprecated
     private boolean debug;
 
     public Rfc6979() {
-        try {
-            this.mac = Mac.getInstance(MAC_ALGORITHM);
-            this.k = new byte[mac.getMacLength()];
-            this.v = new byte[mac.getMacLength()];
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
-        }
     }
 
     // pkg protected constructor for printing debug info
@@ -50,45 +47,37 @@ public class Rfc6979 {
 
     public void init(BigInteger e /* secret -> hashed twice */, BigInteger z /*H1 = H(message) -> hashed once*/) {
         // See https://tools.ietf.org/html/rfc6979#section-3.1.1
-        try {
-            z = reduceZ(z);  // Reduce z if very, very large.
-            byte[] secret = bigIntToUnsignedByteArray.apply(e);  // Caching arguments' bytes for use in the next steps.
-            byte[] h1 = bigIntToUnsignedByteArray.apply(z);   // Step A ( h1 = H(m) ) is performed by caller
-            if (debug) {
-                out.printf("init(%s, %s)\n", e.toString(HEX_RADIX), z.toString(HEX_RADIX));
-                out.println("h1      = " + HEX.to64DigitPaddedHex(h1));
-                out.println("secret = " + HEX.to64DigitPaddedHex(secret)); // correct
-            }
-            fill(v, ONE_BYTE[0]);    // Step B  set V = 0x01 0x01 0x01 ... 0x01
-            fill(k, ZERO_BYTE[0]);   // Step C  set K = 0x00 0x00 0x00 ... 0x00
-            doStepD(secret, h1);            // K = HMAC_K(V || 0x00 || secret || h1)
-            doStepE();                      // V = HMAC_K(V)
-            doStepF(secret, h1);            // K = HMAC_K(V || 0x01 || secret || h1)
-            doStepG();                      // V = HMAC_K(V)
-        } catch (InvalidKeyException ex) {
-            throw new RuntimeException(ex);
+        z = reduceZ(z);  // Reduce z if very, very large.
+        toOctets(e, secretAndH1, 0);  // Caching arguments' bytes for use in the next steps.
+        toOctets(z, secretAndH1, LENGTH);   // Step A ( h1 = H(m) ) is performed by caller
+        if (debug) {
+            out.printf("init(%s, %s)\n", e.toString(HEX_RADIX), z.toString(HEX_RADIX));
+            out.println("h1      = " + HEX.to64DigitPaddedHex(z));
+            out.println("secret = " + HEX.to64DigitPaddedHex(e)); // correct
         }
+        fill(v, ONE_BYTE[0]);    // Step B  set V = 0x01 0x01 0x01 ... 0x01
+        fill(k, ZERO_BYTE[0]);   // Step C  set K = 0x00 0x00 0x00 ... 0x00
+        hmac.init(k);
+        doStepD();                      // K = HMAC_K(V || 0x00 || secret || h1)
+        doStepE();                      // V = HMAC_K(V)
+        doStepF();                      // K = HMAC_K(V || 0x01 || secret || h1)
+        doStepG();                      // V = HMAC_K(V)
     }
 
     public BigInteger nextK() {
-        try {
-            while (true) {
-                processHMACInputs(v);
-                v = mac.doFinal();
-                if (debug) {
-                    out.println("nextK() -> V = " + HEX.to64DigitPaddedHex(v));
-                }
+        while (true) {
+            updateV();
+            if (debug) {
+                out.println("nextK() -> V = " + HEX.to64DigitPaddedHex(v));
+            }
+            if (isValidCandidate(v)) {
                 BigInteger candidate = new BigInteger(1, v);
-                if (isPositive.test(candidate) && isLessThan.apply(candidate, N)) {
-                    if (debug) {
-                        out.println("nextK() -> candidate = " + HEX.encode(candidate));
-                    }
-                    return candidate;
+                if (debug) {
+                    out.println("nextK() -> candidate = " + HEX.encode(candidate));
                 }
-                processHMACInputsVAndZero();
+                return candidate;
             }
-        } catch (InvalidKeyException ex) {
-            throw new RuntimeException(ex);
+            processHMACInputsVAndZero();
         }
     }
 
@@ -96,13 +85,12 @@ public class Rfc6979 {
     public List<BigInteger> getTestKs(int numCandidates) throws InvalidKeyException {
         final List<BigInteger> testCandidates = new ArrayList<>();
         while (true) {
-            processHMACInputs(v);
-            v = mac.doFinal();
+            updateV();
             if (debug) {
                 out.println("nextK() -> V = " + HEX.to64DigitPaddedHex(v));
             }
-            BigInteger candidate = new BigInteger(1, v);
-            if (isPositive.test(candidate) && isLessThan.apply(candidate, N)) {
+            if (isValidCandidate(v)) {
+                BigInteger candidate = new BigInteger(1, v);
                 if (debug) {
                     out.println("nextK() -> candidate = " + HEX.encode(candidate));
                 }
@@ -125,56 +113,93 @@ public class Rfc6979 {
     }
 
     //  K = HMAC_K(V || 0x00 || int2octets(x) || bits2octets(h1))
-    private void doStepD(byte[] secret, byte[] h1) throws InvalidKeyException {
-        processHMACInputs(v, ZERO_BYTE, secret, h1);
-        k = mac.doFinal();
+    private void doStepD() {
+        updateK(ZERO_BYTE[0], true);
         if (debug) {
             out.println("K = " + HEX.to64DigitPaddedHex(k));
         }
     }
 
     // V = HMAC_K(V)
-    private void doStepE() throws InvalidKeyException {
-        processHMACInputs(v);
-        v = mac.doFinal();
+    private void doStepE() {
+        updateV();
         if (debug) {
             out.println("V = " + HEX.to64DigitPaddedHex(v));
         }
     }
 
     //  K = HMAC_K(V || 0x01 || int2octets(x) || bits2octets(h1))
-    private void doStepF(byte[] secret, byte[] h1) throws InvalidKeyException {
-        processHMACInputs(v, ONE_BYTE, secret, h1);
-        k = mac.doFinal();
+    private void doStepF() {
+        updateK(ONE_BYTE[0], true);
         if (debug) {
             out.println("K = " + HEX.to64DigitPaddedHex(k));
         }
     }
 
     // V = HMAC_K(V)
-    private void doStepG() throws InvalidKeyException {
-        processHMACInputs(v);
-        v = mac.doFinal();
+    private void doStepG() {
+        updateV();
         if (debug) {
             out.println("V = " + HEX.to64DigitPaddedHex(v));
         }
     }
 
-    private void processHMACInputsVAndZero() throws InvalidKeyException {
-        processHMACInputs(v, ZERO_BYTE);
-        k = mac.doFinal();
+    private void processHMACInputsVAndZero() {
+        updateK(ZERO_BYTE[0], false);
         if (debug) {
             out.println("nextK() -> K = " + HEX.to64DigitPaddedHex(k));
         }
-        processHMACInputs(v);
-        v = mac.doFinal();
+        updateV();
         if (debug) {
             out.println("nextK() -> V = " + HEX.to64DigitPaddedHex(v));
         }
     }
 
-    private void processHMACInputs(byte[]... inputs) throws InvalidKeyException {
-        mac.init(new SecretKeySpec(k, MAC_ALGORITHM));
-        stream(inputs).forEach(mac::update);
+    // K = HMAC_K(V || separator [|| int2octets(x) || bits2octets(h1)]), then precomputes the pad states of the new K.
+    private void updateK(byte separator, boolean withSecretAndH1) {
+        hmac.update(v).update(separator);
+        if (withSecretAndH1) {
+            hmac.update(secretAndH1);
+        }
+        hmac.doFinal(k, 0);
+        hmac.init(k);
+    }
+
+    // V = HMAC_K(V), from the precomputed pad states of K.
+    private void updateV() {
+        hmac.update(v).doFinal(v, 0);
+    }
+
+    // Returns true if 0 < candidate < N, comparing the big-endian bytes without creating a BigInteger.
+    private static boolean isValidCandidate(byte[] candidate) {
+        boolean isZero = true;
+        for (byte b : candidate) {
+            if (b != 0) {
+                isZero = false;
+                break;
+            }
+        }
+        if (isZero) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            int c = candidate[i] & MASK_0xFF;
+            int n = N_BYTES[i] & MASK_0xFF;
+            if (c != n) {
+                return c < n;
+            }
+        }
+        return false;  // candidate == N
+    }
+
+    // Writes the 32 byte, big-endian encoding of a number in the range 0 to 2^256 - 1 to dest[offset].
+    private static void toOctets(BigInteger number, byte[] dest, int offset) {
+        if (number.signum() < 0 || number.bitLength() > 8 * LENGTH) {
+            throw new IllegalArgumentException("Number " + number.toString(HEX_RADIX) + " not in range 0 to 2^256 - 1");
+        }
+        byte[] bytes = number.toByteArray();
+        int length = Math.min(bytes.length, LENGTH);  // drops the sign byte of a 256-bit number
+        fill(dest, offset, offset + LENGTH - length, ZERO_BYTE[0]);
+        System.arraycopy(bytes, bytes.length - length, dest, offset + LENGTH - length, length);
     }
 }
@@ -0,0 +1,316 @@
+package mandioca.bitcoin.ecc;
+
+import java.math.BigInteger;
+
+import static java.math.BigInteger.ONE;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.N;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.p;
+
+/**
+ * Modular inversion by an odd modulus of up to 256 bits, with Bernstein and Yang's safegcd algorithm.
+ * <p>
+ * Instead of a 256-bit exponentiation (Fermat's Little Theorem), the inverse is computed with 590 "divsteps", a
+ * binary GCD variant, batched 59 at a time into a 2x2 transition matrix of 64-bit integers that is then applied to
+ * the 5x62-bit (signed) limb representations of the numbers being reduced.  The number of divsteps is fixed and
+ * the divsteps themselves are branch free, so the running time does not depend on the input (as far as the JVM
+ * allows).  The inverse of zero is zero.
+ * <p>
+ * The same machinery computes Jacobi symbols, see {@link #jacobi(BigInteger)}.
+ * <p>
+ * {@link #FIELD} inverts secp256k1 field elements (mod p), {@link #ORDER} inverts scalars (mod N).
+ * <p>
+ * See https://github.com/bitcoin-core/secp256k1/blob/master/src/modinv64_impl.h
+ * and https://github.com/bitcoin-core/secp256k1/blob/master/doc/safegcd_implementation.md
+ */
+public final class SafeGcdInverse {
+
+    public static final SafeGcdInverse FIELD = new SafeGcdInverse(p);
+    public static final SafeGcdInverse ORDER = new SafeGcdInverse(N);
+
+    static final long M62 = -1L >>> 2;
+
+    private final BigInteger modulus;
+    private final long[] modulusLimbs;  // unsigned 62-bit limbs
+    private final long modulusInverse62;  // modulus^-1 mod 2^62
+
+    public SafeGcdInverse(BigInteger modulus) {
+        if (!modulus.testBit(0) || modulus.bitLength() > 256 || modulus.compareTo(ONE) <= 0) {
+            throw new IllegalArgumentException("Modulus " + modulus + " is not an odd number in range 3 to 2^256 - 1");
+        }
+        this.modulus = modulus;
+        this.modulusLimbs = toLimbs(modulus);
+        this.modulusInverse62 = modulus.modInverse(ONE.shiftLeft(62)).longValue();
+    }
+
+    public BigInteger getModulus() {
+        return modulus;
+    }
+
+    /**
+     * Returns x^-1 mod the modulus;  x is reduced first if it is negative or not less than the modulus.
+     */
+    public BigInteger invert(BigInteger x) {
+        if (x.signum() < 0 || x.compareTo(modulus) >= 0) {
+            x = x.mod(modulus);
+        }
+        long[] limbs = toLimbs(x);
+        invert(limbs);
+        return fromLimbs(limbs);
+    }
+
+    /**
+     * Replaces the 5x62-bit limbs of a number in the range 0 to modulus - 1, least significant limb first, with the
+     * limbs of its inverse.
+     */
+    void invert(long[] x) {
+        long[] d = new long[5];
+        long[] e = {1, 0, 0, 0, 0};
+        long[] f = modulusLimbs.clone();
+        long[] g = x.clone();
+        long[] t = new long[4];  // u, v, q, r
+        long zeta = -1;  // zeta = -(delta + 1/2);  delta starts at 1/2
+        for (int i = 0; i < 10; i++) {  // 10 * 59 = 590 divsteps, enough for 256-bit inputs
+            zeta = divsteps59(zeta, f[0], g[0], t);
+            updateDE(d, e, t);
+            updateFG(f, g, t);
+        }
+        // g is now 0 and f is +/-1 (gcd(x, modulus)), unless x was 0;  d is +/- the inverse.
+        normalize(d, f[4]);
+        System.arraycopy(d, 0, x, 0, 5);
+    }
+
+    /**
+     * Returns the Jacobi symbol (x | modulus):  for a prime modulus, 1 if x is a non-zero square mod the modulus, -1
+     * if it is not a square, and 0 if x is 0 mod the modulus.  A non-zero x must be coprime to the modulus.  Variable
+     * time;  use it for public values only.
+     */
+    public int jacobi(BigInteger x) {
+        if (x.signum() < 0 || x.compareTo(modulus) >= 0) {
+            x = x.mod(modulus);
+        }
+        if (x.signum() == 0) {
+            return 0;
+        }
+        int jacobi = jacobi(toLimbs(x));
+        return jacobi != 0 ? jacobi : x.modPow(modulus.subtract(ONE).shiftRight(1), modulus).equals(ONE) ? 1 : -1;
+    }
+
+    /**
+     * Returns the Jacobi symbol of a non-zero number coprime to the modulus, given as 5x62-bit limbs in the range 1
+     * to modulus - 1, or 0 in the (very unlikely) case the computation did not converge after 744 posdivsteps.
+     * <p>
+     * Like the inversion, this runs divsteps on (f, g) = (modulus, x), but keeps f and g positive ("posdivsteps") so
+     * the quadratic reciprocity and (2 | f) rules can track the sign of (g | f) as f and g are swapped and halved.
+     * See secp256k1_jacobi64_maybe_var in https://github.com/bitcoin-core/secp256k1/blob/master/src/modinv64_impl.h
+     */
+    int jacobi(long[] x) {
+        long[] f = modulusLimbs.clone();
+        long[] g = x.clone();
+        long[] t = new long[5];  // u, v, q, r, and the sign of the symbol in bit 0
+        long eta = -1;  // eta = -delta;  delta starts at 1
+        for (int i = 0; i < 12; i++) {
+            eta = posdivsteps62(eta, f[0] | f[1] << 62, g[0] | g[1] << 62, t);
+            updateFG(f, g, t);
+            if (f[0] == 1 && (f[1] | f[2] | f[3] | f[4]) == 0) {
+                return 1 - 2 * (int) (t[4] & 1);  // f = 1, and (g | 1) = 1
+            }
+        }
+        return 0;
+    }
+
+    // Computes the transition matrix t, scaled by 2^62, of 62 posdivsteps on the low bits of f and g, updates the
+    // sign of the Jacobi symbol in t[4], and returns the new eta.  Several steps are batched where possible, so this
+    // branches on the inputs.
+    private static long posdivsteps62(long eta, long f, long g, long[] t) {
+        long u = 1, v = 0, q = 0, r = 1;
+        long jacobi = t[4];
+        int i = 62;
+        while (true) {
+            int zeros = Long.numberOfTrailingZeros(g | (-1L << i));  // only count zeros up to i
+            g >>>= zeros;                                  // these divsteps just halve g
+            u <<= zeros;
+            v <<= zeros;
+            eta -= zeros;
+            i -= zeros;
+            jacobi ^= zeros & ((f >>> 1) ^ (f >>> 2));     // (2 | f) = -1 if f is 3 or 5 mod 8
+            if (i == 0) {
+                break;
+            }
+            long w;
+            if (eta < 0) {
+                long tmp;
+                eta = -eta;
+                tmp = f;
+                f = g;
+                g = tmp;
+                tmp = u;
+                u = q;
+                q = tmp;
+                tmp = v;
+                v = r;
+                r = tmp;
+                jacobi ^= (f & g) >>> 1;                   // reciprocity:  -1 if both are 3 mod 4
+                int limit = (int) Math.min(eta + 1, i);
+                long m = (-1L >>> (64 - limit)) & 63;
+                w = (f * g * (f * f - 2)) & m;             // cancels up to 6 low bits of g
+            } else {
+                int limit = (int) Math.min(eta + 1, i);
+                long m = (-1L >>> (64 - limit)) & 15;
+                w = f + (((f + 1) & 4) << 1);
+                w = (-w * g) & m;                          // cancels up to 4 low bits of g
+            }
+            g += f * w;
+            q += u * w;
+            r += v * w;
+        }
+        t[0] = u;
+        t[1] = v;
+        t[2] = q;
+        t[3] = r;
+        t[4] = jacobi;
+        return eta;
+    }
+
+    // Computes the transition matrix t, scaled by 2^62, of 59 divsteps on the low bits of f and g, without
+    // branching on their values, and returns the new zeta.
+    private static long divsteps59(long zeta, long f0, long g0, long[] t) {
+        long u = 8, v = 0, q = 0, r = 8;  // the identity matrix times 8, since 59 divsteps scale it by 2^59
+        long f = f0, g = g0;
+        for (int i = 3; i < 62; i++) {
+            long c1 = zeta >> 63;            // mask for zeta < 0
+            long c2 = -(g & 1);              // mask for g odd
+            long x = (f ^ c1) - c1;          // conditionally negated f, u, v
+            long y = (u ^ c1) - c1;
+            long z = (v ^ c1) - c1;
+            g += x & c2;                     // conditionally add them to g, q, r
+            q += y & c2;
+            r += z & c2;
+            c1 &= c2;                        // mask for zeta < 0 and g odd
+            zeta = (zeta ^ c1) - 1;          // zeta becomes -zeta - 2 or zeta - 1
+            f += g & c1;                     // conditionally add g, q, r to f, u, v
+            u += q & c1;
+            v += r & c1;
+            g >>= 1;
+            u <<= 1;
+            v <<= 1;
+        }
+        t[0] = u;
+        t[1] = v;
+        t[2] = q;
+        t[3] = r;
+        return zeta;
+    }
+
+    // Sets [d, e] to t * [d, e] / 2^62 mod the modulus, adding multiples of the modulus to make the division exact.
+    private void updateDE(long[] d, long[] e, long[] t) {
+        long u = t[0], v = t[1], q = t[2], r = t[3];
+        long sd = d[4] >> 63;  // [md, me] start as [u, q] if d is negative, plus [v, r] if e is negative
+        long se = e[4] >> 63;
+        long md = (u & sd) + (v & se);
+        long me = (q & sd) + (r & se);
+        Int128 cd = new Int128().multiply(u, d[0]).addMultiply(v, e[0]);
+        Int128 ce = new Int128().multiply(q, d[0]).addMultiply(r, e[0]);
+        md -= (modulusInverse62 * cd.lo + md) & M62;  // so t * [d, e] + modulus * [md, me] has 62 zero low bits
+        me -= (modulusInverse62 * ce.lo + me) & M62;
+        cd.addMultiply(modulusLimbs[0], md).shiftRight62();
+        ce.addMultiply(modulusLimbs[0], me).shiftRight62();
+        for (int i = 1; i < 5; i++) {
+            cd.addMultiply(u, d[i]).addMultiply(v, e[i]).addMultiply(modulusLimbs[i], md);
+            ce.addMultiply(q, d[i]).addMultiply(r, e[i]).addMultiply(modulusLimbs[i], me);
+            d[i - 1] = cd.lo & M62;
+            e[i - 1] = ce.lo & M62;
+            cd.shiftRight62();
+            ce.shiftRight62();
+        }
+        d[4] = cd.lo;
+        e[4] = ce.lo;
+    }
+
+    // Sets [f, g] to t * [f, g] / 2^62, an exact division.
+    private static void updateFG(long[] f, long[] g, long[] t) {
+        long u = t[0], v = t[1], q = t[2], r = t[3];
+        Int128 cf = new Int128().multiply(u, f[0]).addMultiply(v, g[0]).shiftRight62();
+        Int128 cg = new Int128().multiply(q, f[0]).addMultiply(r, g[0]).shiftRight62();
+        for (int i = 1; i < 5; i++) {
+            cf.addMultiply(u, f[i]).addMultiply(v, g[i]);
+            cg.addMultiply(q, f[i]).addMultiply(r, g[i]);
+            f[i - 1] = cf.lo & M62;
+            g[i - 1] = cg.lo & M62;
+            cf.shiftRight62();
+            cg.shiftRight62();
+        }
+        f[4] = cf.lo;
+        g[4] = cg.lo;
+    }
+
+    // Brings r from the range (-2 * modulus, modulus) to [0, modulus), negating it if sign is negative.
+    private void normalize(long[] r, long sign) {
+        long condAdd = r[4] >> 63;
+        long condNegate = sign >> 63;
+        for (int i = 0; i < 5; i++) {
+            r[i] += modulusLimbs[i] & condAdd;
+            r[i] = (r[i] ^ condNegate) - condNegate;
+        }
+        carry(r);
+        condAdd = r[4] >> 63;
+        for (int i = 0; i < 5; i++) {
+            r[i] += modulusLimbs[i] & condAdd;
+        }
+        carry(r);
+    }
+
+    private static void carry(long[] r) {
+        for (int i = 0; i < 4; i++) {
+            r[i + 1] += r[i] >> 62;
+            r[i] &= M62;
+        }
+    }
+
+    private static long[] toLimbs(BigInteger x) {
+        long[] limbs = new long[5];
+        for (int i = 0; i < 5; i++) {
+            limbs[i] = x.shiftRight(62 * i).longValue() & M62;
+        }
+        return limbs;
+    }
+
+    private static BigInteger fromLimbs(long[] limbs) {
+        byte[] bytes = new byte[32];
+        long[] words = {
+                limbs[0] | limbs[1] << 62,
+                limbs[1] >>> 2 | limbs[2] << 60,
+                limbs[2] >>> 4 | limbs[3] << 58,
+                limbs[3] >>> 6 | limbs[4] << 56};
+        for (int i = 0; i < 32; i++) {
+            bytes[31 - i] = (byte) (words[i >>> 3] >>> ((i & 7) * 8));
+        }
+        return new BigInteger(1, bytes);
+    }
+
+    // A signed 128-bit accumulator.
+    private static final class Int128 {
+        private long hi;
+        private long lo;
+
+        private Int128 multiply(long a, long b) {
+            lo = a * b;
+            hi = Math.multiplyHigh(a, b);
+            return this;
+        }
+
+        private Int128 addMultiply(long a, long b) {
+            long productLo = a * b;
+            long sum = lo + productLo;
+            long carry = ((lo & productLo) | ((lo | productLo) & ~sum)) >>> 63;  // branch free
+            hi += Math.multiplyHigh(a, b) + carry;
+            lo = sum;
+            return this;
+        }
+
+        private Int128 shiftRight62() {
+            lo = (lo >>> 62) | (hi << 2);
+            hi >>= 62;
+            return this;
+        }
+    }
+}
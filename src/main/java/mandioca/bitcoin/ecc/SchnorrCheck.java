@@ -0,0 +1,49 @@
+package mandioca.bitcoin.ecc;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A BIP340 signature to verify:  the message, the signature, and the signer's 32 byte x-only public key.
+ *
+ * @see Secp256k1Schnorr#verifyBatch(java.util.List)
+ */
+public class SchnorrCheck {
+
+    private final byte[] message;
+    private final SchnorrSignature signature;
+    private final byte[] publicKey;
+
+    public SchnorrCheck(byte[] message, SchnorrSignature signature, byte[] publicKey) {
+        this.message = message;
+        this.signature = signature;
+        this.publicKey = publicKey;
+    }
+
+    public byte[] getMessage() {
+        return message;
+    }
+
+    public SchnorrSignature getSignature() {
+        return signature;
+    }
+
+    public byte[] getPublicKey() {
+        return publicKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SchnorrCheck other = (SchnorrCheck) o;
+        return Arrays.equals(message, other.message) &&
+                Objects.equals(signature, other.signature) &&
+                Arrays.equals(publicKey, other.publicKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(message), signature, Arrays.hashCode(publicKey));
+    }
+}
@@ -0,0 +1,76 @@
+package mandioca.bitcoin.ecc;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static mandioca.bitcoin.function.ByteArrayFunctions.bigIntToUnsignedByteArray;
+import static mandioca.bitcoin.util.HexUtils.HEX;
+
+/**
+ * A BIP340 Schnorr signature (r, s):  r is the x coordinate of the nonce point R, and s = k + e * d mod N.
+ * Serialized as 64 bytes, bytes(r) || bytes(s).
+ *
+ * @see Secp256k1Schnorr
+ */
+public class SchnorrSignature {
+
+    public static final int LENGTH = 64;
+
+    private final BigInteger r;
+    private final BigInteger s;
+
+    public SchnorrSignature(BigInteger r, BigInteger s) {
+        this.r = r;
+        this.s = s;
+    }
+
+    /**
+     * Returns the signature of a 64 byte serialization;  r and s are range checked by verification, not here.
+     */
+    public static SchnorrSignature parse(byte[] bytes) {
+        if (bytes.length != LENGTH) {
+            throw new IllegalArgumentException("Schnorr signature length " + bytes.length + " is not " + LENGTH);
+        }
+        return new SchnorrSignature(
+                new BigInteger(1, Arrays.copyOfRange(bytes, 0, 32)),
+                new BigInteger(1, Arrays.copyOfRange(bytes, 32, 64)));
+    }
+
+    public BigInteger getR() {
+        return r;
+    }
+
+    public BigInteger getS() {
+        return s;
+    }
+
+    public byte[] getBytes() {
+        byte[] bytes = new byte[LENGTH];
+        System.arraycopy(bigIntToUnsignedByteArray.apply(r), 0, bytes, 0, 32);
+        System.arraycopy(bigIntToUnsignedByteArray.apply(s), 0, bytes, 32, 32);
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SchnorrSignature other = (SchnorrSignature) o;
+        return Objects.equals(r, other.r) &&
+                Objects.equals(s, other.s);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(r, s);
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "{\n"
+                + "  r =" + HEX.toPrettyHex(r) + "\n"
+                + ", s =" + HEX.toPrettyHex(s) + "\n"
+                + "}";
+    }
+}
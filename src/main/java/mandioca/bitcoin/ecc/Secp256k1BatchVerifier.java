@@ -0,0 +1,122 @@
+package mandioca.bitcoin.ecc;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static java.math.BigInteger.ONE;
+import static mandioca.bitcoin.ecc.EccProperties.GLV_ENABLED;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.N;
+
+/**
+ * Verifies a batch of ECDSA signatures, see {@link Secp256k1Point#verifyBatch(List)}.
+ * <p>
+ * The s inverses of the whole batch are computed with Montgomery's simultaneous inversion trick (one modular
+ * inversion plus three multiplications per signature), then the batch is split into chunks of up to CHUNK_SIZE
+ * checks verified in parallel.  Each chunk normalizes its public keys' wNAF tables with one field inversion, and
+ * compares each uG + vP to r in Jacobian coordinates, so no result point is ever normalized.
+ */
+final class Secp256k1BatchVerifier {
+
+    static final int CHUNK_SIZE = 16;
+
+    private Secp256k1BatchVerifier() {
+    }
+
+    static boolean[] verify(List<SignatureCheck> checks) {
+        SignatureCheck[] batch = checks.toArray(new SignatureCheck[0]);
+        boolean[] results = new boolean[batch.length];
+        BigInteger[] sInverses = sInverses(batch);
+        if (batch.length <= CHUNK_SIZE) {
+            verify(batch, sInverses, results, 0, batch.length);
+        } else {
+            ForkJoinPool.commonPool().invoke(new VerifyTask(batch, sInverses, results, 0, batch.length));
+        }
+        return results;
+    }
+
+    // Returns the inverses of all s mod N, or null for the checks that can never be valid.
+    private static BigInteger[] sInverses(SignatureCheck[] batch) {
+        BigInteger[] products = new BigInteger[batch.length];  // products[i] = s0 * s1 * ... * si mod N
+        BigInteger product = ONE;
+        for (int i = 0; i < batch.length; i++) {
+            if (isInRange(batch[i])) {
+                product = product.multiply(batch[i].getSignature().getS()).mod(N);
+            }
+            products[i] = product;
+        }
+        BigInteger[] inverses = new BigInteger[batch.length];
+        BigInteger inverse = SafeGcdInverse.ORDER.invert(product);  // (s0 * s1 * ... * sn)^-1
+        for (int i = batch.length - 1; i >= 0; i--) {
+            if (isInRange(batch[i])) {
+                inverses[i] = i > 0 ? inverse.multiply(products[i - 1]).mod(N) : inverse;
+                inverse = inverse.multiply(batch[i].getSignature().getS()).mod(N);
+            }
+        }
+        return inverses;
+    }
+
+    private static void verify(SignatureCheck[] batch, BigInteger[] sInverses, boolean[] results, int from, int to) {
+        int count = 0;
+        Secp256k1Point[] publicKeys = new Secp256k1Point[to - from];
+        for (int i = from; i < to; i++) {
+            if (sInverses[i] != null) {
+                publicKeys[count++] = batch[i].getPublicKey();
+            }
+        }
+        Secp256k1WnafTable[] tables = Secp256k1WnafTable.tables(
+                Arrays.copyOf(publicKeys, count), Secp256k1WnafTable.WINDOW_BITS);
+        for (int i = from, t = 0; i < to; i++) {
+            if (sInverses[i] == null) {
+                continue;  // results[i] stays false
+            }
+            Signature signature = batch[i].getSignature();
+            BigInteger u = batch[i].getZ().multiply(sInverses[i]).mod(N);
+            BigInteger v = signature.getR().multiply(sInverses[i]).mod(N);
+            results[i] = Secp256k1Point.dualMultiply(u, v, tables[t++], GLV_ENABLED).xEquals(signature.getR());
+        }
+    }
+
+    // A signature with r or s outside 1 to N-1, or no public key, is invalid.
+    private static boolean isInRange(SignatureCheck check) {
+        Signature signature = check.getSignature();
+        return check.getPublicKey() != null && check.getPublicKey().getX() != null
+                && isScalar(signature.getR()) && isScalar(signature.getS());
+    }
+
+    static boolean isScalar(BigInteger k) {
+        return k.signum() > 0 && k.compareTo(N) < 0;
+    }
+
+    private static class VerifyTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SignatureCheck[] batch;
+        private final BigInteger[] sInverses;
+        private final boolean[] results;
+        private final int from;
+        private final int to;
+
+        VerifyTask(SignatureCheck[] batch, BigInteger[] sInverses, boolean[] results, int from, int to) {
+            this.batch = batch;
+            this.sInverses = sInverses;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                verify(batch, sInverses, results, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new VerifyTask(batch, sInverses, results, from, middle),
+                        new VerifyTask(batch, sInverses, results, middle, to));
+            }
+        }
+    }
+}
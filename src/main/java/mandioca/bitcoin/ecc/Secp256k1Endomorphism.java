@@ -0,0 +1,43 @@
+package mandioca.bitcoin.ecc;
+
+import java.math.BigInteger;
+
+import static java.math.BigInteger.ONE;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.*;
+
+/**
+ * The secp256k1 GLV endomorphism, lambda * (x, y) = (beta * x, y), used to split a 256-bit scalar k into two
+ * signed ~128-bit scalars k1 and k2 with k = k1 + k2 * lambda (mod N).  kP is then computed as k1P + k2(lambda P),
+ * two multiplications that share a chain of only ~128 doublings, and lambda P costs a single field multiplication.
+ * <p>
+ * See https://www.iacr.org/archive/crypto2001/21390189.pdf (Gallant, Lambert, Vanstone), and
+ * https://github.com/bitcoin-core/secp256k1/blob/master/src/scalar_impl.h
+ */
+final class Secp256k1Endomorphism {
+
+    static final Secp256k1FieldElement FIELD_BETA = new Secp256k1FieldElement(BETA);
+
+    // g1 = round(2^384 * b2 / N), g2 = round(2^384 * -b1 / N), so that c1 = round(k * b2 / N) = (k * g1) >> 384,
+    // and c2 = round(k * -b1 / N) = (k * g2) >> 384, rounded, without a division.
+    private static final BigInteger G1 = roundedDivide(GLV_B2.shiftLeft(384), N);
+    private static final BigInteger G2 = roundedDivide(GLV_B1.negate().shiftLeft(384), N);
+    private static final BigInteger HALF = ONE.shiftLeft(383);
+
+    private Secp256k1Endomorphism() {
+    }
+
+    /**
+     * Returns {k1, k2}, with k = k1 + k2 * lambda (mod N), and |k1|, |k2| < 2^129, for a scalar k in the range 0 to N-1.
+     */
+    static BigInteger[] split(BigInteger k) {
+        BigInteger c1 = k.multiply(G1).add(HALF).shiftRight(384);
+        BigInteger c2 = k.multiply(G2).add(HALF).shiftRight(384);
+        BigInteger k1 = k.subtract(c1.multiply(GLV_A1)).subtract(c2.multiply(GLV_A2));
+        BigInteger k2 = c1.multiply(GLV_B1).add(c2.multiply(GLV_B2)).negate();
+        return new BigInteger[]{k1, k2};
+    }
+
+    private static BigInteger roundedDivide(BigInteger dividend, BigInteger divisor) {
+        return dividend.add(divisor.shiftRight(1)).divide(divisor);
+    }
+}
@@ -0,0 +1,47 @@
+package mandioca.bitcoin.ecc;
+
+import static mandioca.bitcoin.ecc.EccProperties.VECTOR_ENABLED;
+
+/**
+ * Element-wise arithmetic on arrays of independent secp256k1 field elements, the building block of the batch
+ * operations (batch key derivation, and the normalization of the wNAF tables of a batch of signature checks).
+ * <p>
+ * There are two backends:  {@link Secp256k1ScalarFieldBatch} loops over the elements with the 5x52-bit
+ * {@link Secp256k1FieldElement} arithmetic, and {@link Secp256k1VectorFieldBatch} computes 4 to 8 elements at a
+ * time in the SIMD lanes of the (incubating) Vector API.  The vector backend is used when it is enabled in
+ * ecc.properties and the JVM was started with --add-modules jdk.incubator.vector;  otherwise the scalar backend is.
+ */
+interface Secp256k1FieldBatch {
+
+    /**
+     * Sets r[i] to a[i] * b[i] for each i;  r may be a or b.
+     */
+    void multiplyAll(Secp256k1FieldElement[] r, Secp256k1FieldElement[] a, Secp256k1FieldElement[] b);
+
+    /**
+     * Replaces each element with its inverse, paying for a single field inversion (Montgomery's trick).  Zero
+     * elements are left as zero.
+     */
+    void inverseAll(Secp256k1FieldElement[] elements);
+
+    /**
+     * Sets (ax[i], ay[i]) to the affine coordinates (x[i] / z[i]^2, y[i] / z[i]^3) of Jacobian points, paying for a
+     * single field inversion.  The z coordinates must not be zero.
+     */
+    void toAffineAll(Secp256k1FieldElement[] x, Secp256k1FieldElement[] y, Secp256k1FieldElement[] z,
+                     Secp256k1FieldElement[] ax, Secp256k1FieldElement[] ay);
+
+    static Secp256k1FieldBatch getDefault() {
+        return DefaultBatchHolder.DEFAULT_BATCH;
+    }
+
+    static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    class DefaultBatchHolder {
+        private static final Secp256k1FieldBatch DEFAULT_BATCH = VECTOR_ENABLED && isVectorApiAvailable()
+                ? new Secp256k1VectorFieldBatch()
+                : Secp256k1ScalarFieldBatch.INSTANCE;
+    }
+}
@@ -0,0 +1,686 @@
+package mandioca.bitcoin.ecc;
+
+import java.math.BigInteger;
+import java.util.Objects;
+
+import static java.math.BigInteger.ONE;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.p;
+import static mandioca.bitcoin.function.BigIntegerFunctions.*;
+import static mandioca.bitcoin.util.HexUtils.HEX;
+
+/**
+ * A secp256k1 field element backed by five 52-bit limbs (libsecp256k1's 5x52 representation), n0 holding the
+ * least significant bits and n4 holding the top 48 bits.
+ * <p>
+ * The {@link Field} methods behave like {@link FieldElement}'s and return new instances, so the generic curve
+ * code can use this type without changes.  The {@code set*} methods work in place on a mutable scratch instance
+ * (aliasing the receiver with an argument is allowed), and are what the secp256k1 point arithmetic uses in its
+ * inner loops.  Every operation leaves its result fully normalized, i.e., in the range 0 to p-1.
+ * <p>
+ * See https://github.com/bitcoin-core/secp256k1/blob/master/src/field_5x52_impl.h
+ */
+public final class Secp256k1FieldElement implements Field {
+
+    static final long M52 = 0xFFFFFFFFFFFFFL;
+    static final long M48 = 0xFFFFFFFFFFFFL;
+    static final long M26 = 0x3FFFFFFL;
+    static final long R256 = 0x1000003D1L;   // 2^256 mod p
+    static final long R260 = 0x1000003D10L;  // 2^260 mod p
+
+    // Limbs of 2p, used to negate a normalized element without underflowing a limb.
+    private static final long P2_0 = 0x1FFFFDFFFFF85EL;
+    private static final long P2_123 = 0x1FFFFFFFFFFFFEL;
+    private static final long P2_4 = 0x1FFFFFFFFFFFEL;
+
+    private static final BigInteger P_MINUS_ONE = p.subtract(ONE);
+
+    private long n0, n1, n2, n3, n4;
+
+    /**
+     * Creates a zero element, typically used as a scratch instance by the in-place operations.
+     */
+    public Secp256k1FieldElement() {
+    }
+
+    public Secp256k1FieldElement(BigInteger number) {
+        if (isNegative.test(number) || isGreaterThanOrEqual.apply(number, p)) {
+            throw new IllegalArgumentException(
+                    String.format("Number %d not in field range 0 to %d", number, P_MINUS_ONE));
+        }
+        setBytes(toBytes32(number), 0);
+    }
+
+    public static Secp256k1FieldElement valueOf(BigInteger number) {
+        return new Secp256k1FieldElement(number);
+    }
+
+    public static Secp256k1FieldElement valueOf(long number) {
+        return new Secp256k1FieldElement().setLong(number);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // In place operations
+    ///////////////////////////////////////////////////////////////////////////
+
+    public Secp256k1FieldElement set(Secp256k1FieldElement a) {
+        n0 = a.n0;
+        n1 = a.n1;
+        n2 = a.n2;
+        n3 = a.n3;
+        n4 = a.n4;
+        return this;
+    }
+
+    /**
+     * Sets this element to a non-negative long value.
+     */
+    public Secp256k1FieldElement setLong(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Cannot set negative value " + value);
+        }
+        n0 = value & M52;
+        n1 = value >>> 52;
+        n2 = 0;
+        n3 = 0;
+        n4 = 0;
+        return this;
+    }
+
+    /**
+     * Sets this element to the 32-byte big-endian number found at b[offset], reduced mod p.
+     */
+    public Secp256k1FieldElement setBytes(byte[] b, int offset) {
+        long w3 = readLong(b, offset);
+        long w2 = readLong(b, offset + 8);
+        long w1 = readLong(b, offset + 16);
+        long w0 = readLong(b, offset + 24);
+        n0 = w0 & M52;
+        n1 = (w0 >>> 52 | w1 << 12) & M52;
+        n2 = (w1 >>> 40 | w2 << 24) & M52;
+        n3 = (w2 >>> 28 | w3 << 36) & M52;
+        n4 = w3 >>> 16;
+        normalize();
+        return this;
+    }
+
+    /**
+     * Writes this element as a 32-byte big-endian number to b[offset].
+     */
+    public void getBytes(byte[] b, int offset) {
+        writeLong(b, offset, n3 >>> 36 | n4 << 16);
+        writeLong(b, offset + 8, n2 >>> 24 | n3 << 28);
+        writeLong(b, offset + 16, n1 >>> 12 | n2 << 40);
+        writeLong(b, offset + 24, n0 | n1 << 52);
+    }
+
+    public byte[] getBytes() {
+        byte[] b = new byte[32];
+        getBytes(b, 0);
+        return b;
+    }
+
+    /**
+     * Sets this element to the five normalized limbs found at limbs[offset], e.g., from a precomputed table.
+     */
+    Secp256k1FieldElement setLimbs(long[] limbs, int offset) {
+        n0 = limbs[offset];
+        n1 = limbs[offset + 1];
+        n2 = limbs[offset + 2];
+        n3 = limbs[offset + 3];
+        n4 = limbs[offset + 4];
+        return this;
+    }
+
+    /**
+     * Writes the five limbs of this element to limbs[offset].
+     */
+    void getLimbs(long[] limbs, int offset) {
+        limbs[offset] = n0;
+        limbs[offset + 1] = n1;
+        limbs[offset + 2] = n2;
+        limbs[offset + 3] = n3;
+        limbs[offset + 4] = n4;
+    }
+
+    /**
+     * Sets this element to the ten 26-bit limbs found at limbs[offset], limbs[offset + stride], ..., least
+     * significant first, e.g., one lane of a {@link Secp256k1VectorFieldBatch} row.  The limbs may exceed 26 bits
+     * by a few carry bits, and the number may exceed p.
+     */
+    Secp256k1FieldElement setLimbs26(long[] limbs, int offset, int stride) {
+        n0 = limbs[offset] + (limbs[offset + stride] << 26);
+        n1 = limbs[offset + 2 * stride] + (limbs[offset + 3 * stride] << 26);
+        n2 = limbs[offset + 4 * stride] + (limbs[offset + 5 * stride] << 26);
+        n3 = limbs[offset + 6 * stride] + (limbs[offset + 7 * stride] << 26);
+        n4 = limbs[offset + 8 * stride] + (limbs[offset + 9 * stride] << 26);
+        normalize();
+        return this;
+    }
+
+    /**
+     * Writes this element as ten 26-bit limbs to limbs[offset], limbs[offset + stride], ...
+     */
+    void getLimbs26(long[] limbs, int offset, int stride) {
+        limbs[offset] = n0 & M26;
+        limbs[offset + stride] = n0 >>> 26;
+        limbs[offset + 2 * stride] = n1 & M26;
+        limbs[offset + 3 * stride] = n1 >>> 26;
+        limbs[offset + 4 * stride] = n2 & M26;
+        limbs[offset + 5 * stride] = n2 >>> 26;
+        limbs[offset + 6 * stride] = n3 & M26;
+        limbs[offset + 7 * stride] = n3 >>> 26;
+        limbs[offset + 8 * stride] = n4 & M26;
+        limbs[offset + 9 * stride] = n4 >>> 26;
+    }
+
+    public Secp256k1FieldElement setAdd(Secp256k1FieldElement a, Secp256k1FieldElement b) {
+        n0 = a.n0 + b.n0;
+        n1 = a.n1 + b.n1;
+        n2 = a.n2 + b.n2;
+        n3 = a.n3 + b.n3;
+        n4 = a.n4 + b.n4;
+        normalize();
+        return this;
+    }
+
+    public Secp256k1FieldElement setSubtract(Secp256k1FieldElement a, Secp256k1FieldElement b) {
+        n0 = a.n0 + P2_0 - b.n0;      // a + (2p - b)
+        n1 = a.n1 + P2_123 - b.n1;
+        n2 = a.n2 + P2_123 - b.n2;
+        n3 = a.n3 + P2_123 - b.n3;
+        n4 = a.n4 + P2_4 - b.n4;
+        normalize();
+        return this;
+    }
+
+    public Secp256k1FieldElement setNegate(Secp256k1FieldElement a) {
+        n0 = P2_0 - a.n0;
+        n1 = P2_123 - a.n1;
+        n2 = P2_123 - a.n2;
+        n3 = P2_123 - a.n3;
+        n4 = P2_4 - a.n4;
+        normalize();
+        return this;
+    }
+
+    /**
+     * Sets this element to a * k, where k is a small non-negative multiplier (at most 2^8).
+     */
+    public Secp256k1FieldElement setMultiplyInt(Secp256k1FieldElement a, int k) {
+        n0 = a.n0 * k;
+        n1 = a.n1 * k;
+        n2 = a.n2 * k;
+        n3 = a.n3 * k;
+        n4 = a.n4 * k;
+        normalize();
+        return this;
+    }
+
+    public Secp256k1FieldElement setMultiply(Secp256k1FieldElement a, Secp256k1FieldElement b) {
+        long a0 = a.n0, a1 = a.n1, a2 = a.n2, a3 = a.n3, a4 = a.n4;
+        long b0 = b.n0, b1 = b.n1, b2 = b.n2, b3 = b.n3, b4 = b.n4;
+        // Each 104-bit limb product is split into its low 52 bits (pij & M52) and its high bits (hij),
+        // and the column sums d0..d9 of 52-bit pieces are small enough to add up without overflowing a long.
+        long p00 = a0 * b0, h00 = Math.multiplyHigh(a0, b0) << 12 | p00 >>> 52;
+        long p01 = a0 * b1, h01 = Math.multiplyHigh(a0, b1) << 12 | p01 >>> 52;
+        long p02 = a0 * b2, h02 = Math.multiplyHigh(a0, b2) << 12 | p02 >>> 52;
+        long p03 = a0 * b3, h03 = Math.multiplyHigh(a0, b3) << 12 | p03 >>> 52;
+        long p04 = a0 * b4, h04 = Math.multiplyHigh(a0, b4) << 12 | p04 >>> 52;
+        long p10 = a1 * b0, h10 = Math.multiplyHigh(a1, b0) << 12 | p10 >>> 52;
+        long p11 = a1 * b1, h11 = Math.multiplyHigh(a1, b1) << 12 | p11 >>> 52;
+        long p12 = a1 * b2, h12 = Math.multiplyHigh(a1, b2) << 12 | p12 >>> 52;
+        long p13 = a1 * b3, h13 = Math.multiplyHigh(a1, b3) << 12 | p13 >>> 52;
+        long p14 = a1 * b4, h14 = Math.multiplyHigh(a1, b4) << 12 | p14 >>> 52;
+        long p20 = a2 * b0, h20 = Math.multiplyHigh(a2, b0) << 12 | p20 >>> 52;
+        long p21 = a2 * b1, h21 = Math.multiplyHigh(a2, b1) << 12 | p21 >>> 52;
+        long p22 = a2 * b2, h22 = Math.multiplyHigh(a2, b2) << 12 | p22 >>> 52;
+        long p23 = a2 * b3, h23 = Math.multiplyHigh(a2, b3) << 12 | p23 >>> 52;
+        long p24 = a2 * b4, h24 = Math.multiplyHigh(a2, b4) << 12 | p24 >>> 52;
+        long p30 = a3 * b0, h30 = Math.multiplyHigh(a3, b0) << 12 | p30 >>> 52;
+        long p31 = a3 * b1, h31 = Math.multiplyHigh(a3, b1) << 12 | p31 >>> 52;
+        long p32 = a3 * b2, h32 = Math.multiplyHigh(a3, b2) << 12 | p32 >>> 52;
+        long p33 = a3 * b3, h33 = Math.multiplyHigh(a3, b3) << 12 | p33 >>> 52;
+        long p34 = a3 * b4, h34 = Math.multiplyHigh(a3, b4) << 12 | p34 >>> 52;
+        long p40 = a4 * b0, h40 = Math.multiplyHigh(a4, b0) << 12 | p40 >>> 52;
+        long p41 = a4 * b1, h41 = Math.multiplyHigh(a4, b1) << 12 | p41 >>> 52;
+        long p42 = a4 * b2, h42 = Math.multiplyHigh(a4, b2) << 12 | p42 >>> 52;
+        long p43 = a4 * b3, h43 = Math.multiplyHigh(a4, b3) << 12 | p43 >>> 52;
+        long p44 = a4 * b4, h44 = Math.multiplyHigh(a4, b4) << 12 | p44 >>> 52;
+        long d0 = (p00 & M52);
+        long d1 = h00 + (p01 & M52) + (p10 & M52);
+        long d2 = h01 + (p02 & M52) + h10 + (p11 & M52) + (p20 & M52);
+        long d3 = h02 + (p03 & M52) + h11 + (p12 & M52) + h20 + (p21 & M52) + (p30 & M52);
+        long d4 = h03 + (p04 & M52) + h12 + (p13 & M52) + h21 + (p22 & M52) + h30 + (p31 & M52) + (p40 & M52);
+        long d5 = h04 + h13 + (p14 & M52) + h22 + (p23 & M52) + h31 + (p32 & M52) + h40 + (p41 & M52);
+        long d6 = h14 + h23 + (p24 & M52) + h32 + (p33 & M52) + h41 + (p42 & M52);
+        long d7 = h24 + h33 + (p34 & M52) + h42 + (p43 & M52);
+        long d8 = h34 + h43 + (p44 & M52);
+        long d9 = h44;
+        reduce(d0, d1, d2, d3, d4, d5, d6, d7, d8, d9);
+        return this;
+    }
+
+    public Secp256k1FieldElement setSquare(Secp256k1FieldElement a) {
+        long a0 = a.n0, a1 = a.n1, a2 = a.n2, a3 = a.n3, a4 = a.n4;
+        long p00 = a0 * a0, h00 = Math.multiplyHigh(a0, a0) << 12 | p00 >>> 52;
+        long p01 = a0 * a1, h01 = Math.multiplyHigh(a0, a1) << 12 | p01 >>> 52;
+        long p02 = a0 * a2, h02 = Math.multiplyHigh(a0, a2) << 12 | p02 >>> 52;
+        long p03 = a0 * a3, h03 = Math.multiplyHigh(a0, a3) << 12 | p03 >>> 52;
+        long p04 = a0 * a4, h04 = Math.multiplyHigh(a0, a4) << 12 | p04 >>> 52;
+        long p11 = a1 * a1, h11 = Math.multiplyHigh(a1, a1) << 12 | p11 >>> 52;
+        long p12 = a1 * a2, h12 = Math.multiplyHigh(a1, a2) << 12 | p12 >>> 52;
+        long p13 = a1 * a3, h13 = Math.multiplyHigh(a1, a3) << 12 | p13 >>> 52;
+        long p14 = a1 * a4, h14 = Math.multiplyHigh(a1, a4) << 12 | p14 >>> 52;
+        long p22 = a2 * a2, h22 = Math.multiplyHigh(a2, a2) << 12 | p22 >>> 52;
+        long p23 = a2 * a3, h23 = Math.multiplyHigh(a2, a3) << 12 | p23 >>> 52;
+        long p24 = a2 * a4, h24 = Math.multiplyHigh(a2, a4) << 12 | p24 >>> 52;
+        long p33 = a3 * a3, h33 = Math.multiplyHigh(a3, a3) << 12 | p33 >>> 52;
+        long p34 = a3 * a4, h34 = Math.multiplyHigh(a3, a4) << 12 | p34 >>> 52;
+        long p44 = a4 * a4, h44 = Math.multiplyHigh(a4, a4) << 12 | p44 >>> 52;
+        long d0 = (p00 & M52);
+        long d1 = h00 + ((p01 & M52) << 1);
+        long d2 = (h01 << 1) + ((p02 & M52) << 1) + (p11 & M52);
+        long d3 = (h02 << 1) + ((p03 & M52) << 1) + h11 + ((p12 & M52) << 1);
+        long d4 = (h03 << 1) + ((p04 & M52) << 1) + (h12 << 1) + ((p13 & M52) << 1) + (p22 & M52);
+        long d5 = (h04 << 1) + (h13 << 1) + ((p14 & M52) << 1) + h22 + ((p23 & M52) << 1);
+        long d6 = (h14 << 1) + (h23 << 1) + ((p24 & M52) << 1) + (p33 & M52);
+        long d7 = (h24 << 1) + h33 + ((p34 & M52) << 1);
+        long d8 = (h34 << 1) + (p44 & M52);
+        long d9 = h44;
+        reduce(d0, d1, d2, d3, d4, d5, d6, d7, d8, d9);
+        return this;
+    }
+
+    /**
+     * Sets this element to a^(2^n), squaring n times.
+     */
+    public Secp256k1FieldElement setSquare(Secp256k1FieldElement a, int n) {
+        set(a);
+        for (int i = 0; i < n; i++) {
+            setSquare(this);
+        }
+        return this;
+    }
+
+    /**
+     * Sets this element to a^exponent, for a non-negative exponent.
+     */
+    public Secp256k1FieldElement setPower(Secp256k1FieldElement a, BigInteger exponent) {
+        Secp256k1FieldElement base = new Secp256k1FieldElement().set(a);
+        setLong(1);
+        for (int i = exponent.bitLength() - 1; i >= 0; i--) {
+            setSquare(this);
+            if (exponent.testBit(i)) {
+                setMultiply(this, base);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Sets this element to the multiplicative inverse of a, with the safegcd algorithm of {@link SafeGcdInverse}.
+     * The inverse of zero is zero.
+     */
+    public Secp256k1FieldElement setInverse(Secp256k1FieldElement a) {
+        long[] limbs = a.getLimbs62();
+        SafeGcdInverse.FIELD.invert(limbs);
+        n0 = limbs[0] & M52;
+        n1 = (limbs[0] >>> 52 | limbs[1] << 10) & M52;
+        n2 = (limbs[1] >>> 42 | limbs[2] << 20) & M52;
+        n3 = (limbs[2] >>> 32 | limbs[3] << 30) & M52;
+        n4 = limbs[3] >>> 22 | limbs[4] << 40;
+        return this;
+    }
+
+    /**
+     * Sets this element to the multiplicative inverse of a, using Fermat's Little Theorem, a^(p-2), evaluated
+     * with libsecp256k1's fixed addition chain (255 squarings and 15 multiplications).  The inverse of zero is zero.
+     * Slower than {@link #setInverse(Secp256k1FieldElement)}, and kept to cross-check it.
+     */
+    Secp256k1FieldElement setInverseByExponentiation(Secp256k1FieldElement a) {
+        // The binary representation of (p - 2) has 5 blocks of 1s, with lengths in { 1, 2, 22, 223 }.
+        Secp256k1FieldElement[] x = ones(a);
+        Secp256k1FieldElement x2 = x[0], x22 = x[1], x223 = x[2];
+        Secp256k1FieldElement t = squareThenMultiply(x223, 23, x22);
+        t = squareThenMultiply(t, 5, a);
+        t = squareThenMultiply(t, 3, x2);
+        t = squareThenMultiply(t, 2, a);
+        return set(t);
+    }
+
+    /**
+     * Sets this element to a^((p+1)/4), which is a square root of a if a is a square (see {@link #isSquare()}), and
+     * a square root of -a otherwise.  The exponent's binary representation has 3 blocks of 1s, with lengths in
+     * { 2, 22, 223 }, so the addition chain takes 253 squarings and 13 multiplications.
+     */
+    public Secp256k1FieldElement setSqrt(Secp256k1FieldElement a) {
+        Secp256k1FieldElement[] x = ones(a);
+        Secp256k1FieldElement x2 = x[0], x22 = x[1], x223 = x[2];
+        Secp256k1FieldElement t = squareThenMultiply(x223, 23, x22);
+        t = squareThenMultiply(t, 6, x2);
+        return setSquare(t, 2);
+    }
+
+    /**
+     * Returns true if this element is a square mod p, zero included.  Computes the Jacobi symbol with
+     * {@link SafeGcdInverse#jacobi(BigInteger)}'s divsteps, several times faster than the exponentiation by (p-1)/2 of
+     * Euler's criterion.  Variable time.
+     */
+    public boolean isSquare() {
+        if (isZero()) {
+            return true;
+        }
+        int jacobi = SafeGcdInverse.FIELD.jacobi(getLimbs62());
+        if (jacobi == 0) {  // the divsteps did not converge (very unlikely), so check a square root
+            Secp256k1FieldElement root = new Secp256k1FieldElement().setSqrt(this);
+            return root.setSquare(root).equalsElement(this);
+        }
+        return jacobi > 0;
+    }
+
+    /**
+     * Replaces each element of the array with its inverse, paying for a single field inversion plus three
+     * multiplications per element (Montgomery's trick).  Zero elements are left as zero.  Large arrays are handled
+     * by the vector backend when it is enabled, see {@link Secp256k1FieldBatch}.
+     */
+    public static void setInverseAll(Secp256k1FieldElement[] elements) {
+        Secp256k1FieldBatch.getDefault().inverseAll(elements);
+    }
+
+    /**
+     * Sets r[i] to a[i] * b[i] for each i, see {@link Secp256k1FieldBatch}.
+     */
+    public static void setMultiplyAll(Secp256k1FieldElement[] r, Secp256k1FieldElement[] a, Secp256k1FieldElement[] b) {
+        Secp256k1FieldBatch.getDefault().multiplyAll(r, a, b);
+    }
+
+    public boolean isZero() {
+        return (n0 | n1 | n2 | n3 | n4) == 0;
+    }
+
+    public boolean isOdd() {
+        return (n0 & 1) == 1;
+    }
+
+    /**
+     * Returns true if this element and a represent the same number.
+     */
+    public boolean equalsElement(Secp256k1FieldElement a) {
+        return ((n0 ^ a.n0) | (n1 ^ a.n1) | (n2 ^ a.n2) | (n3 ^ a.n3) | (n4 ^ a.n4)) == 0;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Field interface
+    ///////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public Field add(Field other) {
+        return new Secp256k1FieldElement().setAdd(this, of(other));
+    }
+
+    @Override
+    public Field subtract(Field other) {
+        return new Secp256k1FieldElement().setSubtract(this, of(other));
+    }
+
+    @Override
+    public Field multiply(Field other) {
+        return new Secp256k1FieldElement().setMultiply(this, of(other));
+    }
+
+    @Override
+    public Field divide(Field other) {
+        Secp256k1FieldElement result = new Secp256k1FieldElement().setInverse(of(other));
+        return result.setMultiply(this, result);
+    }
+
+    @Override
+    public Field power(BigInteger exponent) {
+        if (isTwo.test(exponent)) {
+            return new Secp256k1FieldElement().setSquare(this);
+        }
+        if (isThree.test(exponent)) {
+            Secp256k1FieldElement result = new Secp256k1FieldElement().setSquare(this);
+            return result.setMultiply(result, this);
+        }
+        // Convert the exponent into something within the 0 to p-2 range, inclusive, and use
+        // Fermat's Little Theorem:  n^(p-1) mod p  =  1, where p is prime.
+        return new Secp256k1FieldElement().setPower(this, exponent.mod(P_MINUS_ONE));
+    }
+
+    @Override
+    public Field sqrt() {
+        return new Secp256k1FieldElement().setSqrt(this);
+    }
+
+    @Override
+    public BigInteger getNumber() {
+        return new BigInteger(1, getBytes());
+    }
+
+    @Override
+    public BigInteger getPrime() {
+        return p;
+    }
+
+    @Override
+    public boolean notEquals(Field o) {
+        return !equals(o);
+    }
+
+    @Override
+    public Secp256k1FieldElement clone() {
+        try {
+            return (Secp256k1FieldElement) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns true if o is any {@link Field} with the same number and prime as this element.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof Secp256k1FieldElement) return equalsElement((Secp256k1FieldElement) o);
+        if (!(o instanceof Field)) return false;
+        Field that = (Field) o;
+        return p.equals(that.getPrime()) && getNumber().equals(that.getNumber());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(n0 | n1 << 52, p.longValue());  // consistent with FieldElement.hashCode()
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "{"
+                + "\n\t  number = " + HEX.toPrettyHex(getNumber())
+                + "\n\t, prime  = " + HEX.toPrettyHex(p)
+                + "\n  }";
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Helpers
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Returns the argument itself if it already is a Secp256k1FieldElement, else converts it after checking
+     * it belongs to the same finite field.
+     */
+    private static Secp256k1FieldElement of(Field other) {
+        if (other == null) {
+            throw new NullPointerException("Cannot operate on null FieldElement");
+        }
+        if (other instanceof Secp256k1FieldElement) {
+            return (Secp256k1FieldElement) other;
+        }
+        if (!p.equals(other.getPrime())) {
+            throw new IllegalArgumentException("Cannot operate on two numbers in different finite fields");
+        }
+        return new Secp256k1FieldElement(other.getNumber());
+    }
+
+    /**
+     * Returns the elements a^(2^2-1), a^(2^22-1) and a^(2^223-1), i.e., a raised to exponents made of 2, 22 and
+     * 223 binary 1s, the building blocks of the inversion and square root addition chains.
+     */
+    private static Secp256k1FieldElement[] ones(Secp256k1FieldElement a) {
+        Secp256k1FieldElement x2 = squareThenMultiply(a, 1, a);
+        Secp256k1FieldElement x3 = squareThenMultiply(x2, 1, a);
+        Secp256k1FieldElement x6 = squareThenMultiply(x3, 3, x3);
+        Secp256k1FieldElement x9 = squareThenMultiply(x6, 3, x3);
+        Secp256k1FieldElement x11 = squareThenMultiply(x9, 2, x2);
+        Secp256k1FieldElement x22 = squareThenMultiply(x11, 11, x11);
+        Secp256k1FieldElement x44 = squareThenMultiply(x22, 22, x22);
+        Secp256k1FieldElement x88 = squareThenMultiply(x44, 44, x44);
+        Secp256k1FieldElement x176 = squareThenMultiply(x88, 88, x88);
+        Secp256k1FieldElement x220 = squareThenMultiply(x176, 44, x44);
+        Secp256k1FieldElement x223 = squareThenMultiply(x220, 3, x3);
+        return new Secp256k1FieldElement[]{x2, x22, x223};
+    }
+
+    // Returns the 5x62-bit limbs of this element, for SafeGcdInverse.
+    private long[] getLimbs62() {
+        return new long[]{
+                (n0 | n1 << 52) & SafeGcdInverse.M62,
+                (n1 >>> 10 | n2 << 42) & SafeGcdInverse.M62,
+                (n2 >>> 20 | n3 << 32) & SafeGcdInverse.M62,
+                (n3 >>> 30 | n4 << 22) & SafeGcdInverse.M62,
+                n4 >>> 40};
+    }
+
+    private static Secp256k1FieldElement squareThenMultiply(Secp256k1FieldElement a, int n, Secp256k1FieldElement b) {
+        Secp256k1FieldElement r = new Secp256k1FieldElement().setSquare(a, n);
+        return r.setMultiply(r, b);
+    }
+
+    /**
+     * Reduces the 520-bit product d0 + d1*2^52 + ... + d9*2^468 (where each column sum dk is below 2^57) mod p,
+     * folding the limbs above 2^260 back in with 2^260 = 0x1000003D10 mod p.
+     */
+    private void reduce(long d0, long d1, long d2, long d3, long d4, long d5, long d6, long d7, long d8, long d9) {
+        // Propagate carries, leaving 52-bit limbs r0..r8, and r9 holding what is left.
+        long r0 = d0 & M52;
+        d1 += d0 >>> 52;
+        long r1 = d1 & M52;
+        d2 += d1 >>> 52;
+        long r2 = d2 & M52;
+        d3 += d2 >>> 52;
+        long r3 = d3 & M52;
+        d4 += d3 >>> 52;
+        long r4 = d4 & M52;
+        d5 += d4 >>> 52;
+        long r5 = d5 & M52;
+        d6 += d5 >>> 52;
+        long r6 = d6 & M52;
+        d7 += d6 >>> 52;
+        long r7 = d7 & M52;
+        d8 += d7 >>> 52;
+        long r8 = d8 & M52;
+        long r9 = d9 + (d8 >>> 52);
+
+        // Fold the high half:  r5..r9 * 2^260  =  r5..r9 * 0x1000003D10  (mod p)
+        long q5 = r5 * R260, g5 = Math.multiplyHigh(r5, R260) << 12 | q5 >>> 52;
+        long q6 = r6 * R260, g6 = Math.multiplyHigh(r6, R260) << 12 | q6 >>> 52;
+        long q7 = r7 * R260, g7 = Math.multiplyHigh(r7, R260) << 12 | q7 >>> 52;
+        long q8 = r8 * R260, g8 = Math.multiplyHigh(r8, R260) << 12 | q8 >>> 52;
+        long q9 = r9 * R260, g9 = Math.multiplyHigh(r9, R260) << 12 | q9 >>> 52;
+        long t0 = r0 + (q5 & M52);
+        long t1 = r1 + (q6 & M52) + g5;
+        long t2 = r2 + (q7 & M52) + g6;
+        long t3 = r3 + (q8 & M52) + g7;
+        long t4 = r4 + (q9 & M52) + g8;
+        t1 += t0 >>> 52;
+        t0 &= M52;
+        t2 += t1 >>> 52;
+        t1 &= M52;
+        t3 += t2 >>> 52;
+        t2 &= M52;
+        t4 += t3 >>> 52;
+        t3 &= M52;
+
+        // Fold whatever is left at and above 2^256 using 2^256 = 0x1000003D1 (mod p).
+        long top = (g9 << 4) + (t4 >>> 48);
+        t4 &= M48;
+        long q = top * R256, g = Math.multiplyHigh(top, R256) << 12 | q >>> 52;
+        n0 = t0 + (q & M52);
+        n1 = t1 + g;
+        n2 = t2;
+        n3 = t3;
+        n4 = t4;
+        normalize();
+    }
+
+    /**
+     * Fully normalizes the limbs, so that n0..n3 are below 2^52, n4 is below 2^48, and the number is below p.
+     * Works for limbs up to about 2^62, see secp256k1_fe_normalize.
+     */
+    private void normalize() {
+        long t0 = n0, t1 = n1, t2 = n2, t3 = n3, t4 = n4;
+
+        // Reduce t4 at the start so there will be at most a single carry from the first pass.
+        long x = t4 >>> 48;
+        t4 &= M48;
+
+        // The first pass ensures the magnitude is 1, ...
+        t0 += x * R256;
+        t1 += t0 >>> 52;
+        t0 &= M52;
+        t2 += t1 >>> 52;
+        t1 &= M52;
+        long m = t1;
+        t3 += t2 >>> 52;
+        t2 &= M52;
+        m &= t2;
+        t4 += t3 >>> 52;
+        t3 &= M52;
+        m &= t3;
+
+        // ... except for a possible carry at bit 48 of t4 (i.e. bit 256 of the field element), and
+        // the final reduction is needed if there is such a carry, or the number is >= p.
+        boolean reduce = (t4 >>> 48) != 0 || (t4 == M48 && m == M52 && t0 >= 0xFFFFEFFFFFC2FL);
+        if (reduce) {
+            t0 += R256;
+            t1 += t0 >>> 52;
+            t0 &= M52;
+            t2 += t1 >>> 52;
+            t1 &= M52;
+            t3 += t2 >>> 52;
+            t2 &= M52;
+            t4 += t3 >>> 52;
+            t3 &= M52;
+            t4 &= M48;
+        }
+        n0 = t0;
+        n1 = t1;
+        n2 = t2;
+        n3 = t3;
+        n4 = t4;
+    }
+
+    private static byte[] toBytes32(BigInteger number) {
+        byte[] bytes = number.toByteArray();
+        byte[] b32 = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, b32, 32 - length, length);
+        return b32;
+    }
+
+    private static long readLong(byte[] b, int offset) {
+        long v = 0;
+        for (int i = 0; i < 8; i++) {
+            v = v << 8 | (b[offset + i] & 0xFF);
+        }
+        return v;
+    }
+
+    private static void writeLong(byte[] b, int offset, long v) {
+        for (int i = 7; i >= 0; i--) {
+            b[offset + i] = (byte) v;
+            v >>>= 8;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package mandioca.bitcoin.ecc;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import static mandioca.bitcoin.ecc.EccProperties.GENERATOR_TABLE_EMBEDDED;
+import static mandioca.bitcoin.ecc.EccProperties.GENERATOR_WINDOW_BITS;
+import static mandioca.bitcoin.ecc.Secp256k1Point.G;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.N;
+
+/**
+ * A precomputed table of multiples of the secp256k1 generator G, for fixed-base scalar multiplication (kG).
+ * <p>
+ * The 256-bit scalar is split into w-bit windows, and the table holds the affine points d * 2^(w*i) * G for every
+ * window i and every non-zero digit d.  Computing kG is then one mixed (Jacobian + affine) point addition per
+ * non-zero window, with no doublings:  32 additions for w = 8, instead of the ~256 doublings and ~128 additions
+ * of double-and-add.  The points are stored as normalized field limbs in a single flat long[], 10 longs per point.
+ * <p>
+ * The default table is created once per JVM, the first time G is multiplied;  its window width is configured by
+ * {@link EccProperties#GENERATOR_WINDOW_BITS}.  Building the table takes thousands of point additions, so the build
+ * precomputes the table of the default window width ({@link Secp256k1TableGenerator}) and ships it as a binary
+ * resource, which is read instead, unless {@link EccProperties#GENERATOR_TABLE_EMBEDDED} is false.  Tables of other
+ * widths are built at runtime.  Lookups are not constant time.
+ */
+final class Secp256k1GeneratorTable {
+
+    private static final int POINT_SIZE = 10;  // x and y limbs
+    private static final int RESOURCE_MAGIC = 0x47545431;  // "GTT1", then the window bits and table length
+
+    private final int windowBits;
+    private final int windows;
+    private final int pointsPerWindow;
+    private final long[] table;
+
+    private static class DefaultTableHolder {
+        private static final Secp256k1GeneratorTable DEFAULT_TABLE = GENERATOR_TABLE_EMBEDDED
+                ? load(GENERATOR_WINDOW_BITS)
+                : new Secp256k1GeneratorTable(GENERATOR_WINDOW_BITS);
+    }
+
+    Secp256k1GeneratorTable(int windowBits) {
+        this(windowBits, new long[length(windowBits)]);
+        build();
+    }
+
+    private Secp256k1GeneratorTable(int windowBits, long[] table) {
+        this.windowBits = windowBits;
+        this.windows = (256 + windowBits - 1) / windowBits;
+        this.pointsPerWindow = (1 << windowBits) - 1;
+        this.table = table;
+    }
+
+    static Secp256k1GeneratorTable getDefault() {
+        return DefaultTableHolder.DEFAULT_TABLE;
+    }
+
+    /**
+     * Returns the table read from this package's resource for the window width, or a newly built table if there is
+     * no such resource.
+     *
+     * @throws IllegalStateException if the resource is not a valid table
+     */
+    static Secp256k1GeneratorTable load(int windowBits) {
+        String name = resourceName(windowBits);
+        try (InputStream in = Secp256k1GeneratorTable.class.getResourceAsStream(name)) {
+            if (in == null) {
+                return new Secp256k1GeneratorTable(windowBits);
+            }
+            Secp256k1GeneratorTable table = read(in);
+            if (table.windowBits != windowBits) {
+                throw new IllegalStateException("Generator table resource " + name + " has window bits " + table.windowBits);
+            }
+            return table;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read generator table resource " + name, e);
+        }
+    }
+
+    static String resourceName(int windowBits) {
+        return "secp256k1-generator-table-w" + windowBits + ".bin";
+    }
+
+    /**
+     * Reads a table written by {@link #write(OutputStream)}, checking its length and its first point, G.
+     */
+    static Secp256k1GeneratorTable read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != RESOURCE_MAGIC) {
+            throw new IllegalStateException("Not a generator table");
+        }
+        int windowBits = data.readInt();
+        int length = data.readInt();
+        if (windowBits < 1 || windowBits > 16 || length != length(windowBits)) {
+            throw new IllegalStateException("Generator table of " + length + " limbs for window bits " + windowBits);
+        }
+        byte[] bytes = data.readAllBytes();
+        if (bytes.length != length * Long.BYTES) {
+            throw new IllegalStateException("Generator table of " + length + " limbs has " + bytes.length + " bytes");
+        }
+        long[] limbs = new long[length];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(limbs);
+        if (!new Secp256k1FieldElement().setLimbs(limbs, 0).equalsElement(G.fieldX())
+                || !new Secp256k1FieldElement().setLimbs(limbs, 5).equalsElement(G.fieldY())) {
+            throw new IllegalStateException("Generator table does not start with G");
+        }
+        return new Secp256k1GeneratorTable(windowBits, limbs);
+    }
+
+    /**
+     * Writes the window width and the table's limbs, big-endian, for {@link #read(InputStream)}.
+     */
+    void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(RESOURCE_MAGIC);
+        data.writeInt(windowBits);
+        data.writeInt(table.length);
+        ByteBuffer bytes = ByteBuffer.allocate(table.length * Long.BYTES);
+        bytes.asLongBuffer().put(table);
+        data.write(bytes.array());
+        data.flush();
+    }
+
+    /**
+     * Returns kG in Jacobian coordinates.
+     */
+    Secp256k1JacobianPoint multiply(BigInteger k) {
+        long[] words = toWords(k.mod(N));
+        Secp256k1JacobianPoint result = new Secp256k1JacobianPoint();
+        Secp256k1FieldElement x = new Secp256k1FieldElement();
+        Secp256k1FieldElement y = new Secp256k1FieldElement();
+        for (int i = 0; i < windows; i++) {
+            int digit = digit(words, i * windowBits);
+            if (digit != 0) {
+                int offset = (i * pointsPerWindow + digit - 1) * POINT_SIZE;
+                result.setAddAffine(result, x.setLimbs(table, offset), y.setLimbs(table, offset + 5));
+            }
+        }
+        return result;
+    }
+
+    int getWindowBits() {
+        return windowBits;
+    }
+
+    // Computes the multiples window by window in Jacobian coordinates, then normalizes each window's points
+    // to affine with one batch inversion.
+    private void build() {
+        Secp256k1JacobianPoint[] multiples = new Secp256k1JacobianPoint[pointsPerWindow];
+        Secp256k1FieldElement[] ax = new Secp256k1FieldElement[pointsPerWindow];
+        Secp256k1FieldElement[] ay = new Secp256k1FieldElement[pointsPerWindow];
+        for (int d = 0; d < pointsPerWindow; d++) {
+            multiples[d] = new Secp256k1JacobianPoint();
+            ax[d] = new Secp256k1FieldElement();
+            ay[d] = new Secp256k1FieldElement();
+        }
+        Secp256k1JacobianPoint base = new Secp256k1JacobianPoint(G);  // 2^(w*i) * G
+        for (int i = 0; i < windows; i++) {
+            multiples[0].set(base);
+            for (int d = 1; d < pointsPerWindow; d++) {
+                multiples[d].setAdd(multiples[d - 1], base);
+            }
+            base.setAdd(multiples[pointsPerWindow - 1], base);
+            Secp256k1JacobianPoint.toAffineAll(multiples, ax, ay);
+            for (int d = 0; d < pointsPerWindow; d++) {
+                int offset = (i * pointsPerWindow + d) * POINT_SIZE;
+                ax[d].getLimbs(table, offset);
+                ay[d].getLimbs(table, offset + 5);
+            }
+        }
+    }
+
+    // Returns the windowBits wide digit starting at bit position start of the little-endian words.
+    private int digit(long[] words, int start) {
+        int word = start >>> 6;
+        int shift = start & 63;
+        long bits = words[word] >>> shift;
+        if (shift + windowBits > 64 && word + 1 < words.length) {
+            bits |= words[word + 1] << (64 - shift);
+        }
+        return (int) (bits & pointsPerWindow);
+    }
+
+    // Returns the number of limbs in a table:  10 per point, 2^w - 1 points per window.
+    private static int length(int windowBits) {
+        if (windowBits < 1 || windowBits > 16) {
+            throw new IllegalArgumentException("Generator table window bits " + windowBits + " not in range 1 to 16");
+        }
+        return (256 + windowBits - 1) / windowBits * ((1 << windowBits) - 1) * POINT_SIZE;
+    }
+
+    private static long[] toWords(BigInteger k) {
+        long[] words = new long[4];
+        for (int i = 0; i < 4; i++) {
+            words[i] = k.shiftRight(i * 64).longValue();
+        }
+        return words;
+    }
+}
@@ -0,0 +1,255 @@
+package mandioca.bitcoin.ecc;
+
+import mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters;
+
+import java.math.BigInteger;
+
+/**
+ * A mutable secp256k1 point in Jacobian coordinates (X, Y, Z), representing the affine point (X/Z^2, Y/Z^3).
+ * <p>
+ * This is the working representation of secp256k1 scalar multiplication:  the {@code set*} methods add and double
+ * in place on {@link Secp256k1FieldElement}s without any field inversion, and without allocating (each instance
+ * owns the scratch elements its formulas need).  Results are converted to an affine {@link Secp256k1Point} only at
+ * the edges, e.g., before serializing a public key.  Instances are not thread safe.
+ * <p>
+ * See https://hyperelliptic.org/EFD/g1p/auto-shortw-jacobian-0.html (formulas for curves with a = 0)
+ */
+public final class Secp256k1JacobianPoint {
+
+    final Secp256k1FieldElement x = new Secp256k1FieldElement();
+    final Secp256k1FieldElement y = new Secp256k1FieldElement();
+    final Secp256k1FieldElement z = new Secp256k1FieldElement();
+    boolean infinity = true;
+
+    // Scratch elements used by the add and double formulas.
+    private final Secp256k1FieldElement t0 = new Secp256k1FieldElement();
+    private final Secp256k1FieldElement t1 = new Secp256k1FieldElement();
+    private final Secp256k1FieldElement t2 = new Secp256k1FieldElement();
+    private final Secp256k1FieldElement t3 = new Secp256k1FieldElement();
+    private final Secp256k1FieldElement t4 = new Secp256k1FieldElement();
+    private final Secp256k1FieldElement t5 = new Secp256k1FieldElement();
+
+    /**
+     * Creates the point at infinity.
+     */
+    public Secp256k1JacobianPoint() {
+    }
+
+    public Secp256k1JacobianPoint(Secp256k1Point p) {
+        set(p);
+    }
+
+    public boolean isInfinity() {
+        return infinity;
+    }
+
+    public Secp256k1JacobianPoint setInfinity() {
+        infinity = true;
+        return this;
+    }
+
+    public Secp256k1JacobianPoint set(Secp256k1JacobianPoint p) {
+        infinity = p.infinity;
+        x.set(p.x);
+        y.set(p.y);
+        z.set(p.z);
+        return this;
+    }
+
+    public Secp256k1JacobianPoint set(Secp256k1Point p) {
+        if (p.getX() == null) {
+            return setInfinity();
+        }
+        return setAffine(p.fieldX(), p.fieldY());
+    }
+
+    /**
+     * Sets this point to the affine point (ax, ay), i.e., Z = 1.
+     */
+    public Secp256k1JacobianPoint setAffine(Secp256k1FieldElement ax, Secp256k1FieldElement ay) {
+        infinity = false;
+        x.set(ax);
+        y.set(ay);
+        z.setLong(1);
+        return this;
+    }
+
+    public Secp256k1JacobianPoint setNegate(Secp256k1JacobianPoint p) {
+        set(p);
+        y.setNegate(y);
+        return this;
+    }
+
+    /**
+     * Sets this point to 2p, with 2 multiplications and 5 squarings (dbl-2009-l).
+     */
+    public Secp256k1JacobianPoint setDouble(Secp256k1JacobianPoint p) {
+        if (p.infinity || p.y.isZero()) {
+            return setInfinity();  // tangent line is vertical
+        }
+        t0.setSquare(p.x);                                  // A = X1^2
+        t1.setSquare(p.y);                                  // B = Y1^2
+        t2.setSquare(t1);                                   // C = B^2
+        t3.setAdd(p.x, t1).setSquare(t3).setSubtract(t3, t0).setSubtract(t3, t2);
+        t3.setAdd(t3, t3);                                  // D = 2*((X1+B)^2-A-C)
+        t4.setMultiplyInt(t0, 3);                           // E = 3*A
+        t5.setSquare(t4);                                   // F = E^2
+        z.setMultiply(p.y, p.z).setAdd(z, z);               // Z3 = 2*Y1*Z1  (before Y1 is overwritten)
+        x.setSubtract(t5, t3).setSubtract(x, t3);           // X3 = F-2*D
+        t3.setSubtract(t3, x);
+        y.setMultiply(t4, t3).setSubtract(y, t2.setMultiplyInt(t2, 8));  // Y3 = E*(D-X3)-8*C
+        infinity = false;
+        return this;
+    }
+
+    /**
+     * Sets this point to p + q, with 12 multiplications and 4 squarings (add-1998-cmo-2).
+     */
+    public Secp256k1JacobianPoint setAdd(Secp256k1JacobianPoint p, Secp256k1JacobianPoint q) {
+        if (p.infinity) {
+            return set(q);
+        }
+        if (q.infinity) {
+            return set(p);
+        }
+        t0.setSquare(q.z);                                  // Z2Z2
+        t1.setSquare(p.z);                                  // Z1Z1
+        t2.setMultiply(p.x, t0);                            // U1 = X1*Z2Z2
+        t3.setMultiply(q.x, t1);                            // U2 = X2*Z1Z1
+        t4.setMultiply(p.y, q.z).setMultiply(t4, t0);       // S1 = Y1*Z2*Z2Z2
+        t5.setMultiply(q.y, p.z).setMultiply(t5, t1);       // S2 = Y2*Z1*Z1Z1
+        return finishAdd(p, q.z);
+    }
+
+    /**
+     * Sets this point to p + (qx, qy), adding an affine point (Z2 = 1), with 8 multiplications and 3 squarings.
+     */
+    public Secp256k1JacobianPoint setAddAffine(Secp256k1JacobianPoint p, Secp256k1FieldElement qx, Secp256k1FieldElement qy) {
+        if (p.infinity) {
+            return setAffine(qx, qy);
+        }
+        t1.setSquare(p.z);                                  // Z1Z1
+        t2.set(p.x);                                        // U1 = X1
+        t3.setMultiply(qx, t1);                             // U2 = X2*Z1Z1
+        t4.set(p.y);                                        // S1 = Y1
+        t5.setMultiply(qy, p.z).setMultiply(t5, t1);       // S2 = Y2*Z1*Z1Z1
+        return finishAdd(p, null);
+    }
+
+    public Secp256k1JacobianPoint setAddAffine(Secp256k1JacobianPoint p, Secp256k1Point q) {
+        if (q.getX() == null) {
+            return set(p);
+        }
+        return setAddAffine(p, q.fieldX(), q.fieldY());
+    }
+
+    /**
+     * Returns true if the affine x coordinate of this point, X/Z^2, equals the number r, without an inversion.
+     * A negative r, or one not below the field prime p, equals no x coordinate.
+     */
+    public boolean xEquals(BigInteger r) {
+        if (infinity || r.signum() < 0 || r.compareTo(Secp256k1CurveParameters.p) >= 0) {
+            return false;
+        }
+        t0.setSquare(z).setMultiply(t0, Secp256k1FieldElement.valueOf(r));
+        return t0.equalsElement(x);
+    }
+
+    /**
+     * Converts this point to an affine Secp256k1Point, paying for one field inversion.
+     */
+    public Secp256k1Point toAffine() {
+        if (infinity) {
+            return Secp256k1Point.IDENTITY;
+        }
+        Secp256k1FieldElement zInverse = new Secp256k1FieldElement().setInverse(z);
+        return toAffine(zInverse);
+    }
+
+    /**
+     * Converts this point to an affine Secp256k1Point, given the already computed inverse of its Z coordinate,
+     * e.g., from a batch inversion.
+     */
+    Secp256k1Point toAffine(Secp256k1FieldElement zInverse) {
+        Secp256k1FieldElement zInverseSquared = new Secp256k1FieldElement().setSquare(zInverse);
+        Secp256k1FieldElement ax = new Secp256k1FieldElement().setMultiply(x, zInverseSquared);
+        Secp256k1FieldElement ay = new Secp256k1FieldElement().setMultiply(y, zInverseSquared);
+        ay.setMultiply(ay, zInverse);
+        return new Secp256k1Point(ax, ay);
+    }
+
+    /**
+     * Converts each of the points to affine coordinates (ax[i], ay[i]), paying for a single field inversion.
+     * The points must not be the point at infinity.
+     */
+    static void toAffineAll(Secp256k1JacobianPoint[] points, Secp256k1FieldElement[] ax, Secp256k1FieldElement[] ay) {
+        Secp256k1FieldElement[] x = new Secp256k1FieldElement[points.length];
+        Secp256k1FieldElement[] y = new Secp256k1FieldElement[points.length];
+        Secp256k1FieldElement[] z = new Secp256k1FieldElement[points.length];
+        for (int i = 0; i < points.length; i++) {
+            x[i] = points[i].x;
+            y[i] = points[i].y;
+            z[i] = points[i].z;
+        }
+        Secp256k1FieldBatch.getDefault().toAffineAll(x, y, z, ax, ay);
+    }
+
+    /**
+     * Converts each of the points to an affine Secp256k1Point, paying for a single field inversion.  Points at
+     * infinity are converted to {@link Secp256k1Point#IDENTITY}.
+     */
+    static Secp256k1Point[] toAffineAll(Secp256k1JacobianPoint[] points) {
+        Secp256k1Point[] affinePoints = new Secp256k1Point[points.length];
+        int finite = 0;
+        for (Secp256k1JacobianPoint point : points) {
+            if (!point.infinity) {
+                finite++;
+            }
+        }
+        Secp256k1JacobianPoint[] finitePoints = new Secp256k1JacobianPoint[finite];
+        Secp256k1FieldElement[] ax = new Secp256k1FieldElement[finite];
+        Secp256k1FieldElement[] ay = new Secp256k1FieldElement[finite];
+        for (int i = 0, j = 0; i < points.length; i++) {
+            if (!points[i].infinity) {
+                finitePoints[j] = points[i];
+                ax[j] = new Secp256k1FieldElement();
+                ay[j++] = new Secp256k1FieldElement();
+            }
+        }
+        toAffineAll(finitePoints, ax, ay);
+        for (int i = 0, j = 0; i < points.length; i++) {
+            if (points[i].infinity) {
+                affinePoints[i] = Secp256k1Point.IDENTITY;
+            } else {
+                affinePoints[i] = new Secp256k1Point(ax[j], ay[j++]);
+            }
+        }
+        return affinePoints;
+    }
+
+    // Completes the addition of p and q once t2 = U1, t3 = U2, t4 = S1 and t5 = S2 are set;  qz == null means Z2 = 1.
+    private Secp256k1JacobianPoint finishAdd(Secp256k1JacobianPoint p, Secp256k1FieldElement qz) {
+        t3.setSubtract(t3, t2);                             // H = U2-U1
+        t5.setSubtract(t5, t4);                             // R = S2-S1
+        if (t3.isZero()) {
+            if (t5.isZero()) {
+                return setDouble(p);                        // p == q
+            }
+            return setInfinity();                           // p == -q
+        }
+        if (qz != null) {
+            t0.setMultiply(p.z, qz);                        // read Z2 before Z3 is written, this may alias q
+            z.setMultiply(t0, t3);                          // Z3 = Z1*Z2*H
+        } else {
+            z.setMultiply(p.z, t3);
+        }
+        t0.setSquare(t3);                                   // HH = H^2
+        t1.setMultiply(t3, t0);                             // HHH = H*HH
+        t2.setMultiply(t2, t0);                             // V = U1*HH
+        x.setSquare(t5).setSubtract(x, t1).setSubtract(x, t2).setSubtract(x, t2);  // X3 = R^2-HHH-2*V
+        t4.setMultiply(t4, t1);                             // S1*HHH
+        y.setSubtract(t2, x).setMultiply(y, t5).setSubtract(y, t4);               // Y3 = R*(V-X3)-S1*HHH
+        infinity = false;
+        return this;
+    }
+}
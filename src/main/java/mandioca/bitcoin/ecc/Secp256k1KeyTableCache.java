@@ -0,0 +1,88 @@
+package mandioca.bitcoin.ecc;
+
+import java.nio.ByteBuffer;
+
+import static mandioca.bitcoin.ecc.EccProperties.KEY_TABLE_CACHE_SIZE;
+
+/**
+ * A bounded, least recently used cache of public keys' wNAF tables for signature verification, keyed by the keys'
+ * compressed SEC bytes.
+ * <p>
+ * Without a cache, every signature verification builds a table of 8 odd multiples of the public key, which costs 8
+ * point additions and a field inversion.  Exchanges and multisig setups verify against the same keys over and over,
+ * so the cached tables are built once, and wider:  64 multiples ({@link Secp256k1WnafTable#CACHED_WINDOW_BITS}),
+ * which cut the key's point additions per verification by about a third.  The table of lambda * P used by GLV is
+ * kept with each cached table.
+ * <p>
+ * {@link Secp256k1Point#verify(java.math.BigInteger, Signature)} uses the default cache, whose capacity is
+ * configured by {@link EccProperties#KEY_TABLE_CACHE_SIZE};  a capacity of 0 disables caching.  Instances are thread
+ * safe.
+ */
+public final class Secp256k1KeyTableCache {
+
+    private final LruCache<Secp256k1WnafTable> cache;
+
+    private static class DefaultCacheHolder {
+        private static final Secp256k1KeyTableCache DEFAULT_CACHE = new Secp256k1KeyTableCache(KEY_TABLE_CACHE_SIZE);
+    }
+
+    public Secp256k1KeyTableCache(int capacity) {
+        this.cache = new LruCache<>("Key table cache", capacity);
+    }
+
+    public static Secp256k1KeyTableCache getDefault() {
+        return DefaultCacheHolder.DEFAULT_CACHE;
+    }
+
+    /**
+     * Returns the wNAF table of a public key, building it only if it is not cached.  Without caching, the table is
+     * the narrower one built per verification.
+     */
+    Secp256k1WnafTable table(Secp256k1Point publicKey) {
+        if (!cache.isEnabled()) {
+            return new Secp256k1WnafTable(publicKey, Secp256k1WnafTable.WINDOW_BITS);
+        }
+        ByteBuffer key = ByteBuffer.wrap(publicKey.getMemoizedSec(true));
+        Secp256k1WnafTable table = cache.get(key);
+        if (table == null) {
+            table = new Secp256k1WnafTable(publicKey, Secp256k1WnafTable.CACHED_WINDOW_BITS);
+            cache.put(key, table);
+        }
+        return table;
+    }
+
+    public int getCapacity() {
+        return cache.getCapacity();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * Returns hits / (hits + misses), or 0 before the first lookup.
+     */
+    public double getHitRate() {
+        return cache.getHitRate();
+    }
+
+    /**
+     * Removes all cached tables and resets the hit and miss counts.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "Secp256k1KeyTableCache" + cache;
+    }
+}
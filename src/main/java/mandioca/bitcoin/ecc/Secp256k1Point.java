@@ -3,15 +3,17 @@ package mandioca.bitcoin.ecc;
 import mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import static java.math.BigInteger.TWO;
 import static java.math.BigInteger.ZERO;
+import static mandioca.bitcoin.ecc.EccProperties.GLV_ENABLED;
 import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.*;
-import static mandioca.bitcoin.function.BigIntegerFunctions.THREE;
 import static mandioca.bitcoin.function.BigIntegerFunctions.startEnd;
 import static mandioca.bitcoin.function.ByteArrayFunctions.bigIntToUnsignedByteArray;
 import static mandioca.bitcoin.function.ByteArrayFunctions.concatenate;
@@ -19,16 +21,19 @@ import static mandioca.bitcoin.function.HashFunctions.hash160;
 
 public class Secp256k1Point extends EllipticCurvePoint implements Point {
 
-    public static final Field FIELD_A = new FieldElement(Secp256k1CurveParameters.a, p);
-    public static final Field FIELD_B = new FieldElement(Secp256k1CurveParameters.b, p);
-    public static final Field FIELD_Gx = new FieldElement(Gx, p);
-    public static final Field FIELD_Gy = new FieldElement(Gy, p);
+    static final Function<BigInteger, Secp256k1FieldElement> newField = Secp256k1FieldElement::new;
+    // Coordinates are kept as fixed-limb Secp256k1FieldElements, whatever Field implementation a caller passes in.
+    private static final Function<Field, Field> toSecp256k1Field = (f) ->
+            f == null || f instanceof Secp256k1FieldElement ? f : newField.apply(f.getNumber());
+    public static final Field FIELD_A = new Secp256k1FieldElement(Secp256k1CurveParameters.a);
+    public static final Field FIELD_B = new Secp256k1FieldElement(Secp256k1CurveParameters.b);
+    public static final Field FIELD_Gx = new Secp256k1FieldElement(Gx);
+    public static final Field FIELD_Gy = new Secp256k1FieldElement(Gy);
     public static final Secp256k1Point G = new Secp256k1Point(FIELD_Gx, FIELD_Gy);
     public static final Secp256k1Point IDENTITY = new Secp256k1Point(null, null);
     static final byte[] COMPRESSED_EVEN_SEC_PREFIX = new byte[]{(byte) 0x2};
     static final byte[] COMPRESSED_ODD_SEC_PREFIX = new byte[]{(byte) 0x3};
     static final byte[] UNCOMPRESSED_SEC_PREFIX = new byte[]{(byte) 0x4};
-    static final Function<BigInteger, FieldElement> newField = (n) -> new FieldElement(n, p);
     public static final BiFunction<BigInteger, BigInteger, Secp256k1Point> newPoint = (x, y)
             -> new Secp256k1Point(newField.apply(x), newField.apply(y));
     private static final BiFunction<byte[], Integer[], BigInteger> decodeCoordinate = (sec, range)
@@ -38,20 +43,30 @@ public class Secp256k1Point extends EllipticCurvePoint implements Point {
     private static final Function<Field, Boolean> isYCoordinateEven = (y) -> y.getNumber().mod(TWO).compareTo(ZERO) == 0;
     private static final BiFunction<BigInteger, BigInteger, BigInteger> calcU = (z, sigInverse) -> z.multiply(sigInverse).mod(N);
     private static final BiFunction<Signature, BigInteger, BigInteger> calcV = (sig, sigInverse) -> sig.getR().multiply(sigInverse).mod(N);
-    public final Function<Boolean, byte[]> secHash160 = (compressed) -> hash160.apply(getSec(compressed)); // 20-byte hash of pubkey
+    public final Function<Boolean, byte[]> secHash160 = (compressed) -> getSecHash160(compressed).clone(); // 20-byte hash of pubkey
     private final Function<Point, Secp256k1Point> wrapResult = (p) -> new Secp256k1Point(p.getX(), p.getY());
 
+    // Memoized encodings, computed on first use;  copies are handed out so callers cannot change them.
+    private volatile byte[] compressedSec;
+    private volatile byte[] uncompressedSec;
+    private volatile byte[] compressedSecHash160;
+    private volatile byte[] uncompressedSecHash160;
+
     public Secp256k1Point(Field x, Field y) {
-        super(x, y, FIELD_A, FIELD_B);
+        super(toSecp256k1Field.apply(x), toSecp256k1Field.apply(y), FIELD_A, FIELD_B);
     }
 
     /**
-     * Returns a Point object from a SEC binary.
+     * Returns a Point object from a SEC binary, looked up in the default {@link Secp256k1PointCache}.
      *
      * @param sec byte[]
      * @return Secp256k1Point
      */
     public static Secp256k1Point parse(byte[] sec) {
+        return Secp256k1PointCache.getDefault().parse(sec);
+    }
+
+    static Secp256k1Point parseUncached(byte[] sec) {
         return isUncompressedSec.apply(sec[0]) ? parseUncompressedSec(sec) : parseCompressedSec(sec);
     }
 
@@ -63,21 +78,15 @@ public class Secp256k1Point extends EllipticCurvePoint implements Point {
 
     private static Secp256k1Point parseCompressedSec(byte[] sec) {
         BigInteger x = decodeCoordinate.apply(sec, startEnd.apply(1, sec.length));
-        Field alpha = newField.apply(x).power(THREE).add(FIELD_B);
-        Field beta = alpha.sqrt();
-        Field evenBeta, oddBeta;
-        if (isYCoordinateEven.apply(beta)) {
-            evenBeta = beta;
-            oddBeta = newField.apply(p.subtract(beta.getNumber()));
-        } else {
-            evenBeta = newField.apply(p.subtract(beta.getNumber()));
-            oddBeta = beta;
-        }
-        if (isCompressedEvenSec.apply(sec[0])) {
-            return newPoint.apply(x, evenBeta.getNumber());
-        } else {
-            return newPoint.apply(x, oddBeta.getNumber());
+        Secp256k1FieldElement fx = newField.apply(x);
+        Secp256k1FieldElement alpha = new Secp256k1FieldElement().setSquare(fx);
+        alpha.setMultiply(alpha, fx).setAdd(alpha, (Secp256k1FieldElement) FIELD_B);  // x^3 + 7
+        // If alpha is not a square, beta is not on the curve, and the constructor rejects it.
+        Secp256k1FieldElement beta = new Secp256k1FieldElement().setSqrt(alpha);
+        if (beta.isOdd() == isCompressedEvenSec.apply(sec[0])) {
+            beta.setNegate(beta);
         }
+        return new Secp256k1Point(fx, beta);
     }
 
     @Override
@@ -87,19 +96,201 @@ public class Secp256k1Point extends EllipticCurvePoint implements Point {
 
     @Override
     public Secp256k1Point scalarMultiply(BigInteger coefficient) {
-        Point result = super.scalarMultiply(coefficient.mod(N));
-        return wrapResult.apply(result);
+        return jacobianMultiply(coefficient).toAffine();
+    }
+
+    /**
+     * Returns coefficient * this point in Jacobian coordinates, without paying for the affine conversion.
+     * Multiples of G are looked up in the precomputed {@link Secp256k1GeneratorTable}.
+     */
+    Secp256k1JacobianPoint jacobianMultiply(BigInteger coefficient) {
+        return jacobianMultiply(coefficient, GLV_ENABLED);
+    }
+
+    Secp256k1JacobianPoint jacobianMultiply(BigInteger coefficient, boolean glv) {
+        if (this.equals(G)) {
+            return Secp256k1GeneratorTable.getDefault().multiply(coefficient);
+        }
+        BigInteger k = coefficient.mod(N);
+        if (x == null || k.signum() == 0) {
+            return new Secp256k1JacobianPoint();
+        }
+        Secp256k1WnafTable table = new Secp256k1WnafTable(this, Secp256k1WnafTable.WINDOW_BITS);
+        if (glv) {  // k1P + k2(lambda P)
+            BigInteger[] k12 = Secp256k1Endomorphism.split(k);
+            return Secp256k1WnafTable.multiply(
+                    new Secp256k1WnafTable[]{table, table.endomorphism()},
+                    new int[][]{wnaf(k12[0], table), wnaf(k12[1], table)});
+        }
+        return Secp256k1WnafTable.multiply(new Secp256k1WnafTable[]{table}, new int[][]{wnaf(k, table)});
+    }
+
+    /**
+     * Returns uG + v * this point in Jacobian coordinates, interleaving the wNAF digits of u and v over one shared
+     * chain of doublings (Strauss-Shamir), instead of computing two independent multiplications.  With GLV, u and v
+     * are each split in two ~128-bit halves, and the four half-length wNAFs share half as many doublings.
+     */
+    Secp256k1JacobianPoint dualMultiply(BigInteger u, BigInteger v) {
+        return dualMultiply(u, v, GLV_ENABLED);
     }
 
+    Secp256k1JacobianPoint dualMultiply(BigInteger u, BigInteger v, boolean glv) {
+        Secp256k1WnafTable table = null;
+        if (x != null && v.mod(N).signum() != 0) {
+            table = new Secp256k1WnafTable(this, Secp256k1WnafTable.WINDOW_BITS);
+        }
+        return dualMultiply(u, v, table, glv);
+    }
+
+    /**
+     * Returns uG + vP, given the wNAF table of P, or null if vP is the point at infinity.
+     */
+    static Secp256k1JacobianPoint dualMultiply(BigInteger u, BigInteger v, Secp256k1WnafTable table, boolean glv) {
+        List<Secp256k1WnafTable> tables = new ArrayList<>(4);
+        List<BigInteger> scalars = new ArrayList<>(4);
+        addGeneratorTerm(tables, scalars, u, glv);
+        if (table != null) {
+            addTerm(tables, scalars, table, v, glv);
+        }
+        return multiply(tables, scalars);
+    }
+
+    /**
+     * Returns uG + the sum of scalars[i] * points[i] in Jacobian coordinates, interleaving the wNAF digits of every
+     * scalar over one shared chain of doublings.  The points' wNAF tables are normalized with a single field
+     * inversion;  the points must not be the point at infinity.
+     */
+    static Secp256k1JacobianPoint multiplyAll(BigInteger u, Secp256k1Point[] points, BigInteger[] scalars, boolean glv) {
+        Secp256k1WnafTable[] pointTables = Secp256k1WnafTable.tables(points, Secp256k1WnafTable.WINDOW_BITS);
+        int terms = (points.length + 1) * (glv ? 2 : 1);
+        List<Secp256k1WnafTable> tables = new ArrayList<>(terms);
+        List<BigInteger> allScalars = new ArrayList<>(terms);
+        addGeneratorTerm(tables, allScalars, u, glv);
+        for (int i = 0; i < points.length; i++) {
+            addTerm(tables, allScalars, pointTables[i], scalars[i], glv);
+        }
+        return multiply(tables, allScalars);
+    }
+
+    private static void addGeneratorTerm(List<Secp256k1WnafTable> tables, List<BigInteger> scalars, BigInteger u, boolean glv) {
+        if (glv) {
+            BigInteger[] u12 = Secp256k1Endomorphism.split(u.mod(N));
+            tables.add(Secp256k1WnafTable.getGeneratorTable());
+            scalars.add(u12[0]);
+            tables.add(Secp256k1WnafTable.getGeneratorLambdaTable());
+            scalars.add(u12[1]);
+        } else {
+            tables.add(Secp256k1WnafTable.getGeneratorTable());
+            scalars.add(u.mod(N));
+        }
+    }
+
+    private static void addTerm(List<Secp256k1WnafTable> tables, List<BigInteger> scalars,
+                                Secp256k1WnafTable table, BigInteger v, boolean glv) {
+        if (glv) {
+            BigInteger[] v12 = Secp256k1Endomorphism.split(v.mod(N));
+            tables.add(table);
+            scalars.add(v12[0]);
+            tables.add(table.endomorphism());
+            scalars.add(v12[1]);
+        } else {
+            tables.add(table);
+            scalars.add(v.mod(N));
+        }
+    }
+
+    private static Secp256k1JacobianPoint multiply(List<Secp256k1WnafTable> tables, List<BigInteger> scalars) {
+        int[][] digits = new int[tables.size()][];
+        for (int i = 0; i < digits.length; i++) {
+            digits[i] = wnaf(scalars.get(i), tables.get(i));
+        }
+        return Secp256k1WnafTable.multiply(tables.toArray(new Secp256k1WnafTable[0]), digits);
+    }
+
+    /**
+     * Verifies the signature of signature hash z, looking up this public key's wNAF table in the default
+     * {@link Secp256k1KeyTableCache}, which is disabled unless {@link EccProperties#KEY_TABLE_CACHE_SIZE} is set.
+     */
     public boolean verify(BigInteger z, Signature signature) {
+        return verify(z, signature, Secp256k1KeyTableCache.getDefault());
+    }
+
+    /**
+     * Verifies the signature of signature hash z, with this public key's wNAF table from the cache:  repeated
+     * verifications against a cached key skip building the table, and its wider window takes fewer point additions.
+     * A signature with r or s not in the range 1 to N-1 is invalid.
+     */
+    public boolean verify(BigInteger z, Signature signature, Secp256k1KeyTableCache cache) {
+        if (!Secp256k1BatchVerifier.isScalar(signature.getR()) || !Secp256k1BatchVerifier.isScalar(signature.getS())) {
+            return false;
+        }
         BigInteger sigInverse = signature.sInverse.apply(N);
         BigInteger u = calcU.apply(z, sigInverse);
         BigInteger v = calcV.apply(signature, sigInverse);
-        Secp256k1Point total = G.scalarMultiply(u).add(scalarMultiply(v));
-        return total.getX().getNumber().equals(signature.getR());
+        Secp256k1JacobianPoint sum = x == null
+                ? dualMultiply(u, v)
+                : dualMultiply(u, v, cache.table(this), GLV_ENABLED);
+        return sum.xEquals(signature.getR());
+    }
+
+    /**
+     * Verifies a batch of signatures, e.g., all the inputs of a block's transactions, returning one result per
+     * check, in order.  The batch shares work that {@link #verify(BigInteger, Signature)} pays for per signature:
+     * all the s inverses take a single modular inversion, and the public keys' precomputed multiples are normalized
+     * with one field inversion per chunk of checks, while the chunks are verified in parallel on the common
+     * ForkJoinPool.
+     *
+     * @param checks signature hash, signature and public key of each signature to verify
+     * @return boolean[] results, true where a signature is valid
+     */
+    public static boolean[] verifyBatch(List<SignatureCheck> checks) {
+        return Secp256k1BatchVerifier.verify(checks);
+    }
+
+    private static int[] wnaf(BigInteger k, Secp256k1WnafTable table) {
+        return Secp256k1WnafTable.wnaf(k, table.getWindowBits());
+    }
+
+    Secp256k1FieldElement fieldX() {
+        return (Secp256k1FieldElement) x;
+    }
+
+    Secp256k1FieldElement fieldY() {
+        return (Secp256k1FieldElement) y;
     }
 
     public byte[] getSec(boolean compressed) {
+        return getMemoizedSec(compressed).clone();
+    }
+
+    // Returns the memoized encoding itself, which callers must not change.
+    byte[] getMemoizedSec(boolean compressed) {
+        byte[] sec = compressed ? compressedSec : uncompressedSec;
+        if (sec == null) {
+            sec = encodeSec(compressed);
+            if (compressed) {
+                compressedSec = sec;
+            } else {
+                uncompressedSec = sec;
+            }
+        }
+        return sec;
+    }
+
+    private byte[] getSecHash160(boolean compressed) {
+        byte[] hash = compressed ? compressedSecHash160 : uncompressedSecHash160;
+        if (hash == null) {
+            hash = hash160.apply(getMemoizedSec(compressed));
+            if (compressed) {
+                compressedSecHash160 = hash;
+            } else {
+                uncompressedSecHash160 = hash;
+            }
+        }
+        return hash;
+    }
+
+    private byte[] encodeSec(boolean compressed) {
         byte[] xBytes = bigIntToUnsignedByteArray.apply(x.getNumber());
         byte[] yBytes = bigIntToUnsignedByteArray.apply(y.getNumber());
         if (compressed) {
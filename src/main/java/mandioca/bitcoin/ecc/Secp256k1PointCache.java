@@ -0,0 +1,83 @@
+package mandioca.bitcoin.ecc;
+
+import java.nio.ByteBuffer;
+
+import static mandioca.bitcoin.ecc.EccProperties.POINT_CACHE_SIZE;
+
+/**
+ * A bounded, least recently used cache of parsed SEC public keys.
+ * <p>
+ * Parsing a compressed SEC key pays for a field square root, and script verification parses the same keys over and
+ * over (multisig keys, reused addresses).  The cached {@link Secp256k1Point}s also memoize their
+ * {@link Secp256k1Point#getSec(boolean)} and {@link Secp256k1Point#secHash160} results, so a cache hit saves those
+ * too.
+ * <p>
+ * {@link Secp256k1Point#parse(byte[])} uses the default cache, whose capacity is configured by
+ * {@link EccProperties#POINT_CACHE_SIZE};  a capacity of 0 disables caching.  Instances are thread safe.
+ */
+public final class Secp256k1PointCache {
+
+    private final LruCache<Secp256k1Point> cache;
+
+    private static class DefaultCacheHolder {
+        private static final Secp256k1PointCache DEFAULT_CACHE = new Secp256k1PointCache(POINT_CACHE_SIZE);
+    }
+
+    public Secp256k1PointCache(int capacity) {
+        this.cache = new LruCache<>("Point cache", capacity);
+    }
+
+    public static Secp256k1PointCache getDefault() {
+        return DefaultCacheHolder.DEFAULT_CACHE;
+    }
+
+    /**
+     * Returns the point of a SEC binary, parsing it only if it is not cached.
+     */
+    public Secp256k1Point parse(byte[] sec) {
+        if (!cache.isEnabled()) {
+            return Secp256k1Point.parseUncached(sec);
+        }
+        Secp256k1Point point = cache.get(ByteBuffer.wrap(sec));
+        if (point == null) {
+            point = Secp256k1Point.parseUncached(sec);
+            cache.put(ByteBuffer.wrap(sec.clone()), point);  // the caller may reuse its array
+        }
+        return point;
+    }
+
+    public int getCapacity() {
+        return cache.getCapacity();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * Returns hits / (hits + misses), or 0 before the first lookup.
+     */
+    public double getHitRate() {
+        return cache.getHitRate();
+    }
+
+    /**
+     * Removes all cached points and resets the hit and miss counts.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "Secp256k1PointCache" + cache;
+    }
+}
@@ -4,24 +4,25 @@ import mandioca.bitcoin.function.QuadriFunction;
 
 import java.io.ByteArrayOutputStream;
 import java.math.BigInteger;
+import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static java.math.BigInteger.TWO;
-import static java.util.Arrays.copyOfRange;
 import static mandioca.bitcoin.ecc.Secp256k1Point.G;
 import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.N;
 import static mandioca.bitcoin.function.ByteArrayFunctions.bigIntToUnsignedByteArray;
-import static mandioca.bitcoin.function.HashFunctions.hash256;
 import static mandioca.bitcoin.util.Base58.decodeChecked;
-import static mandioca.bitcoin.util.Base58.encode;
+import static mandioca.bitcoin.util.Base58.encodeChecked;
 import static mandioca.bitcoin.util.HexUtils.HEX;
 
 public class Secp256k1PrivateKey {
 
-    private static final Function<BigInteger, BigInteger> kInverse = (k) -> k.modPow(N.subtract(TWO), N);
+    private static final Function<BigInteger, BigInteger> kInverse = SafeGcdInverse.ORDER::invert;
     private static final Function<Boolean, byte[]> networkPrefix = (testnet) -> testnet ? new byte[]{(byte) 0xef} : new byte[]{(byte) 0x80};
     private static final Function<Boolean, byte[]> wifSuffix = (compressed) -> compressed ? new byte[]{(byte) 0x01} : new byte[0];
-    private static final Rfc6979 kalkulator = new Rfc6979();
+    // One deterministic K calculator per thread, so that any number of threads can sign concurrently.
+    private static final ThreadLocal<Rfc6979> kalkulator = ThreadLocal.withInitial(Rfc6979::new);
     private static final Function<BigInteger, BigInteger> calcR = (k) -> G.scalarMultiply(k).getX().getNumber(); // x coordinate of kG
     private static final QuadriFunction<BigInteger, BigInteger, BigInteger, BigInteger, BigInteger> calcS = (z, r, e, kInv) -> z.add(r.multiply(e)).multiply(kInv).mod(N);   // ((z + r*e) * kInv) % N, or s=(z+re)/k mod N
     private static final Function<BigInteger, Boolean> sValueIsNotLowEnoughForTxRelay = (s) -> s.compareTo(N.divide(TWO)) > 0;
@@ -30,13 +31,40 @@ public class Secp256k1PrivateKey {
     private final Secp256k1Point publicKey;     // Public Key P = eG
 
     public Secp256k1PrivateKey(BigInteger secret) {
+        this(secret, G.scalarMultiply(secret));
+    }
+
+    private Secp256k1PrivateKey(BigInteger secret, Secp256k1Point publicKey) {
         this.e = secret;
-        this.publicKey = G.scalarMultiply(e);
+        this.publicKey = publicKey;
+    }
+
+    /**
+     * Creates the private keys of all the secrets, deriving their public keys with the precomputed generator table
+     * and converting them all to affine coordinates with a single batched field inversion, instead of one
+     * inversion per key.
+     *
+     * @param secrets private keys (double-hashed secrets)
+     * @return private keys, in the order of the secrets
+     */
+    public static Secp256k1PrivateKey[] deriveAll(BigInteger[] secrets) {
+        Secp256k1GeneratorTable table = Secp256k1GeneratorTable.getDefault();
+        Secp256k1JacobianPoint[] products = new Secp256k1JacobianPoint[secrets.length];
+        for (int i = 0; i < secrets.length; i++) {
+            products[i] = table.multiply(secrets[i]);
+        }
+        Secp256k1Point[] publicKeys = Secp256k1JacobianPoint.toAffineAll(products);
+        Secp256k1PrivateKey[] privateKeys = new Secp256k1PrivateKey[secrets.length];
+        for (int i = 0; i < secrets.length; i++) {
+            privateKeys[i] = new Secp256k1PrivateKey(secrets[i], publicKeys[i]);
+        }
+        return privateKeys;
     }
 
     // K is deterministic, calculated according to RFC 6979
     @SuppressWarnings("DuplicatedCode")
     public Signature sign(BigInteger z) {
+        Rfc6979 kalkulator = Secp256k1PrivateKey.kalkulator.get();
         kalkulator.init(e, z);
         BigInteger k = kalkulator.nextK();
         BigInteger r = calcR.apply(k);         // x coordinate of kG
@@ -48,6 +76,16 @@ public class Secp256k1PrivateKey {
         return new Signature(r, s);
     }
 
+    /**
+     * Signs all the signature hashes in parallel on the common ForkJoinPool, e.g., all of a transaction's inputs.
+     *
+     * @param zs signature hashes
+     * @return signatures, in the order of the signature hashes
+     */
+    public List<Signature> signAll(List<BigInteger> zs) {
+        return zs.parallelStream().map(this::sign).collect(Collectors.toList());
+    }
+
     // pkg protected signing method taking 'k' argument -- for testing only
     @SuppressWarnings("DuplicatedCode")
     public Signature sign(BigInteger z, BigInteger k) {
@@ -73,10 +111,7 @@ public class Secp256k1PrivateKey {
             baos.write(networkPrefix.apply(testnet));
             baos.write(bigIntToUnsignedByteArray.apply(e));
             baos.write(wifSuffix.apply(compressed));
-            byte[] payload = baos.toByteArray();
-            byte[] checksum = copyOfRange(hash256.apply(payload), 0, 4);
-            baos.write(checksum);
-            return encode(baos.toByteArray());
+            return encodeChecked(baos.toByteArray());
         } catch (Exception e) {
             throw new RuntimeException("Error creating private key WIF", e);
         }
@@ -131,11 +166,7 @@ public class Secp256k1PrivateKey {
         //      rules for mainnet, testnet, regtest, compressed, uncompressed
         // System.out.println("wif = " + wif + "  compressed = " + compressed);
 
-        byte[] prefixedKey = decodeChecked(wif, false); // steps 2 & 3 combined
-        // out.println("prefixedKey = " + HexUtils.toHexString(prefixedKey));
-
-        int to = compressed ? prefixedKey.length - 1 : prefixedKey.length;
-        return copyOfRange(prefixedKey, 1, to);
+        return decodeChecked(wif, 1, compressed ? 1 : 0); // steps 2, 3 & 4 combined
     }
 
     @Override
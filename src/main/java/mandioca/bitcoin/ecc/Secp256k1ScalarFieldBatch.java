@@ -0,0 +1,63 @@
+package mandioca.bitcoin.ecc;
+
+/**
+ * The {@link Secp256k1FieldBatch} backend that works on one element at a time.
+ */
+final class Secp256k1ScalarFieldBatch implements Secp256k1FieldBatch {
+
+    static final Secp256k1ScalarFieldBatch INSTANCE = new Secp256k1ScalarFieldBatch();
+
+    private Secp256k1ScalarFieldBatch() {
+    }
+
+    @Override
+    public void multiplyAll(Secp256k1FieldElement[] r, Secp256k1FieldElement[] a, Secp256k1FieldElement[] b) {
+        for (int i = 0; i < r.length; i++) {
+            r[i].setMultiply(a[i], b[i]);
+        }
+    }
+
+    @Override
+    public void inverseAll(Secp256k1FieldElement[] elements) {
+        int length = elements.length;
+        Secp256k1FieldElement[] products = new Secp256k1FieldElement[length];  // products[i] = e0 * e1 * ... * ei
+        Secp256k1FieldElement accumulator = new Secp256k1FieldElement().setLong(1);
+        for (int i = 0; i < length; i++) {
+            if (!elements[i].isZero()) {
+                accumulator.setMultiply(accumulator, elements[i]);
+            }
+            products[i] = new Secp256k1FieldElement().set(accumulator);
+        }
+        Secp256k1FieldElement inverse = accumulator.setInverse(accumulator);  // (e0 * e1 * ... * en)^-1
+        Secp256k1FieldElement t = new Secp256k1FieldElement();
+        for (int i = length - 1; i >= 0; i--) {
+            Secp256k1FieldElement e = elements[i];
+            if (e.isZero()) {
+                continue;
+            }
+            if (i > 0) {
+                t.setMultiply(inverse, products[i - 1]);  // ei^-1
+                inverse.setMultiply(inverse, e);          // (e0 * ... * ei-1)^-1
+                e.set(t);
+            } else {
+                e.set(inverse);
+            }
+        }
+    }
+
+    @Override
+    public void toAffineAll(Secp256k1FieldElement[] x, Secp256k1FieldElement[] y, Secp256k1FieldElement[] z,
+                            Secp256k1FieldElement[] ax, Secp256k1FieldElement[] ay) {
+        Secp256k1FieldElement[] zInverses = new Secp256k1FieldElement[z.length];
+        for (int i = 0; i < z.length; i++) {
+            zInverses[i] = new Secp256k1FieldElement().set(z[i]);
+        }
+        inverseAll(zInverses);
+        Secp256k1FieldElement zInverseSquared = new Secp256k1FieldElement();
+        for (int i = 0; i < z.length; i++) {
+            zInverseSquared.setSquare(zInverses[i]);
+            ax[i].setMultiply(x[i], zInverseSquared);
+            ay[i].setMultiply(y[i], zInverseSquared).setMultiply(ay[i], zInverses[i]);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package mandioca.bitcoin.ecc;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import static java.math.BigInteger.ZERO;
+import static mandioca.bitcoin.ecc.Secp256k1Point.G;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.N;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.p;
+import static mandioca.bitcoin.function.ByteArrayFunctions.bigIntToUnsignedByteArray;
+import static mandioca.bitcoin.function.ByteArrayFunctions.concatenate;
+import static mandioca.bitcoin.function.HashFunctions.taggedHash;
+
+/**
+ * BIP340 Schnorr signatures over secp256k1, with 32 byte x-only public keys (the even-y point with that x
+ * coordinate) and tagged hashes.  Not instantiable.
+ * <p>
+ * See https://github.com/bitcoin/bips/blob/master/bip-0340.mediawiki
+ */
+public final class Secp256k1Schnorr {
+
+    static final String AUX_TAG = "BIP0340/aux";
+    static final String NONCE_TAG = "BIP0340/nonce";
+    static final String CHALLENGE_TAG = "BIP0340/challenge";
+
+    private static final Secp256k1FieldElement SEVEN = Secp256k1FieldElement.valueOf(7);
+
+    private Secp256k1Schnorr() {
+    }  // Not instantiable
+
+    /**
+     * Returns the 32 byte x-only public key of a secret in the range 1 to N-1.
+     */
+    public static byte[] xOnlyPublicKey(BigInteger secret) {
+        checkSecret(secret);
+        return bytes(G.scalarMultiply(secret).getX().getNumber());
+    }
+
+    /**
+     * Signs a message with a secret in the range 1 to N-1, and 32 bytes of auxiliary random data (or zeros).
+     */
+    public static SchnorrSignature sign(BigInteger secret, byte[] message, byte[] auxRand) {
+        checkSecret(secret);
+        if (auxRand.length != 32) {
+            throw new IllegalArgumentException("Auxiliary random data length " + auxRand.length + " is not 32");
+        }
+        Secp256k1Point publicKey = G.scalarMultiply(secret);
+        BigInteger d = publicKey.fieldY().isOdd() ? N.subtract(secret) : secret;
+        byte[] px = bytes(publicKey.getX().getNumber());
+        byte[] t = bytes(d);
+        byte[] auxHash = taggedHash.apply(AUX_TAG, auxRand);
+        for (int i = 0; i < t.length; i++) {
+            t[i] ^= auxHash[i];
+        }
+        byte[] rand = taggedHash.apply(NONCE_TAG, concatenate.apply(concatenate.apply(t, px), message));
+        BigInteger kPrime = new BigInteger(1, rand).mod(N);
+        if (kPrime.signum() == 0) {
+            throw new IllegalStateException("Nonce is zero");  // negligible probability
+        }
+        Secp256k1Point nonce = G.scalarMultiply(kPrime);
+        BigInteger k = nonce.fieldY().isOdd() ? N.subtract(kPrime) : kPrime;
+        BigInteger r = nonce.getX().getNumber();
+        BigInteger e = challenge(bytes(r), px, message);
+        SchnorrSignature signature = new SchnorrSignature(r, k.add(e.multiply(d)).mod(N));
+        if (!verify(px, message, signature)) {
+            throw new IllegalStateException("Created an invalid Schnorr signature");  // see BIP340 signing, step 13
+        }
+        return signature;
+    }
+
+    /**
+     * Returns true if the signature of the message is valid for the 32 byte x-only public key.
+     */
+    public static boolean verify(byte[] publicKey, byte[] message, SchnorrSignature signature) {
+        Secp256k1Point point = liftX(publicKey);
+        if (point == null || !isInRange(signature)) {
+            return false;
+        }
+        BigInteger e = challenge(bytes(signature.getR()), publicKey, message);
+        Secp256k1Point nonce = point.dualMultiply(signature.getS(), N.subtract(e)).toAffine();  // R = sG - eP
+        return nonce.getX() != null
+                && !nonce.fieldY().isOdd()
+                && nonce.getX().getNumber().equals(signature.getR());
+    }
+
+    /**
+     * Verifies a batch of signatures, returning one result per check, in order.  Each chunk of checks is verified
+     * with a single multi-scalar multiplication (see {@link Secp256k1SchnorrBatchVerifier});  only the checks of a
+     * chunk that fails are verified one by one, to find the invalid signatures.
+     */
+    public static boolean[] verifyBatch(List<SchnorrCheck> checks) {
+        return Secp256k1SchnorrBatchVerifier.verify(checks);
+    }
+
+    /**
+     * Returns the point with the x coordinate of a 32 byte x-only public key and an even y, or null if there is none.
+     */
+    static Secp256k1Point liftX(byte[] x) {
+        if (x.length != 32) {
+            return null;
+        }
+        return liftX(new BigInteger(1, x));
+    }
+
+    static Secp256k1Point liftX(BigInteger x) {
+        if (x.compareTo(p) >= 0) {
+            return null;
+        }
+        Secp256k1FieldElement fx = new Secp256k1FieldElement(x);
+        Secp256k1FieldElement c = new Secp256k1FieldElement().setSquare(fx);
+        c.setMultiply(c, fx).setAdd(c, SEVEN);                                 // c = x^3 + 7
+        Secp256k1FieldElement y = new Secp256k1FieldElement().setSqrt(c);
+        if (!new Secp256k1FieldElement().setSquare(y).equalsElement(c)) {
+            return null;                                                       // x^3 + 7 is not a square
+        }
+        return new Secp256k1Point(fx, y.isOdd() ? y.setNegate(y) : y);
+    }
+
+    static boolean isInRange(SchnorrSignature signature) {
+        return signature.getR().signum() >= 0 && signature.getR().compareTo(p) < 0
+                && signature.getS().signum() >= 0 && signature.getS().compareTo(N) < 0;
+    }
+
+    // e = int(hash_BIP0340/challenge(bytes(r) || bytes(P) || m)) mod N
+    static BigInteger challenge(byte[] r, byte[] publicKey, byte[] message) {
+        byte[] hash = taggedHash.apply(CHALLENGE_TAG, concatenate.apply(concatenate.apply(r, publicKey), message));
+        return new BigInteger(1, hash).mod(N);
+    }
+
+    static byte[] bytes(BigInteger number) {
+        return bigIntToUnsignedByteArray.apply(number);
+    }
+
+    private static void checkSecret(BigInteger secret) {
+        if (secret.compareTo(ZERO) <= 0 || secret.compareTo(N) >= 0) {
+            throw new IllegalArgumentException("Secret not in range 1 to N-1");
+        }
+    }
+}
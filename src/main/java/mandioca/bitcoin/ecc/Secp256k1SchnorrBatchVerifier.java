@@ -0,0 +1,101 @@
+package mandioca.bitcoin.ecc;
+
+import mandioca.bitcoin.util.Sha256;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.ZERO;
+import static mandioca.bitcoin.ecc.EccProperties.GLV_ENABLED;
+import static mandioca.bitcoin.ecc.Secp256k1Schnorr.*;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.N;
+import static mandioca.bitcoin.function.HashFunctions.taggedHash;
+
+/**
+ * Verifies a batch of BIP340 signatures, see {@link Secp256k1Schnorr#verifyBatch(List)}.
+ * <p>
+ * Following BIP340's batch verification, a chunk of up to CHUNK_SIZE checks is valid if
+ * (a1*s1 + ... + au*su)G - a1*R1 - ... - au*Ru - a1*e1*P1 - ... - au*eu*Pu is the point at infinity, for the
+ * randomizers a1 = 1 and 128-bit a2..au derived from a hash of the whole chunk.  The 2u + 1 terms are computed with one
+ * multi-scalar multiplication (Strauss-Shamir) sharing a single chain of doublings, and the 2u points' wNAF tables
+ * are normalized with one field inversion.  If the equation does not hold, the chunk's checks are verified one by
+ * one to find the invalid signatures.
+ */
+final class Secp256k1SchnorrBatchVerifier {
+
+    static final int CHUNK_SIZE = 64;
+    static final String BATCH_TAG = "BIP0340/batch";
+
+    private Secp256k1SchnorrBatchVerifier() {
+    }
+
+    static boolean[] verify(List<SchnorrCheck> checks) {
+        SchnorrCheck[] batch = checks.toArray(new SchnorrCheck[0]);
+        boolean[] results = new boolean[batch.length];
+        for (int from = 0; from < batch.length; from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, batch.length);
+            boolean valid = verifyChunk(batch, from, to);
+            for (int i = from; i < to; i++) {
+                results[i] = valid || Secp256k1Schnorr.verify(
+                        batch[i].getPublicKey(), batch[i].getMessage(), batch[i].getSignature());
+            }
+        }
+        return results;
+    }
+
+    private static boolean verifyChunk(SchnorrCheck[] batch, int from, int to) {
+        int size = to - from;
+        BigInteger[] randomizers = randomizers(batch, from, to);
+        Secp256k1Point[] points = new Secp256k1Point[2 * size];
+        BigInteger[] scalars = new BigInteger[2 * size];
+        BigInteger sSum = ZERO;
+        for (int i = 0; i < size; i++) {
+            SchnorrCheck check = batch[from + i];
+            SchnorrSignature signature = check.getSignature();
+            Secp256k1Point publicKey = liftX(check.getPublicKey());
+            if (publicKey == null || !isInRange(signature)) {
+                return false;
+            }
+            Secp256k1Point nonce = liftX(signature.getR());
+            if (nonce == null) {
+                return false;
+            }
+            Secp256k1FieldElement negativeY = new Secp256k1FieldElement().setNegate(nonce.fieldY());
+            BigInteger a = randomizers[i];
+            BigInteger e = challenge(bytes(signature.getR()), check.getPublicKey(), check.getMessage());
+            sSum = sSum.add(a.multiply(signature.getS())).mod(N);
+            points[2 * i] = new Secp256k1Point(nonce.getX(), negativeY);
+            scalars[2 * i] = a;                                              // ai * -Ri, a 128-bit scalar
+            points[2 * i + 1] = publicKey;
+            scalars[2 * i + 1] = N.subtract(a.multiply(e).mod(N));           // -ai * ei * Pi
+        }
+        return Secp256k1Point.multiplyAll(sSum, points, scalars, GLV_ENABLED).isInfinity();
+    }
+
+    // Returns a1 = 1, and ai = the first 128 bits of SHA256(seed || i) for i > 1, seeded with a tagged hash of the
+    // whole chunk, so the randomizers cannot be predicted by whoever made the signatures.  128-bit randomizers bound
+    // the probability of accepting an invalid batch by 2^-128, and halve the wNAF lengths of the R terms.
+    private static BigInteger[] randomizers(SchnorrCheck[] batch, int from, int to) {
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        for (int i = from; i < to; i++) {
+            chunk.writeBytes(batch[i].getPublicKey());
+            chunk.writeBytes(batch[i].getMessage());
+            chunk.writeBytes(batch[i].getSignature().getBytes());
+        }
+        byte[] seed = taggedHash.apply(BATCH_TAG, chunk.toByteArray());
+        BigInteger[] randomizers = new BigInteger[to - from];
+        randomizers[0] = ONE;
+        Sha256 sha256 = new Sha256();
+        byte[] hash = new byte[Sha256.DIGEST_LEN];
+        for (int i = 1; i < randomizers.length; i++) {
+            sha256.update(seed).update((byte) (i >>> 24)).update((byte) (i >>> 16)).update((byte) (i >>> 8)).update((byte) i);
+            sha256.digest(hash, 0);
+            BigInteger a = new BigInteger(1, Arrays.copyOf(hash, 16));
+            randomizers[i] = a.signum() == 0 ? ONE : a;
+        }
+        return randomizers;
+    }
+}
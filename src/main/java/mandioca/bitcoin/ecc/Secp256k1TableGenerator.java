@@ -0,0 +1,48 @@
+package mandioca.bitcoin.ecc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static mandioca.bitcoin.ecc.EccProperties.GENERATOR_WINDOW_BITS;
+
+/**
+ * Precomputes generator tables at build time, see {@link Secp256k1GeneratorTable}.
+ * <p>
+ * Usage:  Secp256k1TableGenerator resources-dir [window-bits ...]
+ * <p>
+ * Writes one table resource per window width (by default {@link EccProperties#GENERATOR_WINDOW_BITS}) under
+ * resources-dir, in this package's directory.  Run by the build's generateEccTables task.
+ */
+public final class Secp256k1TableGenerator {
+
+    private Secp256k1TableGenerator() {
+    }  // Not instantiable
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage:  Secp256k1TableGenerator resources-dir [window-bits ...]");
+        }
+        Path dir = Paths.get(args[0], Secp256k1TableGenerator.class.getPackageName().split("\\."));
+        Files.createDirectories(dir);
+        if (args.length == 1) {
+            write(dir, GENERATOR_WINDOW_BITS);
+        }
+        for (int i = 1; i < args.length; i++) {
+            write(dir, Integer.parseInt(args[i]));
+        }
+    }
+
+    private static void write(Path dir, int windowBits) throws IOException {
+        long start = System.nanoTime();
+        Secp256k1GeneratorTable table = new Secp256k1GeneratorTable(windowBits);
+        Path file = dir.resolve(Secp256k1GeneratorTable.resourceName(windowBits));
+        try (OutputStream out = Files.newOutputStream(file)) {
+            table.write(out);
+        }
+        System.out.printf("Wrote %s (%d bytes) in %d ms%n",
+                file, Files.size(file), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,314 @@
+package mandioca.bitcoin.ecc;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import static jdk.incubator.vector.VectorOperators.LSHL;
+import static jdk.incubator.vector.VectorOperators.LSHR;
+import static mandioca.bitcoin.ecc.Secp256k1FieldElement.M26;
+
+/**
+ * The {@link Secp256k1FieldBatch} backend that computes LANES independent field multiplications at a time, in
+ * the SIMD lanes of the incubating Vector API (4 lanes with AVX2, 8 with AVX-512).  Arrays too small to fill two
+ * rows of lanes are left to {@link Secp256k1ScalarFieldBatch}.
+ * <p>
+ * The Vector API has no 64x64 to 128-bit multiplication, which the 5x52-bit representation needs, so the elements
+ * are converted to ten 26-bit limbs (libsecp256k1's 10x26 representation):  a limb product is below 2^54, and a
+ * column sum of ten products is below 2^58, so a whole product fits in 64-bit lanes.  A row of LANES elements is
+ * stored limb by limb, limb k of lane j at row[k * LANES + j], so that a vector load reads the same limb of every
+ * element in the row.  Between multiplications the limbs are only weakly normalized (each below 2^26, except the
+ * top limb, below 2^23);  {@link Secp256k1FieldElement#setLimbs26(long[], int, int)} fully normalizes the results.
+ * <p>
+ * See https://github.com/bitcoin-core/secp256k1/blob/master/src/field_10x26_impl.h
+ */
+final class Secp256k1VectorFieldBatch implements Secp256k1FieldBatch {
+
+    static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    static final int LANES = SPECIES.length();
+
+    private static final int ROW = 10 * LANES;  // longs per row of elements
+    private static final long M22 = 0x3FFFFFL;
+    private static final long R0 = 0x3D10L;     // 2^260 mod p = R1 * 2^26 + R0
+    private static final long R1 = 0x400L;
+    private static final long R256 = 0x3D1L;    // 2^256 mod p = 2^32 + R256
+
+    private static final Secp256k1ScalarFieldBatch SCALAR = Secp256k1ScalarFieldBatch.INSTANCE;
+
+    @Override
+    public void multiplyAll(Secp256k1FieldElement[] r, Secp256k1FieldElement[] a, Secp256k1FieldElement[] b) {
+        if (r.length < 2 * LANES) {
+            SCALAR.multiplyAll(r, a, b);
+            return;
+        }
+        long[] as = load(a);
+        long[] bs = load(b);
+        for (int offset = 0; offset < as.length; offset += ROW) {
+            multiply(as, offset, bs, offset, as, offset);
+        }
+        store(as, r);
+    }
+
+    @Override
+    public void inverseAll(Secp256k1FieldElement[] elements) {
+        if (elements.length < 2 * LANES) {
+            SCALAR.inverseAll(elements);
+            return;
+        }
+        long[] values = load(elements);
+        for (int i = 0; i < elements.length; i++) {
+            if (elements[i].isZero()) {
+                values[offset(i)] = 1;  // keeps the lane products non-zero;  the zero element is not stored back
+            }
+        }
+        invertRows(values);
+        Secp256k1FieldElement inverse = new Secp256k1FieldElement();
+        for (int i = 0; i < elements.length; i++) {
+            if (!elements[i].isZero()) {
+                elements[i].set(inverse.setLimbs26(values, offset(i), LANES));
+            }
+        }
+    }
+
+    @Override
+    public void toAffineAll(Secp256k1FieldElement[] x, Secp256k1FieldElement[] y, Secp256k1FieldElement[] z,
+                            Secp256k1FieldElement[] ax, Secp256k1FieldElement[] ay) {
+        if (z.length < 2 * LANES) {
+            SCALAR.toAffineAll(x, y, z, ax, ay);
+            return;
+        }
+        long[] zs = load(z);
+        invertRows(zs);
+        long[] xs = load(x);
+        long[] ys = load(y);
+        long[] t = new long[ROW];
+        for (int offset = 0; offset < zs.length; offset += ROW) {
+            multiply(zs, offset, zs, offset, t, 0);          // z^-2
+            multiply(xs, offset, t, 0, xs, offset);          // x / z^2
+            multiply(t, 0, zs, offset, t, 0);                // z^-3
+            multiply(ys, offset, t, 0, ys, offset);          // y / z^3
+        }
+        store(xs, ax);
+        store(ys, ay);
+    }
+
+    // Replaces the (non-zero) elements of the rows with their inverses:  each lane runs Montgomery's trick down
+    // its own column of elements, and the LANES column products are inverted together with a single inversion.
+    private static void invertRows(long[] values) {
+        int rows = values.length / ROW;
+        long[] products = new long[values.length];  // row r holds the lane-wise products of rows 0 to r
+        System.arraycopy(values, 0, products, 0, ROW);
+        for (int offset = ROW; offset < values.length; offset += ROW) {
+            multiply(products, offset - ROW, values, offset, products, offset);
+        }
+        Secp256k1FieldElement[] laneProducts = new Secp256k1FieldElement[LANES];
+        for (int j = 0; j < LANES; j++) {
+            laneProducts[j] = new Secp256k1FieldElement().setLimbs26(products, (rows - 1) * ROW + j, LANES);
+        }
+        SCALAR.inverseAll(laneProducts);
+        long[] inverse = new long[ROW];  // lane-wise inverses of the products of rows 0 to r
+        for (int j = 0; j < LANES; j++) {
+            laneProducts[j].getLimbs26(inverse, j, LANES);
+        }
+        long[] t = new long[ROW];
+        for (int offset = values.length - ROW; offset > 0; offset -= ROW) {
+            multiply(inverse, 0, products, offset - ROW, t, 0);  // the inverses of row r
+            multiply(inverse, 0, values, offset, inverse, 0);    // the inverses of the products of rows 0 to r-1
+            System.arraycopy(t, 0, values, offset, ROW);
+        }
+        System.arraycopy(inverse, 0, values, 0, ROW);
+    }
+
+    // Returns the elements in rows of 10x26-bit limbs, padding the last row with ones.
+    private static long[] load(Secp256k1FieldElement[] elements) {
+        int rows = (elements.length + LANES - 1) / LANES;
+        long[] values = new long[rows * ROW];
+        for (int i = 0; i < rows * LANES; i++) {
+            if (i < elements.length) {
+                elements[i].getLimbs26(values, offset(i), LANES);
+            } else {
+                values[offset(i)] = 1;
+            }
+        }
+        return values;
+    }
+
+    private static void store(long[] values, Secp256k1FieldElement[] elements) {
+        for (int i = 0; i < elements.length; i++) {
+            elements[i].setLimbs26(values, offset(i), LANES);
+        }
+    }
+
+    // Returns the offset of the least significant limb of the i-th element.
+    private static int offset(int i) {
+        return (i / LANES) * ROW + i % LANES;
+    }
+
+    // Multiplies the rows at a[aOffset] and b[bOffset] lane by lane, writing the weakly normalized products to the
+    // row at r[rOffset], which may be one of the inputs.
+    static void multiply(long[] a, int aOffset, long[] b, int bOffset, long[] r, int rOffset) {
+        LongVector a0 = LongVector.fromArray(SPECIES, a, aOffset);
+        LongVector a1 = LongVector.fromArray(SPECIES, a, aOffset + LANES);
+        LongVector a2 = LongVector.fromArray(SPECIES, a, aOffset + 2 * LANES);
+        LongVector a3 = LongVector.fromArray(SPECIES, a, aOffset + 3 * LANES);
+        LongVector a4 = LongVector.fromArray(SPECIES, a, aOffset + 4 * LANES);
+        LongVector a5 = LongVector.fromArray(SPECIES, a, aOffset + 5 * LANES);
+        LongVector a6 = LongVector.fromArray(SPECIES, a, aOffset + 6 * LANES);
+        LongVector a7 = LongVector.fromArray(SPECIES, a, aOffset + 7 * LANES);
+        LongVector a8 = LongVector.fromArray(SPECIES, a, aOffset + 8 * LANES);
+        LongVector a9 = LongVector.fromArray(SPECIES, a, aOffset + 9 * LANES);
+        LongVector b0 = LongVector.fromArray(SPECIES, b, bOffset);
+        LongVector b1 = LongVector.fromArray(SPECIES, b, bOffset + LANES);
+        LongVector b2 = LongVector.fromArray(SPECIES, b, bOffset + 2 * LANES);
+        LongVector b3 = LongVector.fromArray(SPECIES, b, bOffset + 3 * LANES);
+        LongVector b4 = LongVector.fromArray(SPECIES, b, bOffset + 4 * LANES);
+        LongVector b5 = LongVector.fromArray(SPECIES, b, bOffset + 5 * LANES);
+        LongVector b6 = LongVector.fromArray(SPECIES, b, bOffset + 6 * LANES);
+        LongVector b7 = LongVector.fromArray(SPECIES, b, bOffset + 7 * LANES);
+        LongVector b8 = LongVector.fromArray(SPECIES, b, bOffset + 8 * LANES);
+        LongVector b9 = LongVector.fromArray(SPECIES, b, bOffset + 9 * LANES);
+
+        // Column sums of the 26x26-bit limb products, each below 2^58.
+        LongVector t0 = a0.mul(b0);
+        LongVector t1 = a0.mul(b1).add(a1.mul(b0));
+        LongVector t2 = a0.mul(b2).add(a1.mul(b1)).add(a2.mul(b0));
+        LongVector t3 = a0.mul(b3).add(a1.mul(b2)).add(a2.mul(b1)).add(a3.mul(b0));
+        LongVector t4 = a0.mul(b4).add(a1.mul(b3)).add(a2.mul(b2)).add(a3.mul(b1)).add(a4.mul(b0));
+        LongVector t5 = a0.mul(b5).add(a1.mul(b4)).add(a2.mul(b3)).add(a3.mul(b2)).add(a4.mul(b1)).add(a5.mul(b0));
+        LongVector t6 = a0.mul(b6).add(a1.mul(b5)).add(a2.mul(b4)).add(a3.mul(b3)).add(a4.mul(b2)).add(a5.mul(b1))
+                .add(a6.mul(b0));
+        LongVector t7 = a0.mul(b7).add(a1.mul(b6)).add(a2.mul(b5)).add(a3.mul(b4)).add(a4.mul(b3)).add(a5.mul(b2))
+                .add(a6.mul(b1)).add(a7.mul(b0));
+        LongVector t8 = a0.mul(b8).add(a1.mul(b7)).add(a2.mul(b6)).add(a3.mul(b5)).add(a4.mul(b4)).add(a5.mul(b3))
+                .add(a6.mul(b2)).add(a7.mul(b1)).add(a8.mul(b0));
+        LongVector t9 = a0.mul(b9).add(a1.mul(b8)).add(a2.mul(b7)).add(a3.mul(b6)).add(a4.mul(b5)).add(a5.mul(b4))
+                .add(a6.mul(b3)).add(a7.mul(b2)).add(a8.mul(b1)).add(a9.mul(b0));
+        LongVector t10 = a1.mul(b9).add(a2.mul(b8)).add(a3.mul(b7)).add(a4.mul(b6)).add(a5.mul(b5)).add(a6.mul(b4))
+                .add(a7.mul(b3)).add(a8.mul(b2)).add(a9.mul(b1));
+        LongVector t11 = a2.mul(b9).add(a3.mul(b8)).add(a4.mul(b7)).add(a5.mul(b6)).add(a6.mul(b5)).add(a7.mul(b4))
+                .add(a8.mul(b3)).add(a9.mul(b2));
+        LongVector t12 = a3.mul(b9).add(a4.mul(b8)).add(a5.mul(b7)).add(a6.mul(b6)).add(a7.mul(b5)).add(a8.mul(b4))
+                .add(a9.mul(b3));
+        LongVector t13 = a4.mul(b9).add(a5.mul(b8)).add(a6.mul(b7)).add(a7.mul(b6)).add(a8.mul(b5)).add(a9.mul(b4));
+        LongVector t14 = a5.mul(b9).add(a6.mul(b8)).add(a7.mul(b7)).add(a8.mul(b6)).add(a9.mul(b5));
+        LongVector t15 = a6.mul(b9).add(a7.mul(b8)).add(a8.mul(b7)).add(a9.mul(b6));
+        LongVector t16 = a7.mul(b9).add(a8.mul(b8)).add(a9.mul(b7));
+        LongVector t17 = a8.mul(b9).add(a9.mul(b8));
+        LongVector t18 = a9.mul(b9);
+        // Propagate carries, leaving 26-bit limbs t0..t18, and t19 holding what is left.
+        t1 = t1.add(t0.lanewise(LSHR, 26));
+        t0 = t0.and(M26);
+        t2 = t2.add(t1.lanewise(LSHR, 26));
+        t1 = t1.and(M26);
+        t3 = t3.add(t2.lanewise(LSHR, 26));
+        t2 = t2.and(M26);
+        t4 = t4.add(t3.lanewise(LSHR, 26));
+        t3 = t3.and(M26);
+        t5 = t5.add(t4.lanewise(LSHR, 26));
+        t4 = t4.and(M26);
+        t6 = t6.add(t5.lanewise(LSHR, 26));
+        t5 = t5.and(M26);
+        t7 = t7.add(t6.lanewise(LSHR, 26));
+        t6 = t6.and(M26);
+        t8 = t8.add(t7.lanewise(LSHR, 26));
+        t7 = t7.and(M26);
+        t9 = t9.add(t8.lanewise(LSHR, 26));
+        t8 = t8.and(M26);
+        t10 = t10.add(t9.lanewise(LSHR, 26));
+        t9 = t9.and(M26);
+        t11 = t11.add(t10.lanewise(LSHR, 26));
+        t10 = t10.and(M26);
+        t12 = t12.add(t11.lanewise(LSHR, 26));
+        t11 = t11.and(M26);
+        t13 = t13.add(t12.lanewise(LSHR, 26));
+        t12 = t12.and(M26);
+        t14 = t14.add(t13.lanewise(LSHR, 26));
+        t13 = t13.and(M26);
+        t15 = t15.add(t14.lanewise(LSHR, 26));
+        t14 = t14.and(M26);
+        t16 = t16.add(t15.lanewise(LSHR, 26));
+        t15 = t15.and(M26);
+        t17 = t17.add(t16.lanewise(LSHR, 26));
+        t16 = t16.and(M26);
+        t18 = t18.add(t17.lanewise(LSHR, 26));
+        t17 = t17.and(M26);
+        LongVector t19 = t18.lanewise(LSHR, 26);
+        t18 = t18.and(M26);
+
+        // Fold the high half, top limb first:  tk * 2^(26k)  =  tk * 2^(26(k-10)) * (R1 * 2^26 + R0)  (mod p)
+        t9 = t9.add(t19.mul(R0));
+        t10 = t10.add(t19.mul(R1));
+        t8 = t8.add(t18.mul(R0));
+        t9 = t9.add(t18.mul(R1));
+        t7 = t7.add(t17.mul(R0));
+        t8 = t8.add(t17.mul(R1));
+        t6 = t6.add(t16.mul(R0));
+        t7 = t7.add(t16.mul(R1));
+        t5 = t5.add(t15.mul(R0));
+        t6 = t6.add(t15.mul(R1));
+        t4 = t4.add(t14.mul(R0));
+        t5 = t5.add(t14.mul(R1));
+        t3 = t3.add(t13.mul(R0));
+        t4 = t4.add(t13.mul(R1));
+        t2 = t2.add(t12.mul(R0));
+        t3 = t3.add(t12.mul(R1));
+        t1 = t1.add(t11.mul(R0));
+        t2 = t2.add(t11.mul(R1));
+        t0 = t0.add(t10.mul(R0));
+        t1 = t1.add(t10.mul(R1));
+
+        // Propagate carries, then fold the bits of t9 at and above 2^256 using 2^256 = 2^32 + R256  (mod p).
+        t1 = t1.add(t0.lanewise(LSHR, 26));
+        t0 = t0.and(M26);
+        t2 = t2.add(t1.lanewise(LSHR, 26));
+        t1 = t1.and(M26);
+        t3 = t3.add(t2.lanewise(LSHR, 26));
+        t2 = t2.and(M26);
+        t4 = t4.add(t3.lanewise(LSHR, 26));
+        t3 = t3.and(M26);
+        t5 = t5.add(t4.lanewise(LSHR, 26));
+        t4 = t4.and(M26);
+        t6 = t6.add(t5.lanewise(LSHR, 26));
+        t5 = t5.and(M26);
+        t7 = t7.add(t6.lanewise(LSHR, 26));
+        t6 = t6.and(M26);
+        t8 = t8.add(t7.lanewise(LSHR, 26));
+        t7 = t7.and(M26);
+        t9 = t9.add(t8.lanewise(LSHR, 26));
+        t8 = t8.and(M26);
+        LongVector top = t9.lanewise(LSHR, 22);
+        t9 = t9.and(M22);
+        t0 = t0.add(top.mul(R256));
+        t1 = t1.add(top.lanewise(LSHL, 6));
+
+        // A last carry pass leaves t0..t8 below 2^26 and t9 below 2^23.
+        t1 = t1.add(t0.lanewise(LSHR, 26));
+        t0 = t0.and(M26);
+        t2 = t2.add(t1.lanewise(LSHR, 26));
+        t1 = t1.and(M26);
+        t3 = t3.add(t2.lanewise(LSHR, 26));
+        t2 = t2.and(M26);
+        t4 = t4.add(t3.lanewise(LSHR, 26));
+        t3 = t3.and(M26);
+        t5 = t5.add(t4.lanewise(LSHR, 26));
+        t4 = t4.and(M26);
+        t6 = t6.add(t5.lanewise(LSHR, 26));
+        t5 = t5.and(M26);
+        t7 = t7.add(t6.lanewise(LSHR, 26));
+        t6 = t6.and(M26);
+        t8 = t8.add(t7.lanewise(LSHR, 26));
+        t7 = t7.and(M26);
+        t9 = t9.add(t8.lanewise(LSHR, 26));
+        t8 = t8.and(M26);
+
+        t0.intoArray(r, rOffset);
+        t1.intoArray(r, rOffset + LANES);
+        t2.intoArray(r, rOffset + 2 * LANES);
+        t3.intoArray(r, rOffset + 3 * LANES);
+        t4.intoArray(r, rOffset + 4 * LANES);
+        t5.intoArray(r, rOffset + 5 * LANES);
+        t6.intoArray(r, rOffset + 6 * LANES);
+        t7.intoArray(r, rOffset + 7 * LANES);
+        t8.intoArray(r, rOffset + 8 * LANES);
+        t9.intoArray(r, rOffset + 9 * LANES);
+    }
+}
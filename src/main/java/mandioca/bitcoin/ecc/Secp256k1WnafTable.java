@@ -0,0 +1,230 @@
+package mandioca.bitcoin.ecc;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static mandioca.bitcoin.ecc.Secp256k1Point.G;
+
+/**
+ * The odd multiples P, 3P, 5P, ..., (2^(w-1) - 1)P of a secp256k1 point, in affine coordinates, for adding the
+ * digits of a width-w NAF (wNAF) representation of a scalar during a multiplication.
+ * <p>
+ * A wNAF digit is either zero or odd and in the range -(2^(w-1) - 1) to 2^(w-1) - 1, and any w consecutive digits
+ * contain at most one non-zero digit, so a 256-bit scalar costs about 256 / (w + 1) point additions, and negative
+ * digits are added by negating y.  Several scalars' wNAFs can share one chain of doublings (Strauss-Shamir), see
+ * {@link #multiply(Secp256k1WnafTable[], int[][])}.
+ * <p>
+ * See https://github.com/bitcoin-core/secp256k1/blob/master/src/ecmult_impl.h
+ */
+final class Secp256k1WnafTable {
+
+    static final int G_WINDOW_BITS = 8;  // 64 precomputed multiples of G
+    static final int WINDOW_BITS = 5;    // 8 multiples of a variable point, built per multiplication
+    static final int CACHED_WINDOW_BITS = 8;  // 64 multiples of a public key, built once, see Secp256k1KeyTableCache
+
+    private final int windowBits;
+    private final Secp256k1FieldElement[] x;
+    private final Secp256k1FieldElement[] y;
+    private volatile Secp256k1WnafTable lambdaTable;  // memoized endomorphism(), for tables that are reused
+
+    private static class GeneratorTableHolder {
+        private static final Secp256k1WnafTable G_TABLE = new Secp256k1WnafTable(G, G_WINDOW_BITS);
+        private static final Secp256k1WnafTable G_LAMBDA_TABLE = G_TABLE.endomorphism();
+    }
+
+    Secp256k1WnafTable(Secp256k1Point p, int windowBits) {
+        this(windowBits, newElements(size(windowBits)), newElements(size(windowBits)));
+        Secp256k1JacobianPoint.toAffineAll(oddMultiples(p, windowBits), x, y);
+    }
+
+    private Secp256k1WnafTable(int windowBits, Secp256k1FieldElement[] x, Secp256k1FieldElement[] y) {
+        this.windowBits = windowBits;
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Returns the tables of all the points, normalizing all their multiples with a single field inversion.
+     */
+    static Secp256k1WnafTable[] tables(Secp256k1Point[] points, int windowBits) {
+        int size = size(windowBits);
+        Secp256k1JacobianPoint[] multiples = new Secp256k1JacobianPoint[points.length * size];
+        Secp256k1FieldElement[] x = newElements(multiples.length);
+        Secp256k1FieldElement[] y = newElements(multiples.length);
+        for (int i = 0; i < points.length; i++) {
+            System.arraycopy(oddMultiples(points[i], windowBits), 0, multiples, i * size, size);
+        }
+        Secp256k1JacobianPoint.toAffineAll(multiples, x, y);
+        Secp256k1WnafTable[] tables = new Secp256k1WnafTable[points.length];
+        for (int i = 0; i < points.length; i++) {
+            tables[i] = new Secp256k1WnafTable(windowBits,
+                    Arrays.copyOfRange(x, i * size, (i + 1) * size),
+                    Arrays.copyOfRange(y, i * size, (i + 1) * size));
+        }
+        return tables;
+    }
+
+    static Secp256k1WnafTable getGeneratorTable() {
+        return GeneratorTableHolder.G_TABLE;
+    }
+
+    /**
+     * Returns the table of lambda * G, see {@link Secp256k1Endomorphism}.
+     */
+    static Secp256k1WnafTable getGeneratorLambdaTable() {
+        return GeneratorTableHolder.G_LAMBDA_TABLE;
+    }
+
+    /**
+     * Returns the table of lambda * P, given this table of P:  the odd multiples (beta * x, y).  The table is built
+     * on first use, and kept with this one.
+     */
+    Secp256k1WnafTable endomorphism() {
+        Secp256k1WnafTable table = lambdaTable;
+        if (table == null) {
+            table = newEndomorphism();
+            lambdaTable = table;
+        }
+        return table;
+    }
+
+    private Secp256k1WnafTable newEndomorphism() {
+        Secp256k1FieldElement[] betaX = new Secp256k1FieldElement[x.length];
+        for (int i = 0; i < x.length; i++) {
+            betaX[i] = new Secp256k1FieldElement().setMultiply(x[i], Secp256k1Endomorphism.FIELD_BETA);
+        }
+        return new Secp256k1WnafTable(windowBits, betaX, y);
+    }
+
+    /**
+     * Returns the sum of digits[j] * P[j] over all tables[j], interleaving the wNAF digits of every scalar over one
+     * shared chain of doublings.  The digits of each scalar must come from {@link #wnaf(BigInteger, int)} with the
+     * window width of its table.
+     */
+    static Secp256k1JacobianPoint multiply(Secp256k1WnafTable[] tables, int[][] digits) {
+        int length = 0;
+        for (int[] d : digits) {
+            length = Math.max(length, length(d));
+        }
+        Secp256k1JacobianPoint result = new Secp256k1JacobianPoint();
+        Secp256k1FieldElement negativeY = new Secp256k1FieldElement();
+        for (int i = length - 1; i >= 0; i--) {
+            result.setDouble(result);
+            for (int j = 0; j < tables.length; j++) {
+                if (digits[j][i] != 0) {
+                    tables[j].add(result, digits[j][i], negativeY);
+                }
+            }
+        }
+        return result;
+    }
+
+    int getWindowBits() {
+        return windowBits;
+    }
+
+    /**
+     * Adds digit * P to r, for a non-zero wNAF digit;  negativeY is scratch space for negative digits.
+     */
+    void add(Secp256k1JacobianPoint r, int digit, Secp256k1FieldElement negativeY) {
+        if (digit > 0) {
+            r.setAddAffine(r, x[digit >>> 1], y[digit >>> 1]);
+        } else {
+            int i = (-digit) >>> 1;
+            r.setAddAffine(r, x[i], negativeY.setNegate(y[i]));
+        }
+    }
+
+    /**
+     * Returns the width-w NAF digits of a scalar in the range -(2^256 - 1) to 2^256 - 1, least significant digit
+     * first, in an array of 257 digits (a 256-bit scalar can carry into bit 256).
+     */
+    static int[] wnaf(BigInteger k, int windowBits) {
+        if (k.bitLength() > 256) {
+            throw new IllegalArgumentException("Scalar " + k + " not in range -(2^256 - 1) to 2^256 - 1");
+        }
+        if (k.signum() < 0) {
+            int[] digits = wnaf(k.negate(), windowBits);
+            for (int i = 0; i < digits.length; i++) {
+                digits[i] = -digits[i];
+            }
+            return digits;
+        }
+        long[] words = new long[5];  // the extra zero word lets windows read past bit 255
+        for (int i = 0; i < 4; i++) {
+            words[i] = k.shiftRight(i * 64).longValue();
+        }
+        int[] digits = new int[257];
+        int carry = 0;
+        int bit = 0;
+        while (bit < 257) {
+            if (bit(words, bit) == carry) {
+                bit++;
+                continue;
+            }
+            int width = Math.min(windowBits, 257 - bit);
+            int word = bits(words, bit, width) + carry;
+            carry = (word >>> (windowBits - 1)) & 1;
+            word -= carry << windowBits;
+            digits[bit] = word;
+            bit += width;
+        }
+        return digits;
+    }
+
+    /**
+     * Returns the number of digits up to and including the most significant non-zero digit.
+     */
+    static int length(int[] digits) {
+        int length = digits.length;
+        while (length > 0 && digits[length - 1] == 0) {
+            length--;
+        }
+        return length;
+    }
+
+    // Returns P, 3P, 5P, ... in Jacobian coordinates.
+    private static Secp256k1JacobianPoint[] oddMultiples(Secp256k1Point p, int windowBits) {
+        if (p.getX() == null) {
+            throw new IllegalArgumentException("Cannot build a wNAF table for the point at infinity");
+        }
+        Secp256k1JacobianPoint[] multiples = new Secp256k1JacobianPoint[size(windowBits)];
+        Secp256k1JacobianPoint twice = new Secp256k1JacobianPoint(p);
+        twice.setDouble(twice);
+        multiples[0] = new Secp256k1JacobianPoint(p);
+        for (int i = 1; i < multiples.length; i++) {
+            multiples[i] = new Secp256k1JacobianPoint().setAdd(multiples[i - 1], twice);  // (2i+1)P
+        }
+        return multiples;
+    }
+
+    // Returns the number of odd multiples in a table, 2^(w-2).
+    private static int size(int windowBits) {
+        if (windowBits < 2 || windowBits > 16) {
+            throw new IllegalArgumentException("wNAF window bits " + windowBits + " not in range 2 to 16");
+        }
+        return 1 << (windowBits - 2);
+    }
+
+    private static Secp256k1FieldElement[] newElements(int count) {
+        Secp256k1FieldElement[] elements = new Secp256k1FieldElement[count];
+        for (int i = 0; i < count; i++) {
+            elements[i] = new Secp256k1FieldElement();
+        }
+        return elements;
+    }
+
+    private static int bit(long[] words, int position) {
+        return (int) (words[position >>> 6] >>> (position & 63)) & 1;
+    }
+
+    private static int bits(long[] words, int position, int count) {
+        int word = position >>> 6;
+        int shift = position & 63;
+        long value = words[word] >>> shift;
+        if (shift + count > 64) {
+            value |= words[word + 1] << (64 - shift);
+        }
+        return (int) (value & ((1L << count) - 1));
+    }
+}
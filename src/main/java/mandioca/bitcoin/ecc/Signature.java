@@ -1,6 +1,7 @@
 package mandioca.bitcoin.ecc;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.function.Function;
 
@@ -11,9 +12,6 @@ import static mandioca.bitcoin.util.HexUtils.HEX;
 // See https://www.youtube.com/watch?v=e6voIwB-An4&feature=youtu.be
 
 public class Signature {
-    // assuming  signature's won't be parsed or serialized in parallel
-    private static final SignatureDerParser parser = new SignatureDerParser();
-    private static final SignatureDerSerializer serializer = new SignatureDerSerializer();
     /**
      * X coordinate of point R
      */
@@ -23,7 +21,9 @@ public class Signature {
      */
     private final BigInteger s;
 
-    public final Function<BigInteger, BigInteger> sInverse = (N) -> this.getS().modPow(N.subtract(TWO), N);
+    public final Function<BigInteger, BigInteger> sInverse = (N) -> N.equals(SafeGcdInverse.ORDER.getModulus())
+            ? SafeGcdInverse.ORDER.invert(this.getS())
+            : this.getS().modPow(N.subtract(TWO), N);
 
     public Signature(BigInteger r, BigInteger s) {
         this.r = r;
@@ -31,7 +31,15 @@ public class Signature {
     }
 
     public static Signature parse(byte[] der) {
-        return parser.init(der).parse();
+        return SignatureDerCodec.parse(ByteBuffer.wrap(der));
+    }
+
+    /**
+     * Parses a strict (BIP66) DER signature from the buffer's position to its limit, without copying it, e.g., a
+     * script stack element wrapped to exclude its sighash byte.  The buffer's position is unchanged.
+     */
+    public static Signature parse(ByteBuffer der) {
+        return SignatureDerCodec.parse(der);
     }
 
     public BigInteger getR() {
@@ -43,7 +51,16 @@ public class Signature {
     }
 
     public byte[] getDer() {
-        return serializer.init(this).getDer();
+        byte[] der = new byte[SignatureDerCodec.derLength(this)];
+        SignatureDerCodec.write(this, ByteBuffer.wrap(der));
+        return der;
+    }
+
+    /**
+     * Writes the DER encoding, at most 72 bytes, at the buffer's position and returns its length.
+     */
+    public int writeDer(ByteBuffer dest) {
+        return SignatureDerCodec.write(this, dest);
     }
 
     @Override
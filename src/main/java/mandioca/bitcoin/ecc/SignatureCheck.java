@@ -0,0 +1,49 @@
+package mandioca.bitcoin.ecc;
+
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * A signature to verify:  the signature hash z, the signature, and the signer's public key.
+ *
+ * @see Secp256k1Point#verifyBatch(java.util.List)
+ */
+public class SignatureCheck {
+
+    private final BigInteger z;
+    private final Signature signature;
+    private final Secp256k1Point publicKey;
+
+    public SignatureCheck(BigInteger z, Signature signature, Secp256k1Point publicKey) {
+        this.z = z;
+        this.signature = signature;
+        this.publicKey = publicKey;
+    }
+
+    public BigInteger getZ() {
+        return z;
+    }
+
+    public Signature getSignature() {
+        return signature;
+    }
+
+    public Secp256k1Point getPublicKey() {
+        return publicKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SignatureCheck other = (SignatureCheck) o;
+        return Objects.equals(z, other.z) &&
+                Objects.equals(signature, other.signature) &&
+                Objects.equals(publicKey, other.publicKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(z, signature, publicKey);
+    }
+}
@@ -0,0 +1,126 @@
+package mandioca.bitcoin.ecc;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Strict DER encoding of ECDSA signatures, 0x30 [length] 0x02 [r length] [r] 0x02 [s length] [s], without the
+ * trailing sighash byte.
+ * <p>
+ * Parsing validates the encoding by BIP66's rules and reads r and s straight from the buffer's backing array, and
+ * serializing writes into a caller supplied buffer, so neither copies the encoding or builds intermediate byte
+ * arrays.  The codec is stateless and thread safe.  Not instantiable.
+ * <p>
+ * See https://github.com/bitcoin/bips/blob/master/bip-0066.mediawiki
+ */
+final class SignatureDerCodec {
+
+    static final byte DER_PREFIX = 0x30;
+    static final byte DER_MARKER = 0x02;
+    static final int MIN_DER_LEN = 8;   // 0x30 0x06 0x02 0x01 r 0x02 0x01 s
+    static final int MAX_DER_LEN = 72;  // 33 byte r and s
+
+    private SignatureDerCodec() {
+    }  // Not instantiable
+
+    /**
+     * Parses the signature encoded from the buffer's position to its limit, leaving the buffer's position unchanged.
+     *
+     * @throws IllegalArgumentException if the encoding is not strict DER
+     */
+    static Signature parse(ByteBuffer der) {
+        int offset = der.position();
+        int len = der.remaining();
+        if (len < MIN_DER_LEN || len > MAX_DER_LEN) {
+            throw new IllegalArgumentException("Signature length " + len + " not in range " + MIN_DER_LEN + " to " + MAX_DER_LEN);
+        }
+        if (der.get(offset) != DER_PREFIX) {
+            throw new IllegalArgumentException("Signature does not start with the DER prefix 0x30");
+        }
+        if (unsigned(der, offset + 1) != len - 2) {
+            throw new IllegalArgumentException("Signature length byte does not match its length " + len);
+        }
+        int rLen = unsigned(der, offset + 3);
+        if (5 + rLen >= len) {
+            throw new IllegalArgumentException("Signature r length " + rLen + " leaves no room for s");
+        }
+        int sLen = unsigned(der, offset + 5 + rLen);
+        if (rLen + sLen + 6 != len) {
+            throw new IllegalArgumentException("Signature r and s lengths do not match its length " + len);
+        }
+        checkInteger(der, offset + 2, rLen, "r");
+        checkInteger(der, offset + 4 + rLen, sLen, "s");
+        return new Signature(toBigInteger(der, offset + 4, rLen), toBigInteger(der, offset + 6 + rLen, sLen));
+    }
+
+    /**
+     * Returns the length of the signature's DER encoding, 8 to 72 bytes.
+     */
+    static int derLength(Signature signature) {
+        return 6 + integerLength(signature.getR()) + integerLength(signature.getS());
+    }
+
+    /**
+     * Writes the signature's DER encoding at the buffer's position, advancing it past the encoding.
+     *
+     * @return the number of bytes written
+     */
+    static int write(Signature signature, ByteBuffer dest) {
+        int rLen = integerLength(signature.getR());
+        int sLen = integerLength(signature.getS());
+        int len = 6 + rLen + sLen;
+        if (dest.remaining() < len) {
+            throw new IllegalArgumentException("Signature needs " + len + " bytes, buffer has " + dest.remaining());
+        }
+        dest.put(DER_PREFIX).put((byte) (len - 2));
+        writeInteger(signature.getR(), rLen, dest);
+        writeInteger(signature.getS(), sLen, dest);
+        return len;
+    }
+
+    // BIP66:  a non-empty, non-negative integer without excess leading zero bytes.
+    private static void checkInteger(ByteBuffer der, int markerIndex, int len, String name) {
+        if (der.get(markerIndex) != DER_MARKER) {
+            throw new IllegalArgumentException("Signature " + name + " is not marked as an integer");
+        }
+        if (len == 0) {
+            throw new IllegalArgumentException("Signature " + name + " is empty");
+        }
+        int first = markerIndex + 2;
+        if ((der.get(first) & 0x80) != 0) {
+            throw new IllegalArgumentException("Signature " + name + " is negative");
+        }
+        if (len > 1 && der.get(first) == 0 && (der.get(first + 1) & 0x80) == 0) {
+            throw new IllegalArgumentException("Signature " + name + " has an excess leading zero byte");
+        }
+    }
+
+    private static BigInteger toBigInteger(ByteBuffer der, int index, int len) {
+        if (der.hasArray()) {
+            return new BigInteger(1, der.array(), der.arrayOffset() + index, len);
+        }
+        byte[] magnitude = new byte[len];  // a direct buffer has no array to read from
+        der.get(index, magnitude);
+        return new BigInteger(1, magnitude);
+    }
+
+    // The minimal two's complement length, so a high bit gets a zero byte in front.
+    private static int integerLength(BigInteger n) {
+        return n.bitLength() / 8 + 1;
+    }
+
+    private static void writeInteger(BigInteger n, int len, ByteBuffer dest) {
+        dest.put(DER_MARKER).put((byte) len);
+        for (int i = len - 1; i >= 0; i--) {
+            int b = 0;
+            for (int bit = 7; bit >= 0; bit--) {
+                b = (b << 1) | (n.testBit(8 * i + bit) ? 1 : 0);
+            }
+            dest.put((byte) b);
+        }
+    }
+
+    private static int unsigned(ByteBuffer der, int index) {
+        return Byte.toUnsignedInt(der.get(index));
+    }
+}
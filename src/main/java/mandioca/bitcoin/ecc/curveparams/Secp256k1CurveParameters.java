@@ -18,6 +18,16 @@ public class Secp256k1CurveParameters {
     public static final BigInteger p = TWO.pow(256).subtract(TWO.pow(32)).subtract(BigInteger.valueOf(977));
     public static final BigInteger N = new BigInteger("fffffffffffffffffffffffffffffffebaaedce6af48a03bbfd25e8cd0364141", HEX_RADIX);
 
+    // secp256k1 endomorphism (GLV) constants:  lambda * (x, y) = (beta * x, y), where beta^3 = 1 mod p and
+    // lambda^3 = 1 mod N.  (a1, b1) and (a2, b2) are short basis vectors of the lattice of scalars (k1, k2) with
+    // k1 + k2 * lambda = 0 mod N, used to split a scalar into two ~128-bit halves.
+    public static final BigInteger BETA = new BigInteger("7ae96a2b657c07106e64479eac3434e99cf0497512f58995c1396c28719501ee", HEX_RADIX);
+    public static final BigInteger LAMBDA = new BigInteger("5363ad4cc05c30e0a5261c028812645a122e22ea20816678df02967c1b23bd72", HEX_RADIX);
+    public static final BigInteger GLV_A1 = new BigInteger("3086d221a7d46bcde86c90e49284eb15", HEX_RADIX);
+    public static final BigInteger GLV_B1 = new BigInteger("-e4437ed6010e88286f547fa90abfe4c3", HEX_RADIX);
+    public static final BigInteger GLV_A2 = new BigInteger("114ca50f7a8e2f3f657c1108d9d44cfd8", HEX_RADIX);
+    public static final BigInteger GLV_B2 = GLV_A1;
+
     /**
      * Immutable map of primitive secp256k1 curve parameters, indirectly accessed by callers.
      */
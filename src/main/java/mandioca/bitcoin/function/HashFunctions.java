@@ -1,12 +1,22 @@
 package mandioca.bitcoin.function;
 
 import mandioca.bitcoin.util.Ripemd160;
+import mandioca.bitcoin.util.Sha256;
+import mandioca.bitcoin.util.Sha256Batch;
 
+import java.nio.ByteBuffer;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public class HashFunctions {
 
     public static final String SHA1 = "SHA-1";
@@ -20,10 +30,11 @@ public class HashFunctions {
         }
     };
 
-    public static final Function<byte[], byte[]> sha1Hash = (data) -> {
-        MessageDigest digest = newSHA1Digest.get();
-        return digest.digest(data);
-    };
+    // One reusable digest engine per thread, instead of a MessageDigest.getInstance provider lookup and a new engine
+    // per hash.  MessageDigest.digest resets an engine for its next use.
+    private static final ThreadLocal<MessageDigest> sha1Digest = ThreadLocal.withInitial(newSHA1Digest);
+
+    public static final Function<byte[], byte[]> sha1Hash = (data) -> sha1Digest.get().digest(data);
 
     public static final Supplier<MessageDigest> newSHA256Digest = () -> {
         try {
@@ -33,27 +44,142 @@ public class HashFunctions {
         }
     };
 
-    public static final Function<byte[], byte[]> sha256Hash = (data) -> {
-        MessageDigest digest = newSHA256Digest.get();
-        return digest.digest(data);
+    private static final ThreadLocal<MessageDigest> sha256Digest = ThreadLocal.withInitial(newSHA256Digest);
+
+    public static final Function<byte[], byte[]> sha256Hash = (data) -> sha256Digest.get().digest(data);
+
+    // Writes the 32 byte SHA-256 hash of the data to dest[offset].
+    public static final TriConsumer<byte[], byte[], Integer> sha256Into = (data, dest, offset) -> {
+        checkDestination(dest, offset, 32);
+        MessageDigest digest = sha256Digest.get();
+        digest.update(data);
+        digestInto(digest, dest, offset);
     };
 
     public static final Function<byte[], byte[]> hash256 = (data) -> {
         // a double sha256 hash
-        MessageDigest digest = newSHA256Digest.get();
+        MessageDigest digest = sha256Digest.get();
         byte[] hash = digest.digest(data); // 1st hash
         return digest.digest(hash); // 2nd hash
     };
 
+    // Writes the 32 byte double SHA-256 hash of the data to dest[offset].
+    public static final TriConsumer<byte[], byte[], Integer> hash256Into = (data, dest, offset) -> {
+        checkDestination(dest, offset, 32);
+        MessageDigest digest = sha256Digest.get();
+        digest.update(data);
+        digestInto(digest, dest, offset);                  // 1st hash
+        digest.update(dest, offset, 32);
+        digestInto(digest, dest, offset);                  // 2nd hash, over the 1st
+    };
+
+    // A double sha256 hash of the len bytes at data[offset].
     public static final TriFunction<byte[], Integer, Integer, byte[]> hash256FromOffset = (data, offset, len) -> {
-        MessageDigest digest = newSHA256Digest.get();
+        MessageDigest digest = sha256Digest.get();
         digest.update(data, offset, len);
-        byte[] hash = digest.digest(data);          // 1st hash
-        return digest.digest(hash);    // 2nd hash
+        byte[] hash = digest.digest();      // 1st hash, of the range only
+        return digest.digest(hash);         // 2nd hash
+    };
+
+    // Writes the 32 byte double SHA-256 hash of the buffer's remaining bytes to dest[offset], leaving the buffer's
+    // position unchanged.  Hashes an array range in place with ByteBuffer.wrap(data, offset, len), or a message
+    // straight out of a network or parse buffer.
+    public static final TriConsumer<ByteBuffer, byte[], Integer> hash256SliceInto = (data, dest, offset) -> {
+        checkDestination(dest, offset, 32);
+        MessageDigest digest = sha256Digest.get();
+        update(digest, data);
+        digestInto(digest, dest, offset);                  // 1st hash
+        digest.update(dest, offset, 32);
+        digestInto(digest, dest, offset);                  // 2nd hash, over the 1st
+    };
+
+    // The double SHA-256 hash of l || r, a merkle tree's parent of two hashes, without concatenating them.
+    public static final BiFunction<byte[], byte[], byte[]> hash256Pair = (l, r) -> {
+        MessageDigest digest = sha256Digest.get();
+        digest.update(l);
+        digest.update(r);
+        byte[] hash = digest.digest();      // 1st hash
+        return digest.digest(hash);         // 2nd hash
     };
 
+    // Writes the 32 byte double SHA-256 hash of each in[i] to out[i][0], in SIMD lanes when the Vector API backend
+    // is enabled, see Sha256Batch.
+    public static final BiConsumer<byte[][], byte[][]> hash256Batch = (in, out) -> Sha256Batch.getDefault().hash256All(in, out);
+
     public static final Function<byte[], byte[]> hashRipemd160 = Ripemd160::getHash;
 
-    public static final Function<byte[], byte[]> hash160 = (data) -> hashRipemd160.apply(sha256Hash.apply(data));
+    // Fused hash160 state per thread:  the SHA-256 hash is written to a reused buffer and fed straight into a reused
+    // RIPEMD-160 engine, so hashing into a destination allocates nothing.
+    private static final ThreadLocal<Hash160Engine> hash160Engine = ThreadLocal.withInitial(Hash160Engine::new);
+
+    public static final Function<byte[], byte[]> hash160 = (data) -> {
+        byte[] hash = new byte[Ripemd160.DIGEST_LEN];
+        hash160Engine.get().hash(data, 0, data.length, hash, 0);
+        return hash;
+    };
+
+    // Writes the 20 byte RIPEMD-160 hash of the SHA-256 hash of the data to dest[offset].
+    public static final TriConsumer<byte[], byte[], Integer> hash160Into = (data, dest, offset) -> {
+        checkDestination(dest, offset, Ripemd160.DIGEST_LEN);
+        hash160Engine.get().hash(data, 0, data.length, dest, offset);
+    };
 
+    // Writes the 20 byte hash160 of the buffer's remaining bytes to dest[offset], leaving the buffer's position
+    // unchanged.
+    public static final TriConsumer<ByteBuffer, byte[], Integer> hash160SliceInto = (data, dest, offset) -> {
+        checkDestination(dest, offset, Ripemd160.DIGEST_LEN);
+        Hash160Engine engine = hash160Engine.get();
+        update(engine.sha256, data);
+        engine.finish(dest, offset);
+    };
+
+    // SHA256 states after hashing a tag's 64 byte prefix, SHA256(tag) || SHA256(tag);  read only once cached.
+    private static final Map<String, Sha256> taggedHashPrefixes = new ConcurrentHashMap<>();
+
+    // BIP340 tagged hash:  SHA256(SHA256(tag) || SHA256(tag) || data), resuming from the tag's cached prefix state.
+    public static final BiFunction<String, byte[], byte[]> taggedHash = (tag, data) -> {
+        Sha256 prefix = taggedHashPrefixes.computeIfAbsent(tag, (t) -> {
+            byte[] tagHash = Sha256.hash(t.getBytes(UTF_8));
+            return new Sha256().update(tagHash).update(tagHash);
+        });
+        return new Sha256().set(prefix).update(data).digest();
+    };
+
+    // Checked before a thread's engine is updated, so a bad destination cannot leave data in the engine.
+    private static void checkDestination(byte[] dest, int offset, int len) {
+        if (offset < 0 || offset > dest.length - len) {
+            throw new IllegalArgumentException("No room for a " + len + " byte hash at offset " + offset
+                    + " of " + dest.length + " bytes");
+        }
+    }
+
+    private static void update(MessageDigest digest, ByteBuffer data) {
+        int position = data.position();
+        digest.update(data);                // consumes the remaining bytes
+        data.position(position);
+    }
+
+    private static void digestInto(MessageDigest digest, byte[] dest, int offset) {
+        try {
+            digest.digest(dest, offset, digest.getDigestLength());
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);  // the destination was checked
+        }
+    }
+
+    private static final class Hash160Engine {
+        private final MessageDigest sha256 = newSHA256Digest.get();
+        private final Ripemd160 ripemd160 = new Ripemd160();
+        private final byte[] sha256Hash = new byte[32];
+
+        void hash(byte[] data, int offset, int len, byte[] dest, int destOffset) {
+            sha256.update(data, offset, len);
+            finish(dest, destOffset);
+        }
+
+        void finish(byte[] dest, int destOffset) {
+            digestInto(sha256, sha256Hash, 0);
+            ripemd160.update(sha256Hash).digest(dest, destOffset);
+        }
+    }
 }
@@ -64,6 +64,13 @@ public class Block {
         return blockHelper.checkProofOfWork(blockHeader);
     }
 
+    /**
+     * Checks the proof of work with the header's hash, as returned by {@link BlockHeader#hash()}, already computed.
+     */
+    public boolean checkProofOfWork(byte[] hash) {
+        return blockHelper.checkProofOfWork(blockHeader, hash);
+    }
+
     public byte[] calcNewBits(byte[] previousBits, int timeDifferential) {
         return blockHelper.calcNewBits(previousBits, timeDifferential);
     }
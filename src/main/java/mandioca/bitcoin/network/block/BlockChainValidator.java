@@ -14,6 +14,7 @@ import static java.math.BigInteger.ZERO;
 import static mandioca.bitcoin.function.BigIntegerFunctions.HEX_RADIX;
 import static mandioca.bitcoin.function.BigIntegerFunctions.formatInt;
 import static mandioca.bitcoin.function.EndianFunctions.reverse;
+import static mandioca.bitcoin.function.HashFunctions.hash256Batch;
 import static mandioca.bitcoin.function.TimeFunctions.*;
 import static mandioca.bitcoin.network.NetworkProperties.NETWORK;
 import static mandioca.bitcoin.network.NetworkProperties.REGTEST_GENESIS_LOWEST_BITS;
@@ -37,24 +38,54 @@ public final class BlockChainValidator {
     // BIP 0009 requires 95% of blocks signal readiness in a given 2,016 block epoch (diff adjust period) before soft fork feature is activated.
     private static final int DIFFICULTY_ADJUSTMENT_PERIOD = TWO_WEEKS_AS_SECONDS / TEN_MINUTES_AS_SECONDS;    // 2016
 
+    // Number of block headers hashed together, see Sha256Batch.
+    private static final int HASH_BATCH_SIZE = 4096;
+
     public void validate(List<BlockHeader> blockHeaders) throws InvalidBlockException {
         long t0 = currentTimeMillis();
         log.info("validating {} block headers", blockHeaders.size());
         BlockHeader current, previous = genesisBlockHeader.get();
+        byte[] currentHash, previousHash = previous.hash();
+        byte[][] hashes = new byte[0][];
         int firstEpochTimestamp = previous.getTimestampInt();
         int height = 1;
         while (height < blockHeaders.size()) {
-            current = blockHeaders.get(height - 1);
-            firstEpochTimestamp = doChecksAndAdjustEpochTimestamp(previous, current, height, firstEpochTimestamp);
+            int index = height - 1;
+            if (index % HASH_BATCH_SIZE == 0) {
+                hashes = hashHeaders(blockHeaders, index, Math.min(index + HASH_BATCH_SIZE, blockHeaders.size() - 1));
+            }
+            current = blockHeaders.get(index);
+            currentHash = hashes[index % HASH_BATCH_SIZE];
+            firstEpochTimestamp = doChecksAndAdjustEpochTimestamp(previous, previousHash, current, currentHash, height, firstEpochTimestamp);
             if (height % 300_000 == 0) {
                 log.info("validated {} blocks...", formatInt.apply(height));
             }
             previous = current;
+            previousHash = currentHash;
             height++;
         }
         log.info(getStatsString(blockHeaders.size(), currentTimeMillis() - t0));
     }
 
+    // Returns the big endian hashes of the headers from index from to index to, each serialized and hashed once, as
+    // one batch, for both the proof of work and the chain order checks.
+    private static byte[][] hashHeaders(List<BlockHeader> blockHeaders, int from, int to) {
+        byte[][] serialized = new byte[to - from][];
+        for (int i = 0; i < serialized.length; i++) {
+            serialized[i] = blockHeaders.get(from + i).serialize();
+        }
+        byte[][] hashes = new byte[serialized.length][32];
+        hash256Batch.accept(serialized, hashes);
+        for (byte[] hash : hashes) {
+            for (int i = 0, j = hash.length - 1; i < j; i++, j--) {   // to big endian, in place
+                byte b = hash[i];
+                hash[i] = hash[j];
+                hash[j] = b;
+            }
+        }
+        return hashes;
+    }
+
     private final Function<Integer, Integer> adjustedTimeDifferential = (timeDiff) -> {
         if (timeDiff < TWO_WEEKS_AS_SECONDS / 4) {
             timeDiff = TWO_WEEKS_AS_SECONDS / 4;
@@ -81,13 +112,15 @@ public final class BlockChainValidator {
 
     private int doChecksAndAdjustEpochTimestamp(
             BlockHeader previous,
+            byte[] previousHash,
             BlockHeader current,
+            byte[] currentHash,
             int height,
             int firstEpochTimestamp)
             throws InvalidBlockException {
         Block block = new Block(current);
-        checkProofOfWork(block, height);
-        checkOrder(previous, current, height);
+        checkProofOfWork(block, currentHash, height);
+        checkOrder(previousHash, current, height);
         if (height % DIFFICULTY_ADJUSTMENT_PERIOD == 0) {
             checkDifficultyAdjustment(block, previous, firstEpochTimestamp, height);
             firstEpochTimestamp = current.getTimestampInt();
@@ -95,16 +128,16 @@ public final class BlockChainValidator {
         return firstEpochTimestamp;
     }
 
-    private void checkProofOfWork(Block block, int height)
+    private void checkProofOfWork(Block block, byte[] hash, int height)
             throws InvalidBlockException {
-        if (!block.checkProofOfWork()) {
+        if (!block.checkProofOfWork(hash)) {
             throw new InvalidBlockException("bad proof of work at block " + height + " " + block.id());
         }
     }
 
-    private void checkOrder(BlockHeader previous, BlockHeader current, int height)
+    private void checkOrder(byte[] previousHash, BlockHeader current, int height)
             throws InvalidBlockException {
-        if (!Arrays.equals(current.getPreviousBlockBigEndian(), previous.hash())) {
+        if (!Arrays.equals(current.getPreviousBlockBigEndian(), previousHash)) {
             if (isRegtest.test(NETWORK)) {
                 // Why would regtest send blks in incorrect order?  It happens intermittently.
                 log.warn("discontinuous block at {}  {}", height, current.getHashHex());
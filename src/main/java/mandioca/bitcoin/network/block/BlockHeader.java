@@ -11,6 +11,7 @@ import java.util.function.Function;
 import static mandioca.bitcoin.function.ByteArrayFunctions.*;
 import static mandioca.bitcoin.function.EndianFunctions.reverse;
 import static mandioca.bitcoin.function.HashFunctions.hash256;
+import static mandioca.bitcoin.function.HashFunctions.hash256Pair;
 import static mandioca.bitcoin.network.block.BlockHeaderSerializer.*;
 import static mandioca.bitcoin.util.HexUtils.HEX;
 
@@ -31,7 +32,7 @@ public class BlockHeader {
             hashes.add(hashes.get(hashes.size() - 1));
         }
     };
-    private final BiFunction<byte[], byte[], byte[]> merkleParent = (l, r) -> hash256.apply(concatenate.apply(l, r));
+    private final BiFunction<byte[], byte[], byte[]> merkleParent = hash256Pair;
     private final Function<List<byte[]>, List<byte[]>> merkleParentLevel = (hashes) -> {
         balanceMerkleTree.accept(hashes);
         List<byte[]> parentLevel = new ArrayList<>();
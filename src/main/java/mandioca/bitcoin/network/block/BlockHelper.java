@@ -50,7 +50,12 @@ final class BlockHelper {
     boolean checkProofOfWork(BlockHeader blockHeader) {
         // A valid proof of work is a hash of a block header as a little endian integer is below the getTarget number.
         byte[] hash = hash256.apply(blockHeader.serialize());
-        BigInteger proof = new BigInteger(1, reverse.apply(hash));
+        return checkProofOfWork(blockHeader, reverse.apply(hash));
+    }
+
+    // Checks the proof of work with the header's already computed, big endian hash, e.g., one of a batch.
+    boolean checkProofOfWork(BlockHeader blockHeader, byte[] hash) {
+        BigInteger proof = new BigInteger(1, hash);
         BigInteger target = bitsToTarget(blockHeader.bits);
         return isLessThan.apply(proof, target);
     }
@@ -60,7 +60,7 @@ public class GenesisBlockHeader {
             ZERO_HASH,
             HEX.decode(mainnetMerkleRootHex),
             regtestTimestampInt,
-            HEX.decode(mainnetBitsHex),
+            HEX.decode(regtestBitsHex),
             intToBytes.apply(regtestNonceInt),
             new byte[]{});
 
@@ -13,7 +13,8 @@ import java.util.List;
 import java.util.function.*;
 
 import static mandioca.bitcoin.function.ByteArrayFunctions.*;
-import static mandioca.bitcoin.function.HashFunctions.hash256;
+import static mandioca.bitcoin.function.HashFunctions.hash256Batch;
+import static mandioca.bitcoin.function.HashFunctions.hash256Pair;
 import static mandioca.bitcoin.util.HexUtils.HEX;
 
 
@@ -51,16 +52,18 @@ public final class MerkleTree {
 
     public final Supplier<String> rootHex = () -> nodeHex.apply(0, 0);
 
-    public final BiFunction<byte[], byte[], byte[]> merkleParent = (l, r) -> hash256.apply(concatenate.apply(l, r));
+    public final BiFunction<byte[], byte[], byte[]> merkleParent = hash256Pair;
 
+    // The pairs of a level are independent messages, hashed as one batch (see Sha256Batch).
     public final Function<List<byte[]>, List<byte[]>> merkleParentLevel = (hashes) -> {
         balanceTree.accept(hashes);
-        List<byte[]> parentLevel = new ArrayList<>();
-        for (int i = 0; i < hashes.size(); i += 2) { // skip 2
-            byte[] parent = merkleParent.apply(hashes.get(i), hashes.get(i + 1));
-            parentLevel.add(parent);
+        byte[][] pairs = new byte[hashes.size() / 2][];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = concatenate.apply(hashes.get(2 * i), hashes.get(2 * i + 1));
         }
-        return parentLevel;
+        byte[][] parents = new byte[pairs.length][32];
+        hash256Batch.accept(pairs, parents);
+        return new ArrayList<>(Arrays.asList(parents));
     };
 
     @SuppressWarnings("unused")
@@ -0,0 +1,238 @@
+package mandioca.bitcoin.network.block;
+
+import mandioca.bitcoin.util.Sha256;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static mandioca.bitcoin.function.ByteArrayFunctions.bigIntToUnsignedByteArray;
+import static mandioca.bitcoin.function.ByteArrayFunctions.intToBytes;
+import static mandioca.bitcoin.function.HashFunctions.hash256;
+import static mandioca.bitcoin.function.LongFunctions.formatLong;
+import static mandioca.bitcoin.function.TimeFunctions.TEN_MINUTES_AS_SECONDS;
+import static mandioca.bitcoin.function.TimeFunctions.durationString;
+import static mandioca.bitcoin.network.block.GenesisBlockHeader.REGTEST_GENESIS_BLOCK_HEADER;
+import static mandioca.bitcoin.util.HexUtils.HEX;
+
+/**
+ * A CPU miner of regtest difficulty block headers, to generate long chains of valid headers offline, e.g., for
+ * header sync and chain validation benchmarks.
+ * <p>
+ * The first 64 bytes of a header (the version, the previous block hash, and the first 28 bytes of the merkle root)
+ * do not change while it is mined, so their SHA-256 state (the midstate) is computed once per header and resumed
+ * for each nonce:  a try only hashes the last 16 header bytes, then the 32 byte first hash, 2 compressions instead
+ * of 3.  The nonce space is handed out to the threads in chunks of 2^CHUNK_BITS nonces.  When all 2^32 nonces of a
+ * timestamp fail, the next chunks roll the timestamp a second forward, since the headers have no coinbase
+ * transaction with an extra nonce to change.
+ * <p>
+ * A miner is meant to be used by one thread at a time;  close it to stop its mining threads.
+ */
+public final class RegtestMiner implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RegtestMiner.class);
+
+    public static final String REGTEST_BITS_HEX = "207fffff";
+
+    static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNKS_PER_TIMESTAMP = 1 << (32 - CHUNK_BITS);
+    private static final int MIDSTATE_LENGTH = 64;
+    private static final int TIMESTAMP_OFFSET = 4;   // in the header's last 16 bytes
+    private static final int NONCE_OFFSET = 12;
+
+    private final int threads;
+    private final ExecutorService executor;
+    private final BlockHelper blockHelper = new BlockHelper();
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder miningNanos = new LongAdder();
+
+    public RegtestMiner(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Miner needs at least 1 thread, not " + threads);
+        }
+        this.threads = threads;
+        this.executor = threads == 1 ? null : Executors.newFixedThreadPool(threads, (r) -> {
+            Thread thread = new Thread(r, "regtest-miner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns a copy of the header with a nonce, and if needed a later timestamp, that makes its hash meet the
+     * target of its bits.
+     */
+    public BlockHeader mine(BlockHeader header) {
+        long t0 = System.nanoTime();
+        try {
+            Job job = new Job(header.serialize(), bigIntToUnsignedByteArray.apply(blockHelper.bitsToTarget(header.bits)));
+            if (executor == null) {
+                job.run();
+            } else {
+                List<Future<?>> futures = new ArrayList<>(threads);
+                for (int i = 0; i < threads; i++) {
+                    futures.add(executor.submit(job));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            BlockHeader mined = BlockHeader.parse(new ByteArrayInputStream(job.solution.get()));
+            if (!blockHelper.checkProofOfWork(mined)) {
+                throw new IllegalStateException("Mined header " + mined.getHashHex() + " has no proof of work");
+            }
+            return mined;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while mining", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error mining header", e.getCause());
+        } finally {
+            miningNanos.add(System.nanoTime() - t0);
+        }
+    }
+
+    /**
+     * Mines a chain of count regtest difficulty headers on top of the previous header, e.g., the regtest genesis
+     * block header, a block interval apart.  The headers have no transactions;  their merkle roots are placeholders.
+     */
+    public List<BlockHeader> mineChain(BlockHeader previous, int count) {
+        List<BlockHeader> chain = new ArrayList<>(count);
+        byte[] bits = HEX.decode(REGTEST_BITS_HEX);
+        for (int height = 1; height <= count; height++) {
+            BlockHeader header = new BlockHeader(previous.getVersionInt(),
+                    previous.hash(),
+                    hash256.apply(intToBytes.apply(height)),
+                    previous.getTimestampInt() + TEN_MINUTES_AS_SECONDS,
+                    bits,
+                    new byte[Integer.BYTES],
+                    new byte[]{});
+            previous = mine(header);
+            chain.add(previous);
+        }
+        return chain;
+    }
+
+    public long getHashCount() {
+        return hashCount.sum();
+    }
+
+    public double getHashesPerSecond() {
+        long nanos = miningNanos.sum();
+        return nanos == 0 ? 0 : hashCount.sum() * 1e9 / nanos;
+    }
+
+    public String getStats() {
+        return String.format("regtest miner stats:  %s hashes with %d threads in %s at rate of %s hashes/s",
+                formatLong.apply(getHashCount()),
+                threads,
+                durationString.apply(miningNanos.sum() / 1_000_000),
+                formatLong.apply((long) getHashesPerSecond()));
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // Mines one header;  each thread running the job takes chunks of the nonce space until one finds a solution.
+    private final class Job implements Runnable {
+
+        private final byte[] header;
+        private final byte[] target;   // big endian
+        private final Sha256 midstate;
+        private final AtomicInteger nextChunk = new AtomicInteger();
+        private final AtomicReference<byte[]> solution = new AtomicReference<>();
+
+        Job(byte[] header, byte[] target) {
+            this.header = header;
+            this.target = target;
+            this.midstate = new Sha256().update(header, 0, MIDSTATE_LENGTH);
+        }
+
+        @Override
+        public void run() {
+            byte[] tail = Arrays.copyOfRange(header, MIDSTATE_LENGTH, header.length);
+            int timestamp = readIntLE(tail, TIMESTAMP_OFFSET);
+            Sha256 sha256 = new Sha256();
+            byte[] hash = new byte[Sha256.DIGEST_LEN];
+            long hashes = 0;
+            try {
+                while (solution.get() == null) {
+                    int chunk = nextChunk.getAndIncrement();
+                    if (chunk < 0) {
+                        throw new IllegalStateException("Nonce and timestamp space of header exhausted");
+                    }
+                    writeIntLE(tail, TIMESTAMP_OFFSET, timestamp + chunk / CHUNKS_PER_TIMESTAMP);
+                    int nonce = (chunk % CHUNKS_PER_TIMESTAMP) << CHUNK_BITS;
+                    for (int i = 0; i < CHUNK_SIZE; i++, nonce++) {
+                        writeIntLE(tail, NONCE_OFFSET, nonce);
+                        sha256.set(midstate).update(tail).digest(hash, 0);     // 1st hash, from the midstate
+                        sha256.update(hash).digest(hash, 0);                   // 2nd hash
+                        hashes++;
+                        if (isBelowTarget(hash)) {
+                            byte[] solved = header.clone();
+                            System.arraycopy(tail, 0, solved, MIDSTATE_LENGTH, tail.length);
+                            solution.compareAndSet(null, solved);
+                            return;
+                        }
+                        if ((i & 0xfff) == 0xfff && solution.get() != null) {
+                            return;  // another thread found one
+                        }
+                    }
+                }
+            } finally {
+                hashCount.add(hashes);
+            }
+        }
+
+        // The hash is a little endian number;  a valid proof of work is strictly below the target.
+        private boolean isBelowTarget(byte[] hash) {
+            for (int i = 0; i < target.length; i++) {
+                int h = hash[hash.length - 1 - i] & 0xff;
+                int t = target[i] & 0xff;
+                if (h != t) {
+                    return h < t;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static int readIntLE(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) | (bytes[offset + 1] & 0xff) << 8
+                | (bytes[offset + 2] & 0xff) << 16 | bytes[offset + 3] << 24;
+    }
+
+    private static void writeIntLE(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) value;
+        bytes[offset + 1] = (byte) (value >>> 8);
+        bytes[offset + 2] = (byte) (value >>> 16);
+        bytes[offset + 3] = (byte) (value >>> 24);
+    }
+
+    // Mines a chain of regtest headers on the genesis block header;  args:  [count [threads]]
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        try (RegtestMiner miner = new RegtestMiner(threads)) {
+            List<BlockHeader> chain = miner.mineChain(REGTEST_GENESIS_BLOCK_HEADER, count);
+            log.info("mined {} headers, tip {}", formatLong.apply((long) chain.size()), chain.get(chain.size() - 1).getHashHex());
+            log.info(miner.getStats());
+        }
+    }
+}
@@ -24,7 +24,7 @@ import java.util.function.Supplier;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static mandioca.bitcoin.function.ByteArrayFunctions.*;
 import static mandioca.bitcoin.function.EndianFunctions.reverse;
-import static mandioca.bitcoin.function.HashFunctions.hash256;
+import static mandioca.bitcoin.function.HashFunctions.hash256Into;
 import static mandioca.bitcoin.network.NetworkConstants.*;
 import static mandioca.bitcoin.network.message.NetworkMagic.networkTypeToMagic;
 import static mandioca.bitcoin.util.HexUtils.HEX;
@@ -64,12 +64,14 @@ public class NetworkEnvelopeParser {
         }
     };
     private final ByteBuffer checksumBuffer = ByteBuffer.allocate(PAYLOAD_CHECKSUM_LENGTH);
+    private final byte[] payloadHash = new byte[32];
     // Checksum validation errors during long running, heavy load situations solved
     // by use of a single checksum buffer instead of borrowing/returning buffers.
     private final Function<byte[], byte[]> calculateChecksum = (payload) -> {
         synchronized (checksumBuffer) {
             checksumBuffer.clear();
-            checksumBuffer.put(hash256.apply(payload), 0, PAYLOAD_CHECKSUM_LENGTH);
+            hash256Into.accept(payload, payloadHash, 0);
+            checksumBuffer.put(payloadHash, 0, PAYLOAD_CHECKSUM_LENGTH);
             return checksumBuffer.array();
         }
     };
@@ -0,0 +1,145 @@
+package mandioca.bitcoin.script;
+
+import mandioca.bitcoin.util.HashKeyTable;
+
+import static mandioca.bitcoin.address.AddressFactory.legacyAddressToHash;
+import static mandioca.bitcoin.script.Script.StandardScripts.*;
+import static mandioca.bitcoin.script.ScriptType.*;
+
+/**
+ * Matches scriptPubKeys against a watch-list of hash160s (P2PKH, P2SH and P2WPKH outputs) and 32 byte witness
+ * script hashes (P2WSH outputs), e.g., to scan the outputs of many blocks for the addresses of a wallet.
+ * <p>
+ * A scriptPubKey is classified by the {@link Script.StandardScripts} predicates, and the hash is looked up where it
+ * sits in the script, in a {@link HashKeyTable}:  no Script is parsed, no address string is encoded and no hash is
+ * copied.  The tables are sized for the maximum watch-list sizes when the matcher is created, so its memory is
+ * bounded:  21 bytes per hash160 slot and 33 bytes per witness script hash slot, at 1.33 to 2.67 slots per hash,
+ * plus 2 to 4 bytes per hash with the prefilter.
+ * <p>
+ * Adding to the watch-list is not thread safe;  once the watch-list is complete and the matcher is safely published,
+ * any number of threads can match scripts.
+ */
+public final class WatchListMatcher {
+
+    private static final int HASH160_LENGTH = 20;
+    private static final int WITNESS_SCRIPT_HASH_LENGTH = 32;
+
+    private final HashKeyTable hash160s;
+    private final HashKeyTable witnessScriptHashes;  // null if no witness script hashes are watched
+
+    /**
+     * Creates a matcher for up to maxHash160s hash160s and maxWitnessScriptHashes (possibly 0) witness script hashes,
+     * with or without a prefilter in front of each table.
+     */
+    public WatchListMatcher(int maxHash160s, int maxWitnessScriptHashes, boolean prefilter) {
+        if (maxWitnessScriptHashes < 0) {
+            throw new IllegalArgumentException("Negative number of witness script hashes " + maxWitnessScriptHashes);
+        }
+        this.hash160s = new HashKeyTable(HASH160_LENGTH, maxHash160s, prefilter);
+        this.witnessScriptHashes = maxWitnessScriptHashes == 0
+                ? null
+                : new HashKeyTable(WITNESS_SCRIPT_HASH_LENGTH, maxWitnessScriptHashes, prefilter);
+    }
+
+    /**
+     * Watches the outputs paying to the hash160 of a public key (P2PKH, P2WPKH) or of a redeem script (P2SH).
+     */
+    public boolean addHash160(byte[] hash160) {
+        return hash160s.add(hash160);
+    }
+
+    /**
+     * Watches the outputs paying to a base58 P2PKH or P2SH address.
+     */
+    public boolean addLegacyAddress(String address) {
+        return hash160s.add(legacyAddressToHash.apply(address));
+    }
+
+    /**
+     * Watches the P2WSH outputs paying to the SHA-256 of a witness script.
+     */
+    public boolean addWitnessScriptHash(byte[] witnessScriptHash) {
+        if (witnessScriptHashes == null) {
+            throw new IllegalStateException("Matcher has no room for witness script hashes");
+        }
+        return witnessScriptHashes.add(witnessScriptHash);
+    }
+
+    /**
+     * Returns the type of a serialized scriptPubKey, without its length prefix, if it pays to a watched hash, or null.
+     */
+    public ScriptType match(byte[] scriptPubKey) {
+        //  OP_DUP OP_HASH160 0x14 <hash160> OP_EQUALVERIFY OP_CHECKSIG
+        if (isP2pkhScriptPubKeyBytes.test(scriptPubKey)) {
+            return scriptPubKey[2] == HASH160_LENGTH && hash160s.contains(scriptPubKey, 3) ? P2PKH : null;
+        }
+        //  OP_HASH160 0x14 <hash160> OP_EQUAL
+        if (isP2shScriptPubKeyBytes.test(scriptPubKey)) {
+            return scriptPubKey[1] == HASH160_LENGTH && hash160s.contains(scriptPubKey, 2) ? P2SH : null;
+        }
+        //  OP_0 0x14 <hash160>
+        if (isP2wpkhScriptPubKeyBytes.test(scriptPubKey)) {
+            return hash160s.contains(scriptPubKey, 2) ? P2WPKH : null;
+        }
+        //  OP_0 0x20 <sha256>
+        if (isP2wshScriptPubKeyBytes.test(scriptPubKey)) {
+            return witnessScriptHashes != null && witnessScriptHashes.contains(scriptPubKey, 2) ? P2WSH : null;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the type of a parsed scriptPubKey if it pays to a watched hash, or null.
+     */
+    public ScriptType match(Script scriptPubKey) {
+        byte[][] cmds = scriptPubKey.getCmds();
+        if (isP2pkhScriptPubKey.test(scriptPubKey)) {
+            return hash160s.contains(cmds[2]) ? P2PKH : null;
+        }
+        if (isP2shScriptPubKey.test(scriptPubKey)) {
+            return hash160s.contains(cmds[1]) ? P2SH : null;
+        }
+        if (isP2wpkhScriptPubKey.test(scriptPubKey)) {
+            return hash160s.contains(cmds[1]) ? P2WPKH : null;
+        }
+        if (isP2wshScriptPubKey.test(scriptPubKey)) {
+            return witnessScriptHashes != null && witnessScriptHashes.contains(cmds[1]) ? P2WSH : null;
+        }
+        return null;
+    }
+
+    /**
+     * Matches each serialized scriptPubKey, without its length prefix, setting its match (or null) in matches.
+     *
+     * @return the number of scriptPubKeys that pay to a watched hash
+     */
+    public int matchAll(byte[][] scriptPubKeys, ScriptType[] matches) {
+        if (matches.length < scriptPubKeys.length) {
+            throw new IllegalArgumentException("No room for " + scriptPubKeys.length + " matches in "
+                    + matches.length + " results");
+        }
+        int count = 0;
+        for (int i = 0; i < scriptPubKeys.length; i++) {
+            matches[i] = match(scriptPubKeys[i]);
+            if (matches[i] != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getHash160Count() {
+        return hash160s.size();
+    }
+
+    public int getWitnessScriptHashCount() {
+        return witnessScriptHashes == null ? 0 : witnessScriptHashes.size();
+    }
+
+    /**
+     * Returns the number of bytes of the matcher's tables, which is fixed when the matcher is created.
+     */
+    public long getMemoryBytes() {
+        return hash160s.getMemoryBytes() + (witnessScriptHashes == null ? 0 : witnessScriptHashes.getMemoryBytes());
+    }
+}
@@ -7,14 +7,13 @@ import mandioca.bitcoin.ecc.Signature;
 import mandioca.bitcoin.stack.Stack;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
-import static java.lang.System.arraycopy;
 import static mandioca.bitcoin.function.HashFunctions.*;
 import static mandioca.bitcoin.script.processing.FlowControlOpFunctions.opVerify;
 import static mandioca.bitcoin.stack.Stack.stackIsNotEmpty;
@@ -23,6 +22,10 @@ import static mandioca.bitcoin.stack.Stack.stackIsNotEmpty;
 
 class CryptoOpFunctions extends AbstractOpFunctions {
 
+    // The DER signature in a stack element, without its last (hash_type) byte, wrapped instead of copied.
+    private static final Function<byte[], ByteBuffer> derSignature = (element) ->
+            ByteBuffer.wrap(element, 0, element.length - 1);
+
     static final Function<Stack, Boolean> opRipemd160 = (s) -> {
         // The input is hashed using RIPEMD-160
         // def op_ripemd160(stack):
@@ -120,10 +123,9 @@ class CryptoOpFunctions extends AbstractOpFunctions {
         if (stackIsNotEmpty.apply(s) && s.size() >= 2) {
             try {
                 byte[] sec = s.pop();                   // top element of the stack is the SEC pubkey
-                int derLength = s.peek().length - 1;    // next element of the stack is the DER signature
-                byte[] der = Arrays.copyOfRange(s.pop(), 0, derLength); // ignored last byte of der (the hash_type)
+                byte[] element = s.pop();               // next element of the stack is the DER signature
                 Secp256k1Point point = Secp256k1Point.parse(sec);   // parse the serialized pubkey
-                Signature signature = Signature.parse(der);         // parse the serialized signature
+                Signature signature = Signature.parse(derSignature.apply(element));  // parse the serialized signature
                 if (point.verify(z, signature)) {
                     s.push(ENC_1);
                 } else {
@@ -169,11 +171,9 @@ class CryptoOpFunctions extends AbstractOpFunctions {
             if (s.size() < m + 1) {
                 return false;
             }
-            final byte[][] derSignatures = new byte[m][];
+            final ByteBuffer[] derSignatures = new ByteBuffer[m];
             for (int i = 0; i < m; i++) {
-                byte[] der = new byte[s.peek().length - 1];  // signature is assumed to be using SIGHASH_ALL
-                arraycopy(s.pop(), 0, der, 0, der.length);
-                derSignatures[i] = der;
+                derSignatures[i] = derSignature.apply(s.pop());  // signature is assumed to be using SIGHASH_ALL
             }
 
             // pop OP_CHECKMULTISIG bug element 0, and check value = 0
@@ -0,0 +1,214 @@
+package mandioca.bitcoin.util;
+
+import java.util.Arrays;
+
+/**
+ * A set of fixed length hash keys, e.g., 20 byte hash160s, for membership tests of millions of keys in bounded memory.
+ * <p>
+ * The keys are stored back to back in one flat byte array, in an open addressing table with linear probing, sized
+ * for maxKeys when the table is created;  there are no objects per key.  Each slot has a tag byte, 0 for an empty
+ * slot or 7 bits of the key's hash, so a probe only compares the keys of slots with matching tags.  The keys are
+ * expected to be hash function outputs, so their first 8 bytes are mixed into the slot index instead of hashing the
+ * whole key.
+ * <p>
+ * The optional prefilter is a bitmap of PREFILTER_BITS_PER_KEY bits per key, in which each key sets 2 bits taken from
+ * its bytes 8 to 15.  At least 98.5% of the lookups of absent keys are answered from the bitmap, which is small
+ * enough to stay in the CPU caches, without touching the table.
+ * <p>
+ * Adding keys is not thread safe;  once all keys are added and the table is safely published, any number of threads
+ * can look keys up.
+ */
+public final class HashKeyTable {
+
+    static final int MIN_KEY_LENGTH = 16;          // 8 bytes for the slot index, 8 for the prefilter
+    static final int PREFILTER_BITS_PER_KEY = 16;
+    private static final double MAX_LOAD_FACTOR = 0.75;
+    private static final long GOLDEN_RATIO = 0x9e3779b97f4a7c15L;
+    private static final byte EMPTY = 0;
+
+    private final int keyLength;
+    private final int maxKeys;
+    private final int mask;
+    private final byte[] tags;
+    private final byte[] keys;
+    private final long[] prefilter;     // null if the table has no prefilter
+    private final int prefilterMask;
+    private int size;
+
+    /**
+     * Creates a table for up to maxKeys keys of keyLength bytes, with or without a prefilter.
+     */
+    public HashKeyTable(int keyLength, int maxKeys, boolean prefilter) {
+        if (keyLength < MIN_KEY_LENGTH) {
+            throw new IllegalArgumentException("Key length " + keyLength + " is less than " + MIN_KEY_LENGTH + " bytes");
+        }
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("Table needs room for at least 1 key, not " + maxKeys);
+        }
+        int slots = powerOfTwoAtLeast((long) Math.ceil(maxKeys / MAX_LOAD_FACTOR));
+        if ((long) slots * keyLength > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Table for " + maxKeys + " keys of " + keyLength
+                    + " bytes does not fit in an array");
+        }
+        this.keyLength = keyLength;
+        this.maxKeys = maxKeys;
+        this.mask = slots - 1;
+        this.tags = new byte[slots];
+        this.keys = new byte[slots * keyLength];
+        if (prefilter) {
+            int bits = powerOfTwoAtLeast((long) maxKeys * PREFILTER_BITS_PER_KEY);
+            this.prefilter = new long[Math.max(1, bits / Long.SIZE)];
+            this.prefilterMask = bits - 1;
+        } else {
+            this.prefilter = null;
+            this.prefilterMask = 0;
+        }
+    }
+
+    /**
+     * Adds the key, returning false if the table already contains it.
+     *
+     * @throws IllegalStateException if the table already has maxKeys keys
+     */
+    public boolean add(byte[] key) {
+        if (key.length != keyLength) {
+            throw new IllegalArgumentException("Key length " + key.length + " is not " + keyLength + " bytes");
+        }
+        return add(key, 0);
+    }
+
+    /**
+     * Adds the key of keyLength bytes at the offset of src, returning false if the table already contains it.
+     *
+     * @throws IllegalStateException if the table already has maxKeys keys
+     */
+    public boolean add(byte[] src, int offset) {
+        checkKey(src, offset);
+        long hash = mix(src, offset);
+        byte tag = tag(hash);
+        for (int slot = slot(hash); ; slot = (slot + 1) & mask) {
+            byte t = tags[slot];
+            if (t == EMPTY) {
+                if (size == maxKeys) {
+                    throw new IllegalStateException("Table is full with " + maxKeys + " keys");
+                }
+                tags[slot] = tag;
+                System.arraycopy(src, offset, keys, slot * keyLength, keyLength);
+                if (prefilter != null) {
+                    long bits = prefilterBits(src, offset);
+                    setBit((int) bits);
+                    setBit((int) (bits >>> 32));
+                }
+                size++;
+                return true;
+            }
+            if (t == tag && keyEquals(slot, src, offset)) {
+                return false;
+            }
+        }
+    }
+
+    public boolean contains(byte[] key) {
+        return key.length == keyLength && contains(key, 0);
+    }
+
+    /**
+     * Returns true if the table contains the key of keyLength bytes at the offset of src.  The key is not copied.
+     */
+    public boolean contains(byte[] src, int offset) {
+        checkKey(src, offset);
+        if (prefilter != null) {
+            long bits = prefilterBits(src, offset);
+            if (!isBitSet((int) bits) || !isBitSet((int) (bits >>> 32))) {
+                return false;
+            }
+        }
+        long hash = mix(src, offset);
+        byte tag = tag(hash);
+        for (int slot = slot(hash); ; slot = (slot + 1) & mask) {
+            byte t = tags[slot];
+            if (t == EMPTY) {
+                return false;
+            }
+            if (t == tag && keyEquals(slot, src, offset)) {
+                return true;
+            }
+        }
+    }
+
+    public int getKeyLength() {
+        return keyLength;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public boolean hasPrefilter() {
+        return prefilter != null;
+    }
+
+    /**
+     * Returns the number of bytes of the table's arrays, which is fixed when the table is created.
+     */
+    public long getMemoryBytes() {
+        return tags.length + (long) keys.length + (prefilter == null ? 0 : (long) prefilter.length * Long.BYTES);
+    }
+
+    private void checkKey(byte[] src, int offset) {
+        if (offset < 0 || offset > src.length - keyLength) {
+            throw new IllegalArgumentException("No " + keyLength + " byte key at offset " + offset
+                    + " of " + src.length + " bytes");
+        }
+    }
+
+    private boolean keyEquals(int slot, byte[] src, int offset) {
+        int from = slot * keyLength;
+        return Arrays.equals(keys, from, from + keyLength, src, offset, offset + keyLength);
+    }
+
+    private int slot(long hash) {
+        return (int) (hash >>> 32) & mask;
+    }
+
+    // 7 bits of the hash not used by the slot index of a table of up to 2^31 slots, never 0 (EMPTY).
+    private static byte tag(long hash) {
+        return (byte) ((hash >>> 1) | 0x80);
+    }
+
+    private static long mix(byte[] src, int offset) {
+        return readLong(src, offset) * GOLDEN_RATIO;
+    }
+
+    private long prefilterBits(byte[] src, int offset) {
+        long bits = readLong(src, offset + 8);
+        return (bits & prefilterMask) | ((bits >>> 32) & prefilterMask) << 32;
+    }
+
+    private void setBit(int bit) {
+        prefilter[bit >>> 6] |= 1L << bit;
+    }
+
+    private boolean isBitSet(int bit) {
+        return (prefilter[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private static long readLong(byte[] src, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (src[offset + i] & 0xff);
+        }
+        return value;
+    }
+
+    private static int powerOfTwoAtLeast(long n) {
+        if (n > 1 << 30) {
+            throw new IllegalArgumentException("Table of " + n + " slots or bits is too large");
+        }
+        return n <= 1 ? 1 : Integer.highestOneBit((int) n - 1) << 1;
+    }
+}
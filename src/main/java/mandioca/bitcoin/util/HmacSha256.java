@@ -0,0 +1,86 @@
+package mandioca.bitcoin.util;
+
+import java.util.Arrays;
+
+/**
+ * HMAC-SHA256 over reusable buffers.
+ * <p>
+ * {@link #init(byte[], int, int)} hashes the key's inner (0x36) and outer (0x5c) pad blocks once, and every MAC
+ * computed with that key resumes from those precomputed {@link Sha256} states:  an HMAC of a short message costs two
+ * SHA-256 compressions instead of four, and nothing is allocated after construction.  Like
+ * {@link javax.crypto.Mac}, {@link #doFinal(byte[], int)} leaves the instance ready for another MAC with the same key.
+ * <p>
+ * Instances are not thread safe.
+ * <p>
+ * See https://tools.ietf.org/html/rfc2104
+ */
+public final class HmacSha256 {
+
+    public static final int MAC_LEN = Sha256.DIGEST_LEN;
+
+    private final Sha256 innerPadState = new Sha256();
+    private final Sha256 outerPadState = new Sha256();
+    private final Sha256 inner = new Sha256();
+    private final Sha256 outer = new Sha256();
+    private final byte[] pad = new byte[Sha256.BLOCK_LEN];
+    private final byte[] innerDigest = new byte[Sha256.DIGEST_LEN];
+
+    public HmacSha256 init(byte[] key) {
+        return init(key, 0, key.length);
+    }
+
+    /**
+     * Sets the key, precomputing its pad states;  the key bytes are not retained.
+     */
+    public HmacSha256 init(byte[] key, int offset, int len) {
+        if (len > Sha256.BLOCK_LEN) {
+            inner.reset().update(key, offset, len).digest(pad, 0);
+            Arrays.fill(pad, Sha256.DIGEST_LEN, pad.length, (byte) 0);
+        } else {
+            System.arraycopy(key, offset, pad, 0, len);
+            Arrays.fill(pad, len, pad.length, (byte) 0);
+        }
+        for (int i = 0; i < pad.length; i++) {
+            pad[i] ^= 0x36;
+        }
+        innerPadState.reset().update(pad);
+        for (int i = 0; i < pad.length; i++) {
+            pad[i] ^= 0x36 ^ 0x5c;
+        }
+        outerPadState.reset().update(pad);
+        Arrays.fill(pad, (byte) 0);
+        inner.set(innerPadState);
+        return this;
+    }
+
+    public HmacSha256 update(byte b) {
+        inner.update(b);
+        return this;
+    }
+
+    public HmacSha256 update(byte[] bytes) {
+        inner.update(bytes);
+        return this;
+    }
+
+    public HmacSha256 update(byte[] bytes, int offset, int len) {
+        inner.update(bytes, offset, len);
+        return this;
+    }
+
+    /**
+     * Writes the 32 byte MAC to dest[offset], and resets this instance for another MAC with the same key.  The
+     * destination may be the key or message array of this MAC.
+     */
+    public void doFinal(byte[] dest, int offset) {
+        inner.digest(innerDigest, 0);
+        outer.set(outerPadState).update(innerDigest).digest(dest, offset);
+        inner.set(innerPadState);
+    }
+
+    public byte[] doFinal() {
+        byte[] mac = new byte[MAC_LEN];
+        doFinal(mac, 0);
+        return mac;
+    }
+}
@@ -15,13 +15,17 @@ import static java.lang.Integer.rotateLeft;
 import static mandioca.bitcoin.function.ByteArrayFunctions.MASK_0xFF;
 
 /**
- * Computes the RIPEMD-160 hash of an array of bytes. Not instantiable.
+ * Computes the RIPEMD-160 hash of a message, incrementally on reusable buffers like {@link Sha256}:  once constructed,
+ * updating and finishing a digest allocates nothing.  Instances are not thread safe.
  * <p>
  * Stolen from https://github.com/nayuki/Bitcoin-Cryptography-Library/blob/master/java/io/nayuki/bitcoin/crypto/Ripemd160.java
  */
 public final class Ripemd160 {
 
-    private static final int BLOCK_LEN = 64;  // In bytes
+    public static final int BLOCK_LEN = 64;   // In bytes
+    public static final int DIGEST_LEN = 20;  // In bytes
+
+    private static final int[] INITIAL_STATE = {0x67452301, 0xEFCDAB89, 0x98BADCFE, 0x10325476, 0xC3D2E1F0};
 
 
     /*---- Static functions ----*/
@@ -58,8 +62,15 @@ public final class Ripemd160 {
             15, 5, 8, 11, 14, 14, 6, 14, 6, 9, 12, 9, 12, 5, 15, 8,
             8, 5, 12, 9, 12, 5, 14, 6, 8, 13, 6, 5, 15, 13, 11, 11};
 
-    private Ripemd160() {
-    }  // Not instantiable
+    private final int[] state = new int[5];
+    private final int[] schedule = new int[16];
+    private final byte[] block = new byte[BLOCK_LEN];
+    private int blockLength;  // number of buffered bytes in block
+    private long length;      // total number of bytes hashed
+
+    public Ripemd160() {
+        reset();
+    }
 
     /**
      * Computes and returns a 20-byte (160-bit) hash of the specified binary message. Each call will return a new byte
@@ -70,74 +81,122 @@ public final class Ripemd160 {
      * @throws NullPointerException if the message is {@code null}
      */
     public static byte[] getHash(byte[] msg) {
-        // Compress whole message blocks
         Objects.requireNonNull(msg);
-        int[] state = {0x67452301, 0xEFCDAB89, 0x98BADCFE, 0x10325476, 0xC3D2E1F0};
-        int off = msg.length / BLOCK_LEN * BLOCK_LEN;
-        compress(state, msg, off);
-
-        // Final blocks, padding, and length
-        byte[] block = new byte[BLOCK_LEN];
-        System.arraycopy(msg, off, block, 0, msg.length - off);
-        off = msg.length % block.length;
-        block[off] = (byte) 0x80;
-        off++;
-        if (off + 8 > block.length) {
-            compress(state, block, block.length);
-            Arrays.fill(block, (byte) 0);
+        return new Ripemd160().update(msg).digest();
+    }
+
+    public Ripemd160 reset() {
+        System.arraycopy(INITIAL_STATE, 0, state, 0, state.length);
+        blockLength = 0;
+        length = 0;
+        return this;
+    }
+
+    public Ripemd160 update(byte b) {
+        block[blockLength++] = b;
+        length++;
+        if (blockLength == BLOCK_LEN) {
+            compress(block, 0);
+            blockLength = 0;
         }
-        long len = (long) msg.length << 3;
-        for (int i = 0; i < 8; i++)
-            block[block.length - 8 + i] = (byte) (len >>> (i * 8));
-        compress(state, block, block.length);
-
-        // Int32 array to bytes in little endian
-        byte[] result = new byte[state.length * 4];
-        for (int i = 0; i < result.length; i++)
-            result[i] = (byte) (state[i / 4] >>> (i % 4 * 8));
-        return result;
+        return this;
+    }
+
+    public Ripemd160 update(byte[] bytes) {
+        return update(bytes, 0, bytes.length);
     }
 
-    private static void compress(int[] state, byte[] blocks, int len) {
-        if (len % BLOCK_LEN != 0)
-            throw new IllegalArgumentException();
-        for (int i = 0; i < len; i += BLOCK_LEN) {
-
-            // Message schedule
-            int[] schedule = new int[16];
-            for (int j = 0; j < BLOCK_LEN; j++)
-                schedule[j / 4] |= (blocks[i + j] & MASK_0xFF) << (j % 4 * 8);
-
-            // The 80 rounds
-            int al = state[0], ar = state[0];
-            int bl = state[1], br = state[1];
-            int cl = state[2], cr = state[2];
-            int dl = state[3], dr = state[3];
-            int el = state[4], er = state[4];
-            for (int j = 0; j < 80; j++) {
-                int temp;
-                temp = rotateLeft(al + f(j, bl, cl, dl) + schedule[RL[j]] + KL[j / 16], SL[j]) + el;
-                al = el;
-                el = dl;
-                dl = rotateLeft(cl, 10);
-                cl = bl;
-                bl = temp;
-                temp = rotateLeft(ar + f(79 - j, br, cr, dr) + schedule[RR[j]] + KR[j / 16], SR[j]) + er;
-                ar = er;
-                er = dr;
-                dr = rotateLeft(cr, 10);
-                cr = br;
-                br = temp;
+    public Ripemd160 update(byte[] bytes, int offset, int len) {
+        if (offset < 0 || len < 0 || offset + len > bytes.length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + len) + ") out of bounds for length " + bytes.length);
+        }
+        length += len;
+        if (blockLength > 0) {
+            int n = Math.min(len, BLOCK_LEN - blockLength);
+            System.arraycopy(bytes, offset, block, blockLength, n);
+            blockLength += n;
+            offset += n;
+            len -= n;
+            if (blockLength < BLOCK_LEN) {
+                return this;
             }
-            int temp = state[1] + cl + dr;
-            state[1] = state[2] + dl + er;
-            state[2] = state[3] + el + ar;
-            state[3] = state[4] + al + br;
-            state[4] = state[0] + bl + cr;
-            state[0] = temp;
+            compress(block, 0);
+            blockLength = 0;
+        }
+        while (len >= BLOCK_LEN) {
+            compress(bytes, offset);  // whole blocks are hashed in place, without copying
+            offset += BLOCK_LEN;
+            len -= BLOCK_LEN;
+        }
+        System.arraycopy(bytes, offset, block, 0, len);
+        blockLength = len;
+        return this;
+    }
+
+    /**
+     * Writes the 20 byte digest to dest[offset], and resets this hasher.
+     */
+    public void digest(byte[] dest, int offset) {
+        long bitLength = length << 3;
+        block[blockLength++] = (byte) 0x80;
+        if (blockLength > BLOCK_LEN - 8) {
+            Arrays.fill(block, blockLength, BLOCK_LEN, (byte) 0);
+            compress(block, 0);
+            blockLength = 0;
+        }
+        Arrays.fill(block, blockLength, BLOCK_LEN - 8, (byte) 0);
+        for (int i = 0; i < 8; i++) {
+            block[BLOCK_LEN - 8 + i] = (byte) (bitLength >>> (i * 8));  // little endian
+        }
+        compress(block, 0);
+        for (int i = 0; i < DIGEST_LEN; i++) {
+            dest[offset + i] = (byte) (state[i / 4] >>> (i % 4 * 8));    // little endian
         }
+        reset();
     }
 
+    public byte[] digest() {
+        byte[] digest = new byte[DIGEST_LEN];
+        digest(digest, 0);
+        return digest;
+    }
+
+    private void compress(byte[] bytes, int offset) {
+        // Message schedule
+        int[] schedule = this.schedule;
+        for (int j = 0; j < 16; j++, offset += 4) {
+            schedule[j] = (bytes[offset] & MASK_0xFF) | (bytes[offset + 1] & MASK_0xFF) << 8
+                    | (bytes[offset + 2] & MASK_0xFF) << 16 | bytes[offset + 3] << 24;
+        }
+
+        // The 80 rounds
+        int al = state[0], ar = state[0];
+        int bl = state[1], br = state[1];
+        int cl = state[2], cr = state[2];
+        int dl = state[3], dr = state[3];
+        int el = state[4], er = state[4];
+        for (int j = 0; j < 80; j++) {
+            int temp;
+            temp = rotateLeft(al + f(j, bl, cl, dl) + schedule[RL[j]] + KL[j / 16], SL[j]) + el;
+            al = el;
+            el = dl;
+            dl = rotateLeft(cl, 10);
+            cl = bl;
+            bl = temp;
+            temp = rotateLeft(ar + f(79 - j, br, cr, dr) + schedule[RR[j]] + KR[j / 16], SR[j]) + er;
+            ar = er;
+            er = dr;
+            dr = rotateLeft(cr, 10);
+            cr = br;
+            br = temp;
+        }
+        int temp = state[1] + cl + dr;
+        state[1] = state[2] + dl + er;
+        state[2] = state[3] + el + ar;
+        state[3] = state[4] + al + br;
+        state[4] = state[0] + bl + cr;
+        state[0] = temp;
+    }
 
 
     /*---- Miscellaneous ----*/
@@ -0,0 +1,176 @@
+package mandioca.bitcoin.util;
+
+import java.util.Arrays;
+
+import static java.lang.Integer.rotateRight;
+
+/**
+ * An incremental SHA-256 hasher that works on reusable buffers:  once constructed, updating and finishing a digest
+ * allocates nothing.  Unlike {@link java.security.MessageDigest}, the intermediate state of a hasher can be copied
+ * into another with {@link #set(Sha256)}, so the state after a common prefix (e.g., an HMAC key pad, or the first
+ * block of a block header) can be computed once and resumed many times.
+ * <p>
+ * Instances are not thread safe.
+ * <p>
+ * See https://nvlpubs.nist.gov/nistpubs/FIPS/NIST.FIPS.180-4.pdf
+ */
+public final class Sha256 {
+
+    public static final int BLOCK_LEN = 64;   // In bytes
+    public static final int DIGEST_LEN = 32;  // In bytes
+
+    private static final int[] INITIAL_STATE = {
+            0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a, 0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19};
+
+    private static final int[] K = {
+            0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+            0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+            0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+            0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+            0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+            0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+            0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+            0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2};
+
+    private final int[] state = new int[8];
+    private final int[] schedule = new int[64];
+    private final byte[] block = new byte[BLOCK_LEN];
+    private int blockLength;  // number of buffered bytes in block
+    private long length;      // total number of bytes hashed
+
+    public Sha256() {
+        reset();
+    }
+
+    /**
+     * Returns the SHA-256 hash of the bytes.
+     */
+    public static byte[] hash(byte[] bytes) {
+        return new Sha256().update(bytes).digest();
+    }
+
+    public Sha256 reset() {
+        System.arraycopy(INITIAL_STATE, 0, state, 0, state.length);
+        blockLength = 0;
+        length = 0;
+        return this;
+    }
+
+    /**
+     * Copies the intermediate state of another hasher into this one.
+     */
+    public Sha256 set(Sha256 other) {
+        System.arraycopy(other.state, 0, state, 0, state.length);
+        System.arraycopy(other.block, 0, block, 0, other.blockLength);
+        blockLength = other.blockLength;
+        length = other.length;
+        return this;
+    }
+
+    public Sha256 update(byte b) {
+        block[blockLength++] = b;
+        length++;
+        if (blockLength == BLOCK_LEN) {
+            compress(block, 0);
+            blockLength = 0;
+        }
+        return this;
+    }
+
+    public Sha256 update(byte[] bytes) {
+        return update(bytes, 0, bytes.length);
+    }
+
+    public Sha256 update(byte[] bytes, int offset, int len) {
+        if (offset < 0 || len < 0 || offset + len > bytes.length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + len) + ") out of bounds for length " + bytes.length);
+        }
+        length += len;
+        if (blockLength > 0) {
+            int n = Math.min(len, BLOCK_LEN - blockLength);
+            System.arraycopy(bytes, offset, block, blockLength, n);
+            blockLength += n;
+            offset += n;
+            len -= n;
+            if (blockLength < BLOCK_LEN) {
+                return this;
+            }
+            compress(block, 0);
+            blockLength = 0;
+        }
+        while (len >= BLOCK_LEN) {
+            compress(bytes, offset);  // whole blocks are hashed in place, without copying
+            offset += BLOCK_LEN;
+            len -= BLOCK_LEN;
+        }
+        System.arraycopy(bytes, offset, block, 0, len);
+        blockLength = len;
+        return this;
+    }
+
+    /**
+     * Writes the 32 byte digest to dest[offset], and resets this hasher.
+     */
+    public void digest(byte[] dest, int offset) {
+        long bitLength = length << 3;
+        block[blockLength++] = (byte) 0x80;
+        if (blockLength > BLOCK_LEN - 8) {
+            Arrays.fill(block, blockLength, BLOCK_LEN, (byte) 0);
+            compress(block, 0);
+            blockLength = 0;
+        }
+        Arrays.fill(block, blockLength, BLOCK_LEN - 8, (byte) 0);
+        for (int i = 0; i < 8; i++) {
+            block[BLOCK_LEN - 1 - i] = (byte) (bitLength >>> (i * 8));
+        }
+        compress(block, 0);
+        for (int i = 0; i < state.length; i++) {
+            int word = state[i];
+            dest[offset + i * 4] = (byte) (word >>> 24);
+            dest[offset + i * 4 + 1] = (byte) (word >>> 16);
+            dest[offset + i * 4 + 2] = (byte) (word >>> 8);
+            dest[offset + i * 4 + 3] = (byte) word;
+        }
+        reset();
+    }
+
+    public byte[] digest() {
+        byte[] digest = new byte[DIGEST_LEN];
+        digest(digest, 0);
+        return digest;
+    }
+
+    private void compress(byte[] bytes, int offset) {
+        int[] w = schedule;
+        for (int i = 0; i < 16; i++, offset += 4) {
+            w[i] = bytes[offset] << 24 | (bytes[offset + 1] & 0xff) << 16 | (bytes[offset + 2] & 0xff) << 8 | (bytes[offset + 3] & 0xff);
+        }
+        for (int i = 16; i < 64; i++) {
+            int s0 = rotateRight(w[i - 15], 7) ^ rotateRight(w[i - 15], 18) ^ (w[i - 15] >>> 3);
+            int s1 = rotateRight(w[i - 2], 17) ^ rotateRight(w[i - 2], 19) ^ (w[i - 2] >>> 10);
+            w[i] = w[i - 16] + s0 + w[i - 7] + s1;
+        }
+        int a = state[0], b = state[1], c = state[2], d = state[3];
+        int e = state[4], f = state[5], g = state[6], h = state[7];
+        for (int i = 0; i < 64; i++) {
+            int t1 = h + (rotateRight(e, 6) ^ rotateRight(e, 11) ^ rotateRight(e, 25)) + ((e & f) ^ (~e & g)) + K[i] + w[i];
+            int t2 = (rotateRight(a, 2) ^ rotateRight(a, 13) ^ rotateRight(a, 22)) + ((a & b) ^ (a & c) ^ (b & c));
+            h = g;
+            g = f;
+            f = e;
+            e = d + t1;
+            d = c;
+            c = b;
+            b = a;
+            a = t1 + t2;
+        }
+        state[0] += a;
+        state[1] += b;
+        state[2] += c;
+        state[3] += d;
+        state[4] += e;
+        state[5] += f;
+        state[6] += g;
+        state[7] += h;
+    }
+}
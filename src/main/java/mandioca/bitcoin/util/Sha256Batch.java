@@ -0,0 +1,37 @@
+package mandioca.bitcoin.util;
+
+/**
+ * Double SHA-256 hashes of batches of independent messages, e.g., the pairs of a merkle tree level, or a chain of
+ * block headers.
+ * <p>
+ * There are two backends:  {@link Sha256ScalarBatch} hashes one message at a time with the thread's MessageDigest
+ * (backed by the JVM's SHA-256 intrinsics where the CPU has SHA extensions), and {@link Sha256VectorBatch} hashes 8
+ * or 16 messages at a time, one per SIMD lane of the (incubating) Vector API.  The vector backend is used when the
+ * JVM was started with -Dsha256.vector.enabled=true and --add-modules jdk.incubator.vector;  otherwise the scalar
+ * backend is, which is faster on CPUs with SHA extensions.  The choice is independent of the secp256k1 field backend.
+ */
+public interface Sha256Batch {
+
+    String PROPERTY_VECTOR_ENABLED = "sha256.vector.enabled";
+
+    /**
+     * Writes the 32 byte double SHA-256 hash of each in[i] to out[i][0].
+     *
+     * @throws IllegalArgumentException if the arrays' lengths differ, or an out[i] has room for less than 32 bytes
+     */
+    void hash256All(byte[][] in, byte[][] out);
+
+    static Sha256Batch getDefault() {
+        return DefaultBatchHolder.DEFAULT_BATCH;
+    }
+
+    static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    class DefaultBatchHolder {
+        private static final Sha256Batch DEFAULT_BATCH = Boolean.getBoolean(PROPERTY_VECTOR_ENABLED) && isVectorApiAvailable()
+                ? new Sha256VectorBatch()
+                : Sha256ScalarBatch.INSTANCE;
+    }
+}
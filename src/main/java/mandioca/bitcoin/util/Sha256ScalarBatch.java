@@ -0,0 +1,35 @@
+package mandioca.bitcoin.util;
+
+import static mandioca.bitcoin.function.HashFunctions.hash256Into;
+
+/**
+ * The {@link Sha256Batch} backend that hashes one message at a time, with the thread's MessageDigest.
+ */
+final class Sha256ScalarBatch implements Sha256Batch {
+
+    static final Sha256ScalarBatch INSTANCE = new Sha256ScalarBatch();
+
+    private Sha256ScalarBatch() {
+    }
+
+    @Override
+    public void hash256All(byte[][] in, byte[][] out) {
+        checkBatch(in, out);
+        for (int i = 0; i < in.length; i++) {
+            hash256Into.accept(in[i], out[i], 0);
+        }
+    }
+
+    // Checked before anything is hashed, so a bad batch leaves every destination untouched.
+    static void checkBatch(byte[][] in, byte[][] out) {
+        if (in.length != out.length) {
+            throw new IllegalArgumentException("Batch of " + in.length + " messages has " + out.length + " hash destinations");
+        }
+        for (int i = 0; i < out.length; i++) {
+            if (out[i].length < Sha256.DIGEST_LEN) {
+                throw new IllegalArgumentException("No room for a 32 byte hash in destination " + i
+                        + " of " + out[i].length + " bytes");
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package mandioca.bitcoin.util;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import static jdk.incubator.vector.VectorOperators.*;
+import static mandioca.bitcoin.util.Sha256ScalarBatch.checkBatch;
+
+/**
+ * The {@link Sha256Batch} backend that hashes LANES independent messages at a time, one per SIMD lane of the
+ * incubating Vector API (8 lanes with AVX2, 16 with AVX-512).  Batches too small to fill two rows of lanes are left
+ * to {@link Sha256ScalarBatch}.
+ * <p>
+ * A row of LANES messages is hashed block by block:  the padded words of block b of every message are transposed
+ * into a words array, word t of lane j at words[t * LANES + j], so that a vector load reads the same word of every
+ * message, and the eight working variables of all lanes are compressed together.  Messages of a row may have
+ * different block counts;  a lane's state is only updated while it has blocks left.  The second hash of a lane, of
+ * its 32 byte first hash, is a single block whose message words are the first hash's state words, so it is
+ * compressed straight from the state vectors, without storing and padding the first hash.
+ */
+final class Sha256VectorBatch implements Sha256Batch {
+
+    static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    static final int LANES = SPECIES.length();
+
+    private static final int[] INITIAL_STATE = {
+            0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a, 0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19};
+
+    private static final int[] K = {
+            0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+            0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+            0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+            0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+            0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+            0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+            0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+            0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2};
+
+    private static final Sha256ScalarBatch SCALAR = Sha256ScalarBatch.INSTANCE;
+
+    @Override
+    public void hash256All(byte[][] in, byte[][] out) {
+        if (in.length < 2 * LANES) {
+            SCALAR.hash256All(in, out);
+            return;
+        }
+        checkBatch(in, out);
+        int[] words = new int[16 * LANES];
+        int[] blockCounts = new int[LANES];
+        IntVector[] state = new IntVector[8];
+        IntVector[] schedule = new IntVector[64];
+        for (int from = 0; from < in.length; from += LANES) {
+            hashRow(in, out, from, Math.min(LANES, in.length - from), words, blockCounts, state, schedule);
+        }
+    }
+
+    private static void hashRow(byte[][] in, byte[][] out, int from, int count,
+                                int[] words, int[] blockCounts, IntVector[] state, IntVector[] schedule) {
+        int maxBlocks = 0;
+        for (int lane = 0; lane < LANES; lane++) {
+            blockCounts[lane] = lane < count ? blockCount(in[from + lane].length) : 0;  // idle lanes hash nothing
+            maxBlocks = Math.max(maxBlocks, blockCounts[lane]);
+        }
+        IntVector remainingBlocks = IntVector.fromArray(SPECIES, blockCounts, 0);
+        reset(state);
+        for (int block = 0; block < maxBlocks; block++) {
+            for (int lane = 0; lane < count; lane++) {
+                if (block < blockCounts[lane]) {
+                    loadBlock(in[from + lane], block, blockCounts[lane], words, lane);
+                }
+            }
+            for (int t = 0; t < 16; t++) {
+                schedule[t] = IntVector.fromArray(SPECIES, words, t * LANES);
+            }
+            compress(state, schedule, remainingBlocks.compare(GT, block));
+        }
+
+        // The second hash, of the 32 byte first hash:  its state words, 0x80 padding, and a 256 bit length.
+        System.arraycopy(state, 0, schedule, 0, 8);
+        schedule[8] = IntVector.broadcast(SPECIES, 0x80000000);
+        for (int t = 9; t < 15; t++) {
+            schedule[t] = IntVector.zero(SPECIES);
+        }
+        schedule[15] = IntVector.broadcast(SPECIES, 256);
+        reset(state);
+        compress(state, schedule, SPECIES.maskAll(true));
+
+        for (int k = 0; k < 8; k++) {
+            state[k].intoArray(words, k * LANES);
+        }
+        for (int lane = 0; lane < count; lane++) {
+            byte[] hash = out[from + lane];
+            for (int k = 0; k < 8; k++) {
+                int word = words[k * LANES + lane];
+                hash[k * 4] = (byte) (word >>> 24);
+                hash[k * 4 + 1] = (byte) (word >>> 16);
+                hash[k * 4 + 2] = (byte) (word >>> 8);
+                hash[k * 4 + 3] = (byte) word;
+            }
+        }
+    }
+
+    private static void reset(IntVector[] state) {
+        for (int k = 0; k < 8; k++) {
+            state[k] = IntVector.broadcast(SPECIES, INITIAL_STATE[k]);
+        }
+    }
+
+    // Compresses one block into the state of the active lanes;  schedule[0..15] holds the block's words.
+    private static void compress(IntVector[] state, IntVector[] w, VectorMask<Integer> active) {
+        for (int i = 16; i < 64; i++) {
+            IntVector w15 = w[i - 15];
+            IntVector w2 = w[i - 2];
+            IntVector s0 = w15.lanewise(ROR, 7).lanewise(XOR, w15.lanewise(ROR, 18)).lanewise(XOR, w15.lanewise(LSHR, 3));
+            IntVector s1 = w2.lanewise(ROR, 17).lanewise(XOR, w2.lanewise(ROR, 19)).lanewise(XOR, w2.lanewise(LSHR, 10));
+            w[i] = w[i - 16].add(s0).add(w[i - 7]).add(s1);
+        }
+        IntVector a = state[0], b = state[1], c = state[2], d = state[3];
+        IntVector e = state[4], f = state[5], g = state[6], h = state[7];
+        for (int i = 0; i < 64; i++) {
+            IntVector s1 = e.lanewise(ROR, 6).lanewise(XOR, e.lanewise(ROR, 11)).lanewise(XOR, e.lanewise(ROR, 25));
+            IntVector ch = e.and(f).lanewise(XOR, e.lanewise(NOT).and(g));
+            IntVector t1 = h.add(s1).add(ch).add(K[i]).add(w[i]);
+            IntVector s0 = a.lanewise(ROR, 2).lanewise(XOR, a.lanewise(ROR, 13)).lanewise(XOR, a.lanewise(ROR, 22));
+            IntVector maj = a.and(b).lanewise(XOR, a.and(c)).lanewise(XOR, b.and(c));
+            h = g;
+            g = f;
+            f = e;
+            e = d.add(t1);
+            d = c;
+            c = b;
+            b = a;
+            a = t1.add(s0).add(maj);
+        }
+        state[0] = state[0].blend(state[0].add(a), active);
+        state[1] = state[1].blend(state[1].add(b), active);
+        state[2] = state[2].blend(state[2].add(c), active);
+        state[3] = state[3].blend(state[3].add(d), active);
+        state[4] = state[4].blend(state[4].add(e), active);
+        state[5] = state[5].blend(state[5].add(f), active);
+        state[6] = state[6].blend(state[6].add(g), active);
+        state[7] = state[7].blend(state[7].add(h), active);
+    }
+
+    // The message, a 0x80 byte, zeros, and the 64 bit big endian bit length fill a whole number of 64 byte blocks.
+    static int blockCount(int length) {
+        return (length + 72) / 64;
+    }
+
+    // Writes the 16 big endian words of a padded message's block to the lane's column of words.
+    private static void loadBlock(byte[] message, int block, int blocks, int[] words, int lane) {
+        int start = block * 64;
+        if (start + 64 <= message.length) {
+            for (int t = 0, i = start; t < 16; t++, i += 4) {
+                words[t * LANES + lane] = message[i] << 24 | (message[i + 1] & 0xff) << 16
+                        | (message[i + 2] & 0xff) << 8 | (message[i + 3] & 0xff);
+            }
+            return;
+        }
+        for (int t = 0, i = start; t < 16; t++, i += 4) {
+            words[t * LANES + lane] = paddedByte(message, i, blocks) << 24 | paddedByte(message, i + 1, blocks) << 16
+                    | paddedByte(message, i + 2, blocks) << 8 | paddedByte(message, i + 3, blocks);
+        }
+    }
+
+    private static int paddedByte(byte[] message, int index, int blocks) {
+        if (index < message.length) {
+            return message[index] & 0xff;
+        }
+        if (index == message.length) {
+            return 0x80;
+        }
+        int fromEnd = blocks * 64 - index;  // 1 to 8 for the bytes of the bit length
+        if (fromEnd <= 8) {
+            return (int) (((long) message.length << 3) >>> ((fromEnd - 1) * 8)) & 0xff;
+        }
+        return 0;
+    }
+}
@@ -3,6 +3,7 @@ package mandioca;
 import mandioca.bitcoin.address.AddressFactoryTest;
 import mandioca.bitcoin.ecc.*;
 import mandioca.bitcoin.function.EndianFunctionsTest;
+import mandioca.bitcoin.function.HashFunctionsTest;
 import mandioca.bitcoin.network.message.EmptyPayloadChecksumTest;
 import mandioca.bitcoin.network.message.GetDataMessageTest;
 import mandioca.bitcoin.network.message.MerkleBlockMessageTest;
@@ -12,6 +13,7 @@ import mandioca.bitcoin.rpc.RpcClientTest;
 import mandioca.bitcoin.script.CombineScriptsTest;
 import mandioca.bitcoin.script.ScriptAddressEncodingTest;
 import mandioca.bitcoin.script.ScriptVersion1ParseAndSerializeTest;
+import mandioca.bitcoin.script.WatchListMatcherTest;
 import mandioca.bitcoin.script.processing.*;
 import mandioca.bitcoin.transaction.*;
 import mandioca.bitcoin.util.*;
@@ -30,14 +32,26 @@ import org.junit.runners.Suite;
         EllipticCurvePointTest.class,
         FieldElementTest.class,
         Rfc6979Test.class,
+        SafeGcdInverseTest.class,
+        Secp256k1BatchVerifierTest.class,
         Secp256k1DERTest.class,
+        Secp256k1EndomorphismTest.class,
+        Secp256k1FieldBatchTest.class,
+        Secp256k1FieldElementTest.class,
+        Secp256k1GeneratorTableTest.class,
+        Secp256k1JacobianPointTest.class,
+        Secp256k1KeyTableCacheTest.class,
+        Secp256k1PointCacheTest.class,
+        Secp256k1SchnorrTest.class,
         Secp256K1PointTest.class,
         Secp256k1SECTest.class,
         Secp256k1SignatureTest.class,
         Secp256k1WIFTest.class,
+        Secp256k1WnafTableTest.class,
 
         // functions pkg
         EndianFunctionsTest.class,
+        HashFunctionsTest.class,
 
         /*
         // network pkg
@@ -50,6 +64,7 @@ import org.junit.runners.Suite;
         MerkleTreeTest.class,
         Murmur3Test.class,
         RegtestGenesisBlockTest.class,
+        RegtestMinerTest.class,
         TestnetGenesisBlockTest.class,
          */
 
@@ -99,6 +114,7 @@ import org.junit.runners.Suite;
         CombineScriptsTest.class,
         ScriptAddressEncodingTest.class,
         ScriptVersion1ParseAndSerializeTest.class,
+        WatchListMatcherTest.class,
 
         // transaction pkg (todo clean this up and fix bugs)
         BookChapter7Example5And6TxParseAndSerializeTest.class,
@@ -123,7 +139,11 @@ import org.junit.runners.Suite;
         // util pkg
         Base58Test.class,
         Bech32Test.class,
+        HashKeyTableTest.class,
+        HmacSha256Test.class,
         Ripemd160Test.class,
+        Sha256BatchTest.class,
+        Sha256Test.class,
         TupleTest.class,
         VarintUtilsTest.class,
 
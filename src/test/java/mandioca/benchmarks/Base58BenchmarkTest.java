@@ -0,0 +1,24 @@
+package mandioca.benchmarks;
+
+import org.junit.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+import static org.junit.Assert.assertFalse;
+
+public class Base58BenchmarkTest {
+
+    @Test
+    public void runBase58Benchmark() throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(Base58Benchmark.class.getSimpleName())
+                .build();
+        Collection<RunResult> runResults = new Runner(opt).run();
+        assertFalse(runResults.isEmpty());
+    }
+}
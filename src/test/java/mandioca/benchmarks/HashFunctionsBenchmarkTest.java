@@ -0,0 +1,28 @@
+package mandioca.benchmarks;
+
+import org.junit.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+import static org.junit.Assert.assertFalse;
+
+public class HashFunctionsBenchmarkTest {
+
+    @Test
+    public void runHashFunctionsBenchmark() throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads : new int[]{1, Math.max(2, Math.min(cores, 8))}) {  // compare throughput per thread count
+            Options opt = new OptionsBuilder()
+                    .include(HashFunctionsBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            Collection<RunResult> runResults = new Runner(opt).run();
+            assertFalse(runResults.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package mandioca.bitcoin.ecc;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.ZERO;
+import static org.junit.Assert.assertEquals;
+
+public class SafeGcdInverseTest extends AbstractSecp256k1Test {
+
+    private static final Random random = new Random(590);
+
+    @Test
+    public void testFieldAndOrderInverses() {
+        for (SafeGcdInverse inverse : new SafeGcdInverse[]{SafeGcdInverse.FIELD, SafeGcdInverse.ORDER}) {
+            BigInteger m = inverse.getModulus();
+            for (BigInteger x : new BigInteger[]{ONE, BigInteger.TWO, m.subtract(ONE), m.shiftRight(1), ONE.shiftLeft(255)}) {
+                assertEquals(x.modInverse(m), inverse.invert(x));
+            }
+            for (int i = 0; i < 500; i++) {
+                BigInteger x = new BigInteger(256, random).mod(m);
+                if (x.signum() != 0) {
+                    assertEquals(x.modInverse(m), inverse.invert(x));
+                }
+            }
+            assertEquals(ZERO, inverse.invert(ZERO));
+            assertEquals(ZERO, inverse.invert(m));
+        }
+    }
+
+    @Test
+    public void testReducesInput() {
+        BigInteger x = new BigInteger(256, random);
+        assertEquals(x.mod(N).modInverse(N), SafeGcdInverse.ORDER.invert(x.add(N)));
+        assertEquals(x.negate().mod(N).modInverse(N), SafeGcdInverse.ORDER.invert(x.negate().add(N.multiply(BigInteger.TEN))));
+    }
+
+    @Test
+    public void testOtherOddModuli() {
+        for (BigInteger m : new BigInteger[]{BigInteger.valueOf(3), BigInteger.valueOf(223), ONE.shiftLeft(256).subtract(ONE)}) {
+            SafeGcdInverse inverse = new SafeGcdInverse(m);
+            for (int i = 0; i < 100; i++) {
+                BigInteger x = new BigInteger(256, random).mod(m);
+                if (x.gcd(m).equals(ONE)) {
+                    assertEquals(x.modInverse(m), inverse.invert(x));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFieldElementInverseMatchesExponentiation() {
+        for (int i = 0; i < 200; i++) {
+            Secp256k1FieldElement a = new Secp256k1FieldElement(new BigInteger(256, random).mod(P));
+            assertEquals(new Secp256k1FieldElement().setInverseByExponentiation(a).getNumber(),
+                    new Secp256k1FieldElement().setInverse(a).getNumber());
+        }
+    }
+
+    @Test
+    public void testJacobiMatchesEulersCriterion() {
+        BigInteger[] moduli = {P, N, BigInteger.valueOf(3), BigInteger.valueOf(1009)};
+        for (BigInteger m : moduli) {
+            SafeGcdInverse inverse = new SafeGcdInverse(m);
+            BigInteger eulerExponent = m.subtract(ONE).shiftRight(1);
+            for (int i = 0; i < 200; i++) {
+                BigInteger x = new BigInteger(256, random).mod(m);
+                int expected = x.signum() == 0 ? 0 : x.modPow(eulerExponent, m).equals(ONE) ? 1 : -1;
+                assertEquals(expected, inverse.jacobi(x));
+            }
+        }
+        assertEquals(-1, SafeGcdInverse.FIELD.jacobi(BigInteger.valueOf(-1)));
+        assertEquals(1, SafeGcdInverse.FIELD.jacobi(P.add(BigInteger.valueOf(4))));
+    }
+
+    @Test
+    public void testJacobiOfCompositeModulus() {
+        // (2 | 15) = 1 although 2 is not a square mod 15, and (7 | 15) = -1.
+        SafeGcdInverse inverse = new SafeGcdInverse(BigInteger.valueOf(15));
+        assertEquals(1, inverse.jacobi(BigInteger.TWO));
+        assertEquals(-1, inverse.jacobi(BigInteger.valueOf(7)));
+    }
+
+    @Test
+    public void testEvenModulusException() {
+        exception.expect(IllegalArgumentException.class);
+        new SafeGcdInverse(BigInteger.valueOf(224));
+    }
+}
@@ -0,0 +1,62 @@
+package mandioca.bitcoin.ecc;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.ZERO;
+import static org.junit.Assert.*;
+
+public class Secp256k1BatchVerifierTest extends AbstractSecp256k1Test {
+
+    private static final Random random = new Random(6);
+
+    @Test
+    public void testEmptyBatch() {
+        assertEquals(0, Secp256k1Point.verifyBatch(Collections.emptyList()).length);
+    }
+
+    @Test
+    public void testBatchMatchesVerify() {
+        for (int size : new int[]{1, 5, Secp256k1BatchVerifier.CHUNK_SIZE, 3 * Secp256k1BatchVerifier.CHUNK_SIZE + 7}) {
+            List<SignatureCheck> checks = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                checks.add(randomCheck(i % 3 != 1));
+            }
+            boolean[] results = Secp256k1Point.verifyBatch(checks);
+            assertEquals(size, results.length);
+            for (int i = 0; i < size; i++) {
+                SignatureCheck check = checks.get(i);
+                assertEquals(i % 3 != 1, results[i]);
+                assertEquals(check.getPublicKey().verify(check.getZ(), check.getSignature()), results[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testOutOfRangeSignatures() {
+        SignatureCheck valid = randomCheck(true);
+        Signature signature = valid.getSignature();
+        List<SignatureCheck> checks = new ArrayList<>();
+        checks.add(new SignatureCheck(valid.getZ(), new Signature(signature.getR(), ZERO), valid.getPublicKey()));
+        checks.add(valid);
+        checks.add(new SignatureCheck(valid.getZ(), new Signature(ZERO, signature.getS()), valid.getPublicKey()));
+        checks.add(new SignatureCheck(valid.getZ(), new Signature(signature.getR(), signature.getS().add(N)), valid.getPublicKey()));
+        checks.add(new SignatureCheck(valid.getZ(), signature, IDENTITY));
+        checks.add(valid);
+        boolean[] results = Secp256k1Point.verifyBatch(checks);
+        assertArrayEquals(new boolean[]{false, true, false, false, false, true}, results);
+    }
+
+    private static SignatureCheck randomCheck(boolean valid) {
+        Secp256k1PrivateKey privateKey = new Secp256k1PrivateKey(new BigInteger(256, random).mod(N.subtract(ONE)).add(ONE));
+        BigInteger z = new BigInteger(256, random);
+        Signature signature = privateKey.sign(z);
+        return new SignatureCheck(valid ? z : z.add(ONE), signature, privateKey.getPublicKey());
+    }
+}
@@ -3,11 +3,13 @@ package mandioca.bitcoin.ecc;
 import org.junit.Test;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import static java.math.BigInteger.*;
 import static mandioca.bitcoin.util.HashUtils.getSHA256HashAsInteger;
 import static mandioca.bitcoin.util.HexUtils.HEX;
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public class Secp256k1DERTest extends AbstractSecp256k1Test {
 
@@ -294,6 +296,68 @@ public class Secp256k1DERTest extends AbstractSecp256k1Test {
         Signature parsedSignature = Signature.parse(der);
         assertEquals(signature, parsedSignature);
     }
+
+    @Test
+    public void testParseFromBufferSlice() {
+        String der = "3045022100AFFF580595971B8C1700E77069D73602AEF4C2A760DBD697881423DFFF845DE80220579ADB6A1AC03ACDE461B5821A049EBD39A8A8EBF2506B841B15C27342D2E342";
+        byte[] element = HEX.decode("FF" + der + "01");  // stray leading byte, trailing sighash byte
+        ByteBuffer slice = ByteBuffer.wrap(element, 1, element.length - 2);
+        Signature signature = Signature.parse(slice);
+        assertEquals(1, slice.position());
+        assertEquals(Signature.parse(HEX.decode(der)), signature);
+        assertEquals(new BigInteger("AFFF580595971B8C1700E77069D73602AEF4C2A760DBD697881423DFFF845DE8", 16), signature.getR());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(element.length).put(element);
+        assertEquals(signature, Signature.parse(direct.position(1).limit(element.length - 1)));
+    }
+
+    @Test
+    public void testWriteDer() {
+        Signature signature = new Signature(ZERO, BigInteger.valueOf(0x80));  // smallest r, s with a high bit
+        ByteBuffer buffer = ByteBuffer.allocate(80).put((byte) 0xFF);
+        assertEquals(9, signature.writeDer(buffer));
+        assertEquals(10, buffer.position());
+        assertEquals("ff300702010002020080", HEX.encode(Arrays.copyOf(buffer.array(), 10)));
+        assertArrayEquals(HEX.decode("300702010002020080"), signature.getDer());
+        assertEquals(signature, Signature.parse(signature.getDer()));
+
+        Signature largest = new Signature(N.subtract(ONE), N.subtract(ONE));
+        assertEquals(SignatureDerCodec.MAX_DER_LEN, largest.getDer().length);
+        assertEquals(largest, Signature.parse(largest.getDer()));
+
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("Signature needs 72 bytes, buffer has 71");
+        largest.writeDer(ByteBuffer.allocate(71));
+    }
+
+    @Test
+    public void testStrictDerEncoding() {
+        // See https://github.com/bitcoin/bips/blob/master/bip-0066.mediawiki
+        assertNotStrictDer("30".repeat(73), "Signature length 73 not in range 8 to 72");
+        assertNotStrictDer("30050201010201", "Signature length 7 not in range 8 to 72");
+        assertNotStrictDer("3106020101020101", "Signature does not start with the DER prefix 0x30");
+        assertNotStrictDer("3007020101020101", "Signature length byte does not match its length 8");
+        assertNotStrictDer("3006020401020101", "Signature r length 4 leaves no room for s");
+        assertNotStrictDer("3006020101020201", "Signature r and s lengths do not match its length 8");
+        assertNotStrictDer("3006030101020101", "Signature r is not marked as an integer");
+        assertNotStrictDer("3006020101030101", "Signature s is not marked as an integer");
+        assertNotStrictDer("3006020002020101", "Signature r is empty");
+        assertNotStrictDer("3006020181020101", "Signature r is negative");
+        assertNotStrictDer("3006020101020181", "Signature s is negative");
+        assertNotStrictDer("300702020001020101", "Signature r has an excess leading zero byte");
+        assertNotStrictDer("300702010102020001", "Signature s has an excess leading zero byte");
+        assertEquals(new Signature(ONE, BigInteger.valueOf(0x80)), Signature.parse(HEX.decode("300702010102020080")));
+    }
+
+    private void assertNotStrictDer(String der, String message) {
+        try {
+            Signature.parse(HEX.decode(der));
+            fail("Parsed " + der);
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
 /*
 https://crypto.stackexchange.com/questions/20838/request-for-data-to-test-deterministic-ecdsa-signature-algorithm-for-secp256k1
 
@@ -0,0 +1,59 @@
+package mandioca.bitcoin.ecc;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.ZERO;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.*;
+import static org.junit.Assert.*;
+
+public class Secp256k1EndomorphismTest extends AbstractSecp256k1Test {
+
+    private static final Random random = new Random(5);
+    private static final BigInteger THREE = BigInteger.valueOf(3);
+
+    @Test
+    public void testConstants() {
+        assertEquals(ONE, BETA.modPow(THREE, P));
+        assertEquals(ONE, LAMBDA.modPow(THREE, N));
+        assertEquals(ZERO, GLV_A1.add(GLV_B1.multiply(LAMBDA)).mod(N));
+        assertEquals(ZERO, GLV_A2.add(GLV_B2.multiply(LAMBDA)).mod(N));
+        Secp256k1Point lambdaG = G.scalarMultiply(LAMBDA);
+        assertEquals(G.getX().getNumber().multiply(BETA).mod(P), lambdaG.getX().getNumber());
+        assertEquals(G.getY(), lambdaG.getY());
+    }
+
+    @Test
+    public void testSplit() {
+        BigInteger[] scalars = new BigInteger[]{ZERO, ONE, N.subtract(ONE), N.shiftRight(1), LAMBDA, new BigInteger(256, random)};
+        for (BigInteger k : scalars) {
+            assertSplit(k);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertSplit(new BigInteger(256, random).mod(N));
+        }
+    }
+
+    @Test
+    public void testMultiplyWithAndWithoutGlv() {
+        Secp256k1Point p = G.scalarMultiply(new BigInteger(256, random));
+        BigInteger[] scalars = new BigInteger[]{ONE, BigInteger.TWO, N.subtract(ONE), LAMBDA, new BigInteger(256, random)};
+        for (BigInteger k : scalars) {
+            assertEquals(p.jacobianMultiply(k, false).toAffine(), p.jacobianMultiply(k, true).toAffine());
+            BigInteger v = new BigInteger(256, random);
+            assertEquals(p.dualMultiply(k, v, false).toAffine(), p.dualMultiply(k, v, true).toAffine());
+        }
+        assertEquals(IDENTITY, p.jacobianMultiply(N, true).toAffine());
+        assertEquals(IDENTITY, G.dualMultiply(LAMBDA, N.subtract(LAMBDA), true).toAffine());
+    }
+
+    private static void assertSplit(BigInteger k) {
+        BigInteger[] k12 = Secp256k1Endomorphism.split(k);
+        assertEquals(k, k12[0].add(k12[1].multiply(LAMBDA)).mod(N));
+        assertTrue(k12[0].abs().bitLength() <= 129);
+        assertTrue(k12[1].abs().bitLength() <= 129);
+    }
+}
@@ -0,0 +1,127 @@
+package mandioca.bitcoin.ecc;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.ZERO;
+import static org.junit.Assert.assertEquals;
+
+public class Secp256k1FieldBatchTest extends AbstractSecp256k1Test {
+
+    private static final Random random = new Random(13);
+
+    // Sizes below, at, and above the vector backend's minimum batch, with partial last rows.
+    private static final int[] SIZES = {0, 1, 7, 8, 15, 16, 17, 33, 100};
+
+    @Test
+    public void testMultiplyAll() {
+        for (Secp256k1FieldBatch batch : backends()) {
+            for (int size : SIZES) {
+                BigInteger[] x = randomNumbers(size), y = randomNumbers(size);
+                Secp256k1FieldElement[] a = elements(x), b = elements(y), r = elements(randomNumbers(size));
+                batch.multiplyAll(r, a, b);
+                for (int i = 0; i < size; i++) {
+                    assertEquals(x[i].multiply(y[i]).mod(P), r[i].getNumber());
+                }
+                batch.multiplyAll(a, a, a);  // in place
+                for (int i = 0; i < size; i++) {
+                    assertEquals(x[i].multiply(x[i]).mod(P), a[i].getNumber());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInverseAll() {
+        for (Secp256k1FieldBatch batch : backends()) {
+            for (int size : SIZES) {
+                BigInteger[] x = randomNumbers(size);
+                if (size > 2) {
+                    x[size / 2] = ZERO;
+                }
+                Secp256k1FieldElement[] elements = elements(x);
+                batch.inverseAll(elements);
+                for (int i = 0; i < size; i++) {
+                    BigInteger expected = x[i].signum() == 0 ? ZERO : x[i].modInverse(P);
+                    assertEquals(expected, elements[i].getNumber());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testToAffineAll() {
+        for (Secp256k1FieldBatch batch : backends()) {
+            for (int size : SIZES) {
+                BigInteger[] x = randomNumbers(size), y = randomNumbers(size), z = randomNumbers(size);
+                Secp256k1FieldElement[] ax = elements(new BigInteger[size]), ay = elements(new BigInteger[size]);
+                batch.toAffineAll(elements(x), elements(y), elements(z), ax, ay);
+                for (int i = 0; i < size; i++) {
+                    BigInteger zInverse = z[i].modInverse(P);
+                    assertEquals(x[i].multiply(zInverse.pow(2)).mod(P), ax[i].getNumber());
+                    assertEquals(y[i].multiply(zInverse.pow(3)).mod(P), ay[i].getNumber());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testVectorMultiplyWithUnreducedLimbs() {
+        if (!Secp256k1FieldBatch.isVectorApiAvailable()) {
+            return;
+        }
+        // The largest weakly normalized limbs (the top limb has 23 bits), i.e., the number 2^257 - 1.
+        int lanes = Secp256k1VectorFieldBatch.LANES;
+        long[] row = new long[10 * lanes];
+        for (int k = 0; k < 10; k++) {
+            for (int j = 0; j < lanes; j++) {
+                row[k * lanes + j] = k < 9 ? Secp256k1FieldElement.M26 : 0x7FFFFFL;
+            }
+        }
+        BigInteger n = ONE.shiftLeft(257).subtract(ONE);
+        long[] product = new long[row.length];
+        Secp256k1VectorFieldBatch.multiply(row, 0, row, 0, product, 0);
+        for (int j = 0; j < lanes; j++) {
+            assertEquals(n.multiply(n).mod(P), new Secp256k1FieldElement().setLimbs26(product, j, lanes).getNumber());
+        }
+    }
+
+    private static List<Secp256k1FieldBatch> backends() {
+        List<Secp256k1FieldBatch> backends = new ArrayList<>();
+        backends.add(Secp256k1ScalarFieldBatch.INSTANCE);
+        if (Secp256k1FieldBatch.isVectorApiAvailable()) {
+            backends.add(new Secp256k1VectorFieldBatch());
+        }
+        return backends;
+    }
+
+    private static BigInteger[] randomNumbers(int size) {
+        BigInteger[] numbers = new BigInteger[size];
+        for (int i = 0; i < size; i++) {
+            switch (i % 10) {
+                case 0:
+                    numbers[i] = P.subtract(ONE);
+                    break;
+                case 1:
+                    numbers[i] = ONE;
+                    break;
+                default:
+                    numbers[i] = new BigInteger(256, random).mod(P.subtract(ONE)).add(ONE);
+            }
+        }
+        return numbers;
+    }
+
+    private static Secp256k1FieldElement[] elements(BigInteger[] numbers) {
+        Secp256k1FieldElement[] elements = new Secp256k1FieldElement[numbers.length];
+        for (int i = 0; i < numbers.length; i++) {
+            elements[i] = numbers[i] == null ? new Secp256k1FieldElement() : new Secp256k1FieldElement(numbers[i]);
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,156 @@
+package mandioca.bitcoin.ecc;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.ZERO;
+import static org.junit.Assert.*;
+
+public class Secp256k1FieldElementTest extends AbstractSecp256k1Test {
+
+    private static final Random random = new Random(8);
+
+    @Test
+    public void testConstructorNumberNotInRangeException() {
+        exception.expect(IllegalArgumentException.class);
+        new Secp256k1FieldElement(P);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        for (BigInteger n : edgeCases()) {
+            assertEquals(n, new Secp256k1FieldElement(n).getNumber());
+        }
+    }
+
+    @Test
+    public void testSetBytesReducesModP() {
+        byte[] allOnes = new byte[32];
+        Arrays.fill(allOnes, (byte) 0xff);
+        Secp256k1FieldElement f = new Secp256k1FieldElement().setBytes(allOnes, 0);
+        assertEquals(new BigInteger(1, allOnes).mod(P), f.getNumber());
+    }
+
+    @Test
+    public void testArithmeticMatchesFieldElement() {
+        for (int i = 0; i < 2000; i++) {
+            BigInteger x = randomNumber(), y = randomNumber();
+            Field fx = new Secp256k1FieldElement(x), fy = new Secp256k1FieldElement(y);
+            Field ex = new FieldElement(x, P), ey = new FieldElement(y, P);
+            assertEquals(ex.add(ey), fx.add(fy));
+            assertEquals(ex.subtract(ey), fx.subtract(fy));
+            assertEquals(ex.multiply(ey), fx.multiply(fy));
+            assertEquals(ex.power(BigInteger.TWO), fx.power(BigInteger.TWO));
+            assertEquals(ex.power(BigInteger.valueOf(3)), fx.power(BigInteger.valueOf(3)));
+        }
+    }
+
+    @Test
+    public void testEdgeCases() {
+        for (BigInteger x : edgeCases()) {
+            for (BigInteger y : edgeCases()) {
+                Secp256k1FieldElement fx = new Secp256k1FieldElement(x), fy = new Secp256k1FieldElement(y);
+                assertEquals(x.add(y).mod(P), new Secp256k1FieldElement().setAdd(fx, fy).getNumber());
+                assertEquals(x.subtract(y).mod(P), new Secp256k1FieldElement().setSubtract(fx, fy).getNumber());
+                assertEquals(x.multiply(y).mod(P), new Secp256k1FieldElement().setMultiply(fx, fy).getNumber());
+            }
+            Secp256k1FieldElement fx = new Secp256k1FieldElement(x);
+            assertEquals(x.negate().mod(P), new Secp256k1FieldElement().setNegate(fx).getNumber());
+            assertEquals(x.multiply(x).mod(P), new Secp256k1FieldElement().setSquare(fx).getNumber());
+        }
+    }
+
+    @Test
+    public void testInPlaceAliasing() {
+        BigInteger x = randomNumber();
+        Secp256k1FieldElement f = new Secp256k1FieldElement(x);
+        f.setMultiply(f, f).setAdd(f, f);
+        assertEquals(x.multiply(x).shiftLeft(1).mod(P), f.getNumber());
+    }
+
+    @Test
+    public void testInverseAndDivide() {
+        for (int i = 0; i < 50; i++) {
+            BigInteger x = randomNumber(), y = randomNumber();
+            Secp256k1FieldElement fx = new Secp256k1FieldElement(x);
+            assertEquals(x.modInverse(P), new Secp256k1FieldElement().setInverse(fx).getNumber());
+            assertEquals(new FieldElement(x, P).divide(new FieldElement(y, P)), fx.divide(new Secp256k1FieldElement(y)));
+        }
+        assertTrue(new Secp256k1FieldElement().setInverse(new Secp256k1FieldElement(ZERO)).isZero());
+    }
+
+    @Test
+    public void testSetInverseAll() {
+        BigInteger[] numbers = new BigInteger[]{randomNumber(), ZERO, ONE, randomNumber(), P.subtract(ONE), ZERO};
+        Secp256k1FieldElement[] elements = new Secp256k1FieldElement[numbers.length];
+        for (int i = 0; i < numbers.length; i++) {
+            elements[i] = new Secp256k1FieldElement(numbers[i]);
+        }
+        Secp256k1FieldElement.setInverseAll(elements);
+        for (int i = 0; i < numbers.length; i++) {
+            BigInteger expected = numbers[i].signum() == 0 ? ZERO : numbers[i].modInverse(P);
+            assertEquals(expected, elements[i].getNumber());
+        }
+    }
+
+    @Test
+    public void testSqrt() {
+        BigInteger x = randomNumber();
+        Field square = new Secp256k1FieldElement(x).power(BigInteger.TWO);
+        BigInteger root = square.sqrt().getNumber();
+        assertTrue(root.equals(x) || root.equals(P.subtract(x)));
+    }
+
+    @Test
+    public void testSetSqrtAndIsSquare() {
+        BigInteger exponent = P.add(ONE).shiftRight(2);
+        BigInteger eulerExponent = P.subtract(ONE).shiftRight(1);
+        int squares = 0;
+        for (int i = 0; i < 500; i++) {
+            BigInteger x = i < 3 ? new BigInteger[]{ZERO, ONE, P.subtract(ONE)}[i] : randomNumber();
+            Secp256k1FieldElement fx = new Secp256k1FieldElement(x);
+            Secp256k1FieldElement root = new Secp256k1FieldElement().setSqrt(fx);
+            assertEquals(x.modPow(exponent, P), root.getNumber());
+            boolean isSquare = x.signum() == 0 || x.modPow(eulerExponent, P).equals(ONE);
+            assertEquals(isSquare, fx.isSquare());
+            assertEquals(isSquare, root.setSquare(root).equalsElement(fx));
+            squares += isSquare ? 1 : 0;
+        }
+        assertTrue(squares > 200 && squares < 300);
+        assertFalse(new Secp256k1FieldElement(P.subtract(ONE)).isSquare());  // -1 is not a square, as p = 3 mod 4
+    }
+
+    @Test
+    public void testEqualsFieldElement() {
+        BigInteger x = randomNumber();
+        Field fast = new Secp256k1FieldElement(x);
+        Field slow = new FieldElement(x, P);
+        assertEquals(fast, slow);
+        assertEquals(slow, fast);
+        assertEquals(slow.hashCode(), fast.hashCode());
+        assertFalse(fast.notEquals(slow));
+        assertTrue(fast.notEquals(new FieldElement(x, P.add(BigInteger.TWO))));
+    }
+
+    @Test
+    public void testMixedFieldOperations() {
+        BigInteger x = randomNumber(), y = randomNumber();
+        Field result = new Secp256k1FieldElement(x).multiply(new FieldElement(y, P));
+        assertEquals(x.multiply(y).mod(P), result.getNumber());
+        exception.expect(IllegalArgumentException.class);
+        new Secp256k1FieldElement(ONE).add(FieldElement.valueOf(1, 23));
+    }
+
+    private static BigInteger randomNumber() {
+        return new BigInteger(256, random).mod(P);
+    }
+
+    private static BigInteger[] edgeCases() {
+        return new BigInteger[]{ZERO, ONE, BigInteger.TWO, P.subtract(ONE), P.subtract(BigInteger.TWO),
+                BigInteger.TWO.pow(52).subtract(ONE), BigInteger.TWO.pow(255), P.shiftRight(1)};
+    }
+}
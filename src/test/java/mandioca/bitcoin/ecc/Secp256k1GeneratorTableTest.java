@@ -0,0 +1,97 @@
+package mandioca.bitcoin.ecc;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.ZERO;
+import static org.junit.Assert.*;
+
+public class Secp256k1GeneratorTableTest extends AbstractSecp256k1Test {
+
+    private static final Random random = new Random(3);
+    // Generic FieldElement based G, multiplied by double-and-add.
+    private static final EllipticCurvePoint GENERIC_G = EllipticCurvePoint.newPoint.apply(
+            G.getX().getNumber(), G.getY().getNumber(), A.getNumber(), B.getNumber(), P);
+
+    @Test
+    public void testWindowBitsNotInRangeException() {
+        exception.expect(IllegalArgumentException.class);
+        new Secp256k1GeneratorTable(17);
+    }
+
+    @Test
+    public void testDefaultTable() {
+        assertEquals(EccProperties.GENERATOR_WINDOW_BITS, Secp256k1GeneratorTable.getDefault().getWindowBits());
+        for (int i = 0; i < 10; i++) {
+            BigInteger k = new BigInteger(256, random);
+            assertSamePoint(GENERIC_G.scalarMultiply(k.mod(N)), G.scalarMultiply(k));
+        }
+    }
+
+    @Test
+    public void testWindowSizes() {
+        BigInteger[] scalars = new BigInteger[]{ONE, BigInteger.TWO, N.subtract(ONE), N.shiftRight(1),
+                BigInteger.TWO.pow(255), new BigInteger(256, random)};
+        for (int windowBits : new int[]{1, 3, 4, 5, 7, 10}) {
+            Secp256k1GeneratorTable table = new Secp256k1GeneratorTable(windowBits);
+            for (BigInteger k : scalars) {
+                assertSamePoint(GENERIC_G.scalarMultiply(k.mod(N)), table.multiply(k).toAffine());
+            }
+        }
+    }
+
+    @Test
+    public void testIdentity() {
+        assertEquals(IDENTITY, G.scalarMultiply(ZERO));
+        assertEquals(IDENTITY, G.scalarMultiply(N));
+        assertEquals(G, G.scalarMultiply(N.add(ONE)));
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Secp256k1GeneratorTable table = new Secp256k1GeneratorTable(4);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        table.write(out);
+        Secp256k1GeneratorTable read = Secp256k1GeneratorTable.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(4, read.getWindowBits());
+        for (int i = 0; i < 10; i++) {
+            BigInteger k = new BigInteger(256, random);
+            assertSamePoint(table.multiply(k).toAffine(), read.multiply(k).toAffine());
+        }
+
+        byte[] notG = out.toByteArray();
+        notG[12 + 7] ^= 1;  // the first limb of G's x
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("Generator table does not start with G");
+        Secp256k1GeneratorTable.read(new ByteArrayInputStream(notG));
+    }
+
+    @Test
+    public void testReadTruncatedTable() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new Secp256k1GeneratorTable(2).write(out);
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 8);
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("Generator table of 3840 limbs has 30712 bytes");
+        Secp256k1GeneratorTable.read(new ByteArrayInputStream(truncated));
+    }
+
+    @Test
+    public void testLoadWithoutResourceBuildsTable() {
+        Secp256k1GeneratorTable table = Secp256k1GeneratorTable.load(3);  // the build only ships the default width
+        assertEquals(3, table.getWindowBits());
+        assertSamePoint(GENERIC_G.scalarMultiply(BigInteger.TEN), table.multiply(BigInteger.TEN).toAffine());
+    }
+
+    private static void assertSamePoint(Point expected, Point actual) {
+        assertEquals(expected.getX(), actual.getX());
+        assertEquals(expected.getY(), actual.getY());
+    }
+}
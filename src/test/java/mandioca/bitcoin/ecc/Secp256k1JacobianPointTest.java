@@ -0,0 +1,74 @@
+package mandioca.bitcoin.ecc;
+
+import mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static java.math.BigInteger.ONE;
+import static mandioca.bitcoin.ecc.Secp256k1Point.G;
+import static mandioca.bitcoin.ecc.Secp256k1Point.IDENTITY;
+import static org.junit.Assert.*;
+
+public class Secp256k1JacobianPointTest extends AbstractSecp256k1Test {
+
+    private static final Random random = new Random(21);
+
+    @Test
+    public void testScalarMultiplyMatchesAffineAddition() {
+        Point expected = G;
+        for (int k = 1; k <= 20; k++) {
+            assertEquals(expected, G.scalarMultiply(BigInteger.valueOf(k)));
+            expected = G.add(expected);
+        }
+    }
+
+    @Test
+    public void testScalarMultiplyByOrder() {
+        assertEquals(IDENTITY, G.scalarMultiply(N));
+        assertEquals(IDENTITY, G.scalarMultiply(BigInteger.ZERO));
+        assertEquals(IDENTITY, IDENTITY.scalarMultiply(BigInteger.TEN));
+        assertEquals(G, G.scalarMultiply(N.add(ONE)));
+    }
+
+    @Test
+    public void testAddAndDouble() {
+        for (int i = 0; i < 25; i++) {
+            Secp256k1Point p = G.scalarMultiply(new BigInteger(256, random));
+            Secp256k1Point q = G.scalarMultiply(new BigInteger(256, random));
+            Secp256k1JacobianPoint jp = new Secp256k1JacobianPoint(p);
+            Secp256k1JacobianPoint jq = new Secp256k1JacobianPoint(q);
+            jq.setDouble(jq);  // Z != 1
+            assertEquals(p.add(q.add(q)), new Secp256k1JacobianPoint().setAdd(jp, jq).toAffine());
+            assertEquals(p.add(p), new Secp256k1JacobianPoint().setDouble(jp).toAffine());
+            assertEquals(p.add(p), new Secp256k1JacobianPoint().setAddAffine(jp, p).toAffine());
+            assertEquals(q.add(q).add(q.add(q)), new Secp256k1JacobianPoint().set(jq).setAdd(jq, jq).toAffine());
+            Secp256k1JacobianPoint aliased = new Secp256k1JacobianPoint().set(jq);
+            assertEquals(p.add(q.add(q)), aliased.setAdd(new Secp256k1JacobianPoint(p), aliased).toAffine());
+        }
+    }
+
+    @Test
+    public void testAddInverseIsInfinity() {
+        Secp256k1JacobianPoint p = new Secp256k1JacobianPoint(G.scalarMultiply(new BigInteger(256, random)));
+        p.setDouble(p);
+        Secp256k1JacobianPoint sum = new Secp256k1JacobianPoint().setNegate(p);
+        sum.setAdd(sum, p);
+        assertTrue(sum.isInfinity());
+        assertEquals(IDENTITY, sum.toAffine());
+        assertTrue(new Secp256k1JacobianPoint().setAdd(sum, p).toAffine().equals(p.toAffine()));
+    }
+
+    @Test
+    public void testXEquals() {
+        Secp256k1JacobianPoint p = new Secp256k1JacobianPoint(G.scalarMultiply(new BigInteger(256, random)));
+        p.setDouble(p);
+        BigInteger x = p.toAffine().getX().getNumber();
+        assertTrue(p.xEquals(x));
+        assertFalse(p.xEquals(x.add(ONE)));
+        assertFalse(new Secp256k1JacobianPoint().xEquals(x));
+        assertFalse(p.xEquals(x.add(Secp256k1CurveParameters.p)));  // congruent to x, but not a field element
+        assertFalse(p.xEquals(x.subtract(Secp256k1CurveParameters.p)));
+    }
+}
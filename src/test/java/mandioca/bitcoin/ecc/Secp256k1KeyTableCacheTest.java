@@ -0,0 +1,76 @@
+package mandioca.bitcoin.ecc;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static mandioca.bitcoin.ecc.Secp256k1Point.G;
+import static mandioca.bitcoin.util.HashUtils.getSHA256HashAsInteger;
+import static org.junit.Assert.*;
+
+public class Secp256k1KeyTableCacheTest extends AbstractSecp256k1Test {
+
+    @Test
+    public void testVerifyHitsAndMisses() {
+        Secp256k1KeyTableCache cache = new Secp256k1KeyTableCache(10);
+        Secp256k1PrivateKey privateKey = new Secp256k1PrivateKey(BigInteger.valueOf(5001));
+        Secp256k1Point publicKey = G.scalarMultiply(BigInteger.valueOf(5001));
+        for (int i = 0; i < 3; i++) {
+            BigInteger z = getSHA256HashAsInteger("message " + i);
+            Signature signature = privateKey.sign(z);
+            assertTrue(publicKey.verify(z, signature, cache));
+            assertFalse(publicKey.verify(z.add(BigInteger.ONE), signature, cache));
+            assertFalse(G.verify(z, signature, cache));
+        }
+        assertEquals(2, cache.size());
+        assertEquals(7, cache.getHits());  // publicKey's table is hit 5 times, G's twice
+        assertEquals(2, cache.getMisses());
+        assertSame(cache.table(publicKey), cache.table(new Secp256k1Point(publicKey.getX(), publicKey.getY())));
+        assertEquals(Secp256k1WnafTable.CACHED_WINDOW_BITS, cache.table(publicKey).getWindowBits());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitRate(), 0);
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        Secp256k1KeyTableCache cache = new Secp256k1KeyTableCache(2);
+        Secp256k1Point p1 = G.scalarMultiply(BigInteger.valueOf(1));
+        Secp256k1Point p2 = G.scalarMultiply(BigInteger.valueOf(2));
+        Secp256k1Point p3 = G.scalarMultiply(BigInteger.valueOf(3));
+        cache.table(p1);
+        cache.table(p2);
+        cache.table(p1);  // p2 is now the least recently used
+        cache.table(p3);
+        assertEquals(2, cache.size());
+        cache.table(p1);
+        assertEquals(2, cache.getHits());
+        cache.table(p2);
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void testZeroCapacityDisablesCaching() {
+        Secp256k1KeyTableCache cache = new Secp256k1KeyTableCache(0);
+        Secp256k1WnafTable table = cache.table(G);
+        assertEquals(Secp256k1WnafTable.WINDOW_BITS, table.getWindowBits());
+        assertNotSame(table, cache.table(G));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits() + cache.getMisses());
+        BigInteger z = getSHA256HashAsInteger("message");
+        assertTrue(G.verify(z, new Secp256k1PrivateKey(BigInteger.ONE).sign(z), cache));
+    }
+
+    @Test
+    public void testMemoizedEndomorphism() {
+        Secp256k1WnafTable table = new Secp256k1KeyTableCache(1).table(G);
+        assertSame(table.endomorphism(), table.endomorphism());
+    }
+
+    @Test
+    public void testNegativeCapacityException() {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("Key table cache capacity -1 is negative");
+        new Secp256k1KeyTableCache(-1);
+    }
+}
@@ -0,0 +1,76 @@
+package mandioca.bitcoin.ecc;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static mandioca.bitcoin.ecc.Secp256k1Point.G;
+import static mandioca.bitcoin.function.HashFunctions.hash160;
+import static org.junit.Assert.*;
+
+public class Secp256k1PointCacheTest extends AbstractSecp256k1Test {
+
+    @Test
+    public void testParseHitsAndMisses() {
+        Secp256k1PointCache cache = new Secp256k1PointCache(10);
+        Secp256k1Point point = G.scalarMultiply(BigInteger.valueOf(5001));
+        for (boolean compressed : new boolean[]{true, false}) {
+            byte[] sec = point.getSec(compressed);
+            Secp256k1Point parsed = cache.parse(sec);
+            assertEquals(point, parsed);
+            sec[1] ^= 1;  // the cache keeps its own copy of the key
+            assertSame(parsed, cache.parse(point.getSec(compressed)));
+        }
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 0);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitRate(), 0);
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        Secp256k1PointCache cache = new Secp256k1PointCache(2);
+        byte[] sec1 = G.scalarMultiply(BigInteger.valueOf(1)).getSec(true);
+        byte[] sec2 = G.scalarMultiply(BigInteger.valueOf(2)).getSec(true);
+        byte[] sec3 = G.scalarMultiply(BigInteger.valueOf(3)).getSec(true);
+        cache.parse(sec1);
+        cache.parse(sec2);
+        cache.parse(sec1);  // sec2 is now the least recently used
+        cache.parse(sec3);
+        assertEquals(2, cache.size());
+        cache.parse(sec1);
+        assertEquals(2, cache.getHits());
+        cache.parse(sec2);
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void testZeroCapacityDisablesCaching() {
+        Secp256k1PointCache cache = new Secp256k1PointCache(0);
+        byte[] sec = G.getSec(true);
+        assertEquals(G, cache.parse(sec));
+        assertNotSame(cache.parse(sec), cache.parse(sec));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits() + cache.getMisses());
+    }
+
+    @Test
+    public void testNegativeCapacityException() {
+        exception.expect(IllegalArgumentException.class);
+        new Secp256k1PointCache(-1);
+    }
+
+    @Test
+    public void testMemoizedSecAndHash160() {
+        Secp256k1Point point = G.scalarMultiply(BigInteger.valueOf(7777));
+        byte[] sec = point.getSec(true);
+        byte[] hash = point.secHash160.apply(true);
+        assertArrayEquals(hash160.apply(sec), hash);
+        sec[0] = 0;  // callers get copies
+        hash[0] ^= 1;
+        assertArrayEquals(hash160.apply(point.getSec(true)), point.secHash160.apply(true));
+    }
+}
@@ -0,0 +1,124 @@
+package mandioca.bitcoin.ecc;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static mandioca.bitcoin.function.HashFunctions.newSHA256Digest;
+import static mandioca.bitcoin.function.HashFunctions.taggedHash;
+import static mandioca.bitcoin.util.HexUtils.HEX;
+import static org.junit.Assert.*;
+
+public class Secp256k1SchnorrTest extends AbstractSecp256k1Test {
+
+    // See https://github.com/bitcoin/bips/blob/master/bip-0340/test-vectors.csv
+
+    @Test
+    public void testSignVector0() {
+        BigInteger secret = BigInteger.valueOf(3);
+        byte[] publicKey = Secp256k1Schnorr.xOnlyPublicKey(secret);
+        assertEquals("F9308A019258C31049344F85F89D5229B531C845836F99B08601F113BCE036F9", HEX.encode(publicKey).toUpperCase());
+        SchnorrSignature signature = Secp256k1Schnorr.sign(secret, new byte[32], new byte[32]);
+        assertEquals("E907831F80848D1069A5371B402410364BDF1C5F8307B0084C55F1CE2DCA8215"
+                        + "25F66A4A85EA8B71E482A74F382D2CE5EBEEE8FDB2172F477DF4900D310536C0",
+                HEX.encode(signature.getBytes()).toUpperCase());
+        assertTrue(Secp256k1Schnorr.verify(publicKey, new byte[32], signature));
+    }
+
+    @Test
+    public void testSignVector1() {
+        BigInteger secret = new BigInteger("B7E151628AED2A6ABF7158809CF4F3C762E7160F38B4DA56A784D9045190CFEF", 16);
+        byte[] publicKey = Secp256k1Schnorr.xOnlyPublicKey(secret);
+        assertEquals("DFF1D77F2A671C5F36183726DB2341BE58FEAE1DA2DECED843240F7B502BA659", HEX.encode(publicKey).toUpperCase());
+        byte[] auxRand = new byte[32];
+        auxRand[31] = 1;
+        byte[] message = HEX.decode("243F6A8885A308D313198A2E03707344A4093822299F31D0082EFA98EC4E6C89");
+        SchnorrSignature signature = Secp256k1Schnorr.sign(secret, message, auxRand);
+        assertEquals("6896BD60EEAE296DB48A229FF71DFE071BDE413E6D43F917DC8DCF8C78DE3341"
+                        + "8906D11AC976ABCCB20B091292BFF4EA897EFCB639EA871CFA95F6DE339E4B0A",
+                HEX.encode(signature.getBytes()).toUpperCase());
+        assertTrue(Secp256k1Schnorr.verify(publicKey, message, signature));
+    }
+
+    @Test
+    public void testVerifyFailures() {
+        BigInteger secret = BigInteger.valueOf(3);
+        byte[] publicKey = Secp256k1Schnorr.xOnlyPublicKey(secret);
+        byte[] message = new byte[32];
+        SchnorrSignature signature = Secp256k1Schnorr.sign(secret, message, new byte[32]);
+
+        byte[] tamperedMessage = message.clone();
+        tamperedMessage[0] = 1;
+        assertFalse(Secp256k1Schnorr.verify(publicKey, tamperedMessage, signature));
+        assertFalse(Secp256k1Schnorr.verify(publicKey, message, new SchnorrSignature(signature.getR(), signature.getS().add(BigInteger.ONE))));
+        assertFalse(Secp256k1Schnorr.verify(publicKey, message, new SchnorrSignature(signature.getR(), N)));  // s >= N
+        assertFalse(Secp256k1Schnorr.verify(publicKey, message, new SchnorrSignature(P, signature.getS())));  // r >= p
+        assertFalse(Secp256k1Schnorr.verify(Secp256k1Schnorr.xOnlyPublicKey(BigInteger.TEN), message, signature));
+        // Public key not on the curve (test vector 5).
+        byte[] notOnCurve = HEX.decode("EEFDEA4CDB677750A420FEE807EACF21EB9898AE79B9768766E4FAA04A2D4A34");
+        assertNull(Secp256k1Schnorr.liftX(notOnCurve));
+        assertFalse(Secp256k1Schnorr.verify(notOnCurve, message, signature));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("Secret not in range 1 to N-1");
+        Secp256k1Schnorr.sign(N, new byte[32], new byte[32]);
+    }
+
+    @Test
+    public void testParseSignature() {
+        SchnorrSignature signature = Secp256k1Schnorr.sign(BigInteger.valueOf(3), new byte[32], new byte[32]);
+        assertEquals(signature, SchnorrSignature.parse(signature.getBytes()));
+        exception.expect(IllegalArgumentException.class);
+        SchnorrSignature.parse(new byte[63]);
+    }
+
+    @Test
+    public void testTaggedHash() throws Exception {
+        byte[] data = "data".getBytes(UTF_8);
+        MessageDigest digest = newSHA256Digest.get();
+        byte[] tagHash = digest.digest("BIP0340/challenge".getBytes(UTF_8));
+        digest.update(tagHash);
+        digest.update(tagHash);
+        byte[] expected = digest.digest(data);
+        assertArrayEquals(expected, taggedHash.apply("BIP0340/challenge", data));
+        assertArrayEquals(expected, taggedHash.apply("BIP0340/challenge", data));  // from the cached prefix
+    }
+
+    @Test
+    public void testVerifyBatch() {
+        Random random = new Random(340);
+        List<SchnorrCheck> checks = new ArrayList<>();
+        for (int i = 0; i < Secp256k1SchnorrBatchVerifier.CHUNK_SIZE + 10; i++) {
+            BigInteger secret = new BigInteger(256, random).mod(N.subtract(BigInteger.ONE)).add(BigInteger.ONE);
+            byte[] message = new byte[32];
+            random.nextBytes(message);
+            SchnorrSignature signature = Secp256k1Schnorr.sign(secret, message, new byte[32]);
+            checks.add(new SchnorrCheck(message, signature, Secp256k1Schnorr.xOnlyPublicKey(secret)));
+        }
+        boolean[] results = Secp256k1Schnorr.verifyBatch(checks);
+        for (boolean result : results) {
+            assertTrue(result);
+        }
+
+        SchnorrCheck good = checks.get(3);
+        byte[] badMessage = good.getMessage().clone();
+        badMessage[0] ^= 1;
+        checks.set(3, new SchnorrCheck(badMessage, good.getSignature(), good.getPublicKey()));
+        int last = checks.size() - 1;
+        SchnorrCheck other = checks.get(last);
+        checks.set(last, new SchnorrCheck(other.getMessage(), other.getSignature(), checks.get(0).getPublicKey()));
+        results = Secp256k1Schnorr.verifyBatch(checks);
+        for (int i = 0; i < results.length; i++) {
+            assertEquals("check " + i, i != 3 && i != last, results[i]);
+        }
+        assertEquals(0, Secp256k1Schnorr.verifyBatch(new ArrayList<>()).length);
+    }
+}
@@ -5,12 +5,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static java.math.BigInteger.ONE;
 import static java.math.BigInteger.TWO;
+import static java.math.BigInteger.ZERO;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.N;
+import static mandioca.bitcoin.ecc.curveparams.Secp256k1CurveParameters.p;
 import static mandioca.bitcoin.util.HashUtils.getDoubleSHA256HashAsInteger;
 import static mandioca.bitcoin.util.HexUtils.HEX;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class Secp256k1SignatureTest extends AbstractSecp256k1Test {
@@ -197,4 +208,74 @@ public class Secp256k1SignatureTest extends AbstractSecp256k1Test {
          */
     }
 
+    @Test
+    public void testSignAll() {
+        Secp256k1PrivateKey privateKey = new Secp256k1PrivateKey(getDoubleSHA256HashAsInteger("my secret"));
+        List<BigInteger> zs = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            zs.add(getDoubleSHA256HashAsInteger("my message " + i));
+        }
+        List<Signature> signatures = privateKey.signAll(zs);
+        assertEquals(zs.size(), signatures.size());
+        for (int i = 0; i < zs.size(); i++) {
+            assertEquals(privateKey.sign(zs.get(i)), signatures.get(i));
+            assertTrue(privateKey.getPublicKey().verify(zs.get(i), signatures.get(i)));
+        }
+    }
+
+    @Test
+    public void testDeriveAll() {
+        BigInteger[] secrets = new BigInteger[40];
+        for (int i = 0; i < secrets.length; i++) {
+            secrets[i] = getDoubleSHA256HashAsInteger("my secret " + i);
+        }
+        secrets[7] = N;  // derives the point at infinity
+        secrets[8] = ONE;
+        Secp256k1PrivateKey[] privateKeys = Secp256k1PrivateKey.deriveAll(secrets);
+        assertEquals(secrets.length, privateKeys.length);
+        for (int i = 0; i < secrets.length; i++) {
+            assertEquals(new Secp256k1PrivateKey(secrets[i]).getPublicKey(), privateKeys[i].getPublicKey());
+        }
+        BigInteger z = getDoubleSHA256HashAsInteger("my message");
+        assertTrue(privateKeys[0].getPublicKey().verify(z, privateKeys[0].sign(z)));
+        assertEquals(0, Secp256k1PrivateKey.deriveAll(new BigInteger[0]).length);
+    }
+
+    @Test
+    public void testConcurrentSigning() throws Exception {
+        Secp256k1PrivateKey privateKey = new Secp256k1PrivateKey(getDoubleSHA256HashAsInteger("my secret"));
+        BigInteger z = getDoubleSHA256HashAsInteger("my message");
+        Signature expected = privateKey.sign(z);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(executor.submit(() -> privateKey.sign(z).getDer()));
+            }
+            for (Future<byte[]> future : futures) {
+                assertArrayEquals(expected.getDer(), future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testVerifyOutOfRangeSignature() {
+        Secp256k1PrivateKey privateKey = new Secp256k1PrivateKey(getDoubleSHA256HashAsInteger("my secret"));
+        Secp256k1Point publicKey = privateKey.getPublicKey();
+        BigInteger z = getDoubleSHA256HashAsInteger("my message");
+        Signature valid = privateKey.sign(z);
+        Signature[] outOfRange = {
+                new Signature(p.add(ONE), BigInteger.valueOf(7)),   // r >= p, not even a field element
+                new Signature(ZERO, valid.getS()),
+                new Signature(valid.getR().add(N), valid.getS()),   // r >= N, congruent to a valid r
+                new Signature(valid.getR(), ZERO),
+                new Signature(valid.getR(), valid.getS().add(N))};
+        for (Signature signature : outOfRange) {
+            assertFalse(publicKey.verify(z, signature));
+            assertFalse(Secp256k1Point.verifyBatch(
+                    Collections.singletonList(new SignatureCheck(z, signature, publicKey)))[0]);
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package mandioca.bitcoin.ecc;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.ZERO;
+import static org.junit.Assert.*;
+
+public class Secp256k1WnafTableTest extends AbstractSecp256k1Test {
+
+    private static final Random random = new Random(4);
+
+    @Test
+    public void testWnafDigits() {
+        BigInteger max = BigInteger.TWO.pow(256).subtract(ONE);
+        BigInteger[] scalars = new BigInteger[]{ZERO, ONE, N.subtract(ONE), max, max.shiftRight(1), new BigInteger(256, random)};
+        for (int windowBits = 2; windowBits <= 8; windowBits++) {
+            for (BigInteger k : scalars) {
+                int[] digits = Secp256k1WnafTable.wnaf(k, windowBits);
+                BigInteger sum = ZERO;
+                int lastNonZero = -windowBits;
+                for (int i = digits.length - 1; i >= 0; i--) {
+                    sum = sum.shiftLeft(1).add(BigInteger.valueOf(digits[i]));
+                    if (digits[i] != 0) {
+                        assertEquals(1, digits[i] & 1);
+                        assertTrue(Math.abs(digits[i]) < 1 << (windowBits - 1));
+                        assertTrue(lastNonZero < 0 || lastNonZero - i >= windowBits);
+                        lastNonZero = i;
+                    }
+                }
+                assertEquals(k, sum);
+            }
+        }
+    }
+
+    @Test
+    public void testWnafScalarNotInRangeException() {
+        exception.expect(IllegalArgumentException.class);
+        Secp256k1WnafTable.wnaf(BigInteger.TWO.pow(256), 5);
+    }
+
+    @Test
+    public void testDualMultiply() {
+        Secp256k1Point p = G.scalarMultiply(new BigInteger(256, random));
+        for (int i = 0; i < 10; i++) {
+            BigInteger u = new BigInteger(256, random);
+            BigInteger v = new BigInteger(256, random);
+            assertEquals(G.scalarMultiply(u).add(p.scalarMultiply(v)), p.dualMultiply(u, v).toAffine());
+        }
+        assertEquals(G.scalarMultiply(BigInteger.TEN), p.dualMultiply(BigInteger.TEN, N).toAffine());
+        assertEquals(p, p.dualMultiply(ZERO, ONE).toAffine());
+        assertEquals(IDENTITY, p.dualMultiply(ZERO, ZERO).toAffine());
+        assertEquals(G.scalarMultiply(BigInteger.valueOf(3)), G.dualMultiply(ONE, BigInteger.TWO).toAffine());
+        assertEquals(IDENTITY, G.dualMultiply(ONE, N.subtract(ONE)).toAffine());
+        assertEquals(G.scalarMultiply(BigInteger.TWO), IDENTITY.dualMultiply(BigInteger.TWO, BigInteger.TEN).toAffine());
+    }
+}
@@ -0,0 +1,144 @@
+package mandioca.bitcoin.function;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static mandioca.bitcoin.function.HashFunctions.*;
+import static mandioca.bitcoin.util.HexUtils.HEX;
+import static org.junit.Assert.*;
+
+public class HashFunctionsTest {
+
+    private static final byte[] HELLO = "hello".getBytes(UTF_8);
+
+    @Test
+    public void testHashes() {
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824", HEX.encode(sha256Hash.apply(HELLO)));
+        assertEquals("9595c9df90075148eb06860365df33584b75bff782a510c6cd4883a419833d50", HEX.encode(hash256.apply(HELLO)));
+        assertEquals("b6a9c8c230722b7c748331a8b450f05566dc7d0f", HEX.encode(hash160.apply(HELLO)));
+        assertEquals("aaf4c61ddcc5e8a2dabede0f3b482cd9aea9434d", HEX.encode(sha1Hash.apply(HELLO)));
+        assertArrayEquals(sha256Hash.apply(HELLO), sha256Hash.apply(HELLO));  // the reused engine was reset
+        byte[] sec = HEX.decode("0250863ad64a87ae8a2fe83c1af1a8403cb53f53e486d8511dad8a04887e5b2352");
+        assertArrayEquals(hashRipemd160.apply(sha256Hash.apply(sec)), hash160.apply(sec));
+        assertArrayEquals(hash160.apply(HELLO), hash160.apply(HELLO));
+    }
+
+    @Test
+    public void testHashInto() {
+        byte[] dest = new byte[40];
+        Arrays.fill(dest, (byte) 0xff);
+        hash256Into.accept(HELLO, dest, 4);
+        assertArrayEquals(hash256.apply(HELLO), Arrays.copyOfRange(dest, 4, 36));
+        assertEquals((byte) 0xff, dest[3]);
+        assertEquals((byte) 0xff, dest[36]);
+        sha256Into.accept(HELLO, dest, 8);
+        assertArrayEquals(sha256Hash.apply(HELLO), Arrays.copyOfRange(dest, 8, 40));
+    }
+
+    @Test
+    public void testHashIntoTooSmallDestination() {
+        try {
+            hash256Into.accept(HELLO, new byte[40], 9);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("No room for a 32 byte hash at offset 9 of 40 bytes", e.getMessage());
+        }
+        try {
+            sha256Into.accept(HELLO, new byte[32], -1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("No room for a 32 byte hash at offset -1 of 32 bytes", e.getMessage());
+        }
+        // The failed calls left nothing in this thread's engine.
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824", HEX.encode(sha256Hash.apply(HELLO)));
+    }
+
+    @Test
+    public void testHash256FromOffset() {
+        byte[] data = "say hello world".getBytes(UTF_8);
+        assertArrayEquals(hash256.apply(HELLO), hash256FromOffset.apply(data, 4, 5));
+        assertArrayEquals(hash256.apply(data), hash256FromOffset.apply(data, 0, data.length));
+    }
+
+    @Test
+    public void testHashSliceInto() {
+        byte[] data = "say hello world".getBytes(UTF_8);
+        ByteBuffer slice = ByteBuffer.wrap(data, 4, 5);
+        byte[] dest = new byte[52];
+        hash256SliceInto.accept(slice, dest, 0);
+        hash160SliceInto.accept(slice, dest, 32);
+        assertArrayEquals(hash256.apply(HELLO), Arrays.copyOfRange(dest, 0, 32));
+        assertArrayEquals(hash160.apply(HELLO), Arrays.copyOfRange(dest, 32, 52));
+        assertEquals(4, slice.position());
+        assertEquals(9, slice.limit());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length).put(data).flip().position(4).limit(9);
+        hash256SliceInto.accept(direct, dest, 20);
+        assertArrayEquals(hash256.apply(HELLO), Arrays.copyOfRange(dest, 20, 52));
+        assertEquals(4, direct.position());
+        hash160SliceInto.accept(direct, dest, 0);
+        assertArrayEquals(hash160.apply(HELLO), Arrays.copyOfRange(dest, 0, 20));
+        assertEquals(4, direct.position());
+    }
+
+    @Test
+    public void testHash160Into() {
+        byte[] dest = new byte[24];
+        hash160Into.accept(HELLO, dest, 4);
+        assertEquals("b6a9c8c230722b7c748331a8b450f05566dc7d0f", HEX.encode(Arrays.copyOfRange(dest, 4, 24)));
+        try {
+            hash160Into.accept(HELLO, dest, 5);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("No room for a 20 byte hash at offset 5 of 24 bytes", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testHash256Pair() {
+        byte[] l = hash256.apply(HELLO);
+        byte[] r = sha256Hash.apply(HELLO);
+        assertArrayEquals(hash256.apply(ByteArrayFunctions.concatenate.apply(l, r)), hash256Pair.apply(l, r));
+    }
+
+    @Test
+    public void testConcurrentHashing() throws Exception {
+        byte[][] messages = new byte[64][];
+        byte[][] expected = new byte[messages.length][];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = ("message " + i).getBytes(UTF_8);
+            expected[i] = hash256.apply(messages[i]);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    byte[] hash = new byte[32];
+                    for (int n = 0; n < 100; n++) {
+                        for (int i = 0; i < messages.length; i++) {
+                            hash256Into.accept(messages[i], hash, 0);
+                            if (!Arrays.equals(expected[i], hash) || !Arrays.equals(expected[i], hash256.apply(messages[i]))) {
+                                return false;
+                            }
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
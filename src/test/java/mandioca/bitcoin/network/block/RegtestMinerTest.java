@@ -0,0 +1,66 @@
+package mandioca.bitcoin.network.block;
+
+import mandioca.bitcoin.MandiocaTest;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static mandioca.bitcoin.network.block.GenesisBlockHeader.REGTEST_GENESIS_BLOCK_HEADER;
+import static mandioca.bitcoin.network.block.GenesisBlockHeader.REGTEST_HASH_HEX;
+import static mandioca.bitcoin.util.HexUtils.HEX;
+import static org.junit.Assert.*;
+
+public class RegtestMinerTest extends MandiocaTest {
+
+    @Test
+    public void testRegtestGenesisBlockHeader() {
+        assertEquals(REGTEST_HASH_HEX, REGTEST_GENESIS_BLOCK_HEADER.getHashHex());
+        assertTrue(new Block(REGTEST_GENESIS_BLOCK_HEADER).checkProofOfWork());
+    }
+
+    @Test
+    public void testMineChain() {
+        for (int threads : new int[]{1, 3}) {
+            try (RegtestMiner miner = new RegtestMiner(threads)) {
+                List<BlockHeader> chain = miner.mineChain(REGTEST_GENESIS_BLOCK_HEADER, 25);
+                assertEquals(25, chain.size());
+                BlockHeader previous = REGTEST_GENESIS_BLOCK_HEADER;
+                for (BlockHeader header : chain) {
+                    assertTrue(new Block(header).checkProofOfWork());
+                    assertArrayEquals(previous.hash(), header.getPreviousBlockBigEndian());
+                    assertEquals(RegtestMiner.REGTEST_BITS_HEX, header.getBitsHex());
+                    assertTrue(header.getTimestampInt() >= previous.getTimestampInt() + 600);
+                    previous = header;
+                }
+                assertTrue(miner.getHashCount() >= chain.size());
+                assertTrue(miner.getHashesPerSecond() > 0);
+            }
+        }
+    }
+
+    @Test
+    public void testMineHarderTarget() {
+        // About one in 2^16 hashes meets the target of bits 0x1f00ffff, so a solution is likely past the first chunk.
+        BlockHeader template = new BlockHeader(1,
+                REGTEST_GENESIS_BLOCK_HEADER.hash(),
+                HEX.decode("4a5e1e4baab89f3a32518a88c31bc87f618f76673e2cc77ab2127b7afdeda33b"),
+                REGTEST_GENESIS_BLOCK_HEADER.getTimestampInt() + 600,
+                HEX.decode("1f00ffff"),
+                new byte[4],
+                new byte[]{});
+        try (RegtestMiner miner = new RegtestMiner(2)) {
+            BlockHeader mined = miner.mine(template);
+            assertTrue(new Block(mined).checkProofOfWork());
+            assertTrue(mined.getHashHex().startsWith("0000"));
+            assertArrayEquals(Arrays.copyOf(template.serialize(), 68), Arrays.copyOf(mined.serialize(), 68));
+        }
+    }
+
+    @Test
+    public void testNoThreads() {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("Miner needs at least 1 thread, not 0");
+        new RegtestMiner(0);
+    }
+}
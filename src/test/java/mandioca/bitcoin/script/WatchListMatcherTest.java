@@ -0,0 +1,82 @@
+package mandioca.bitcoin.script;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static mandioca.bitcoin.function.HashFunctions.sha256Hash;
+import static mandioca.bitcoin.script.Script.StandardScripts.*;
+import static mandioca.bitcoin.script.ScriptType.*;
+import static mandioca.bitcoin.util.HexUtils.HEX;
+import static org.junit.Assert.*;
+
+public class WatchListMatcherTest {
+
+    // Test params from programmingbitcoin/code-ch08/helper.py  def test_p2pkh_address(self)
+    private static final byte[] WATCHED = HEX.decode("74d691da1574e6b3c192ecfb52cc8984ee7b6c56");
+    private static final byte[] UNWATCHED = HEX.decode("89bcdec33b7e84349f85691a6d4b0af352638398");
+    private static final byte[] WATCHED_SCRIPT_HASH = sha256Hash.apply("watched witness script".getBytes());
+
+    private final WatchListMatcher matcher = new WatchListMatcher(100, 10, true);
+
+    {
+        matcher.addHash160(WATCHED);
+        matcher.addWitnessScriptHash(WATCHED_SCRIPT_HASH);
+    }
+
+    @Test
+    public void testMatchScripts() {
+        assertEquals(P2PKH, matcher.match(hashToP2pkhScript.apply(WATCHED)));
+        assertEquals(P2SH, matcher.match(hashToP2shScript.apply(WATCHED)));
+        assertEquals(P2WPKH, matcher.match(hashToP2wpkhScript.apply(WATCHED)));
+        assertEquals(P2WSH, matcher.match(hashToP2wshScript.apply(WATCHED_SCRIPT_HASH)));
+        assertNull(matcher.match(hashToP2pkhScript.apply(UNWATCHED)));
+        assertNull(matcher.match(hashToP2wpkhScript.apply(UNWATCHED)));
+        assertNull(matcher.match(hashToP2wshScript.apply(sha256Hash.apply(UNWATCHED))));
+    }
+
+    @Test
+    public void testMatchScriptPubKeyBytes() {
+        assertEquals(P2PKH, matcher.match(raw(hashToP2pkhScript.apply(WATCHED))));
+        assertEquals(P2SH, matcher.match(raw(hashToP2shScript.apply(WATCHED))));
+        assertEquals(P2WPKH, matcher.match(raw(hashToP2wpkhScript.apply(WATCHED))));
+        assertEquals(P2WSH, matcher.match(raw(hashToP2wshScript.apply(WATCHED_SCRIPT_HASH))));
+        assertNull(matcher.match(raw(hashToP2pkhScript.apply(UNWATCHED))));
+        assertNull(matcher.match(raw(hashToP2shScript.apply(UNWATCHED))));
+        assertNull(matcher.match(new byte[]{0x6a, 0x01, 0x00}));   // OP_RETURN
+        assertNull(matcher.match(new byte[0]));
+    }
+
+    @Test
+    public void testMatchAll() {
+        byte[][] scriptPubKeys = {
+                raw(hashToP2pkhScript.apply(UNWATCHED)),
+                raw(hashToP2wpkhScript.apply(WATCHED)),
+                raw(hashToP2shScript.apply(UNWATCHED)),
+                raw(hashToP2pkhScript.apply(WATCHED))};
+        ScriptType[] matches = new ScriptType[scriptPubKeys.length];
+        assertEquals(2, matcher.matchAll(scriptPubKeys, matches));
+        assertArrayEquals(new ScriptType[]{null, P2WPKH, null, P2PKH}, matches);
+    }
+
+    @Test
+    public void testLegacyAddresses() {
+        WatchListMatcher addresses = new WatchListMatcher(10, 0, false);
+        assertTrue(addresses.addLegacyAddress("1BenRpVUFK65JFWcQSuHnJKzc4M8ZP8Eqa"));     // P2PKH, mainnet
+        assertFalse(addresses.addLegacyAddress("3CLoMMyuoDQTPRD3XYZtCvgvkadrAdvdXh"));    // P2SH, same hash160
+        assertEquals(1, addresses.getHash160Count());
+        assertEquals(P2SH, addresses.match(raw(hashToP2shScript.apply(WATCHED))));
+        assertNull(addresses.match(raw(hashToP2wshScript.apply(WATCHED_SCRIPT_HASH))));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoRoomForWitnessScriptHashes() {
+        new WatchListMatcher(10, 0, false).addWitnessScriptHash(WATCHED_SCRIPT_HASH);
+    }
+
+    // The serialized scriptPubKey without its 1 byte length prefix.
+    private static byte[] raw(Script script) {
+        byte[] serialized = script.serialize();
+        return Arrays.copyOfRange(serialized, 1, serialized.length);
+    }
+}
@@ -1,12 +1,17 @@
 package mandioca.bitcoin.util;
 
+import mandioca.bitcoin.address.AddressFormatException;
 import org.junit.Test;
 
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
 
 import static mandioca.bitcoin.function.BigIntegerFunctions.HEX_RADIX;
 import static mandioca.bitcoin.function.ByteArrayFunctions.bigIntToUnsignedByteArray;
-import static org.junit.Assert.assertEquals;
+import static mandioca.bitcoin.function.HashFunctions.hash256;
+import static mandioca.bitcoin.util.HexUtils.HEX;
+import static org.junit.Assert.*;
 
 public class Base58Test {
 
@@ -39,4 +44,133 @@ public class Base58Test {
         String expectedBase58 = "EQJsjkd6JaGwxrjEhfeqPenqHwrBmPQZjJGNSCHBkcF7";
         assertEquals(expectedBase58, base58);
     }
+
+    @Test
+    public void testEncodeDecodeAgainstBigInteger() {
+        Random random = new Random(58);
+        for (int len = 0; len <= 100; len++) {
+            for (int zeros = 0; zeros <= Math.min(len, 3); zeros++) {
+                byte[] bytes = new byte[len];
+                random.nextBytes(bytes);
+                Arrays.fill(bytes, 0, zeros, (byte) 0);
+                String base58 = Base58.encode(bytes);
+                assertEquals(referenceEncode(bytes), base58);
+                assertArrayEquals(bytes, Base58.decode(base58));
+            }
+        }
+    }
+
+    @Test
+    public void testEncodeZerosAndRange() {
+        assertEquals("", Base58.encode(new byte[0]));
+        assertEquals("111", Base58.encode(new byte[3]));
+        assertArrayEquals(new byte[3], Base58.decode("111"));
+        assertEquals("1z", Base58.encode(new byte[]{0, 57}));
+        assertArrayEquals(new byte[]{0, 57}, Base58.decode("1z"));
+        byte[] bytes = HEX.decode("ff00ff0102030405ff");
+        assertEquals(Base58.encode(Arrays.copyOfRange(bytes, 1, 8)), Base58.encode(bytes, 1, 7));
+        assertEquals("", Base58.encode(bytes, 9, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEncodeRangeOutOfBounds() {
+        Base58.encode(new byte[9], 3, 7);
+    }
+
+    @Test
+    public void testDecodeInvalidCharacter() {
+        try {
+            Base58.decode("11abc0def");
+            fail("Decoded an invalid character");
+        } catch (AddressFormatException.InvalidCharacter e) {
+            assertEquals('0', e.character);
+            assertEquals(5, e.position);
+        }
+    }
+
+    @Test(expected = AddressFormatException.InvalidCharacter.class)
+    public void testDecodeNonAsciiCharacter() {
+        Base58.decode("abc\u00e9");
+    }
+
+    @Test
+    public void testEncodeDecodeChecked() {
+        // Test params from programmingbitcoin/code-ch08/helper.py  def test_p2pkh_address(self)
+        byte[] hash = HEX.decode("74d691da1574e6b3c192ecfb52cc8984ee7b6c56");
+        byte[] prefix = {0x00};
+        String address = "1BenRpVUFK65JFWcQSuHnJKzc4M8ZP8Eqa";
+        assertEquals(address, Base58.encodeChecked(prefix, hash));
+        byte[] payload = new byte[21];
+        System.arraycopy(hash, 0, payload, 1, hash.length);
+        assertEquals(address, Base58.encodeChecked(payload));
+        assertEquals(referenceEncodeChecked(payload), address);
+        assertArrayEquals(hash, Base58.decodeChecked(address, true));
+        assertArrayEquals(payload, Base58.decodeChecked(address, false));
+        assertArrayEquals(hash, Base58.decodeChecked(address, 1, 0));
+        assertArrayEquals(Arrays.copyOfRange(hash, 0, 19), Base58.decodeChecked(address, 1, 1));
+    }
+
+    @Test(expected = AddressFormatException.InvalidDataLength.class)
+    public void testDecodeCheckedPrefixAndSuffixTooLong() {
+        Base58.decodeChecked("1BenRpVUFK65JFWcQSuHnJKzc4M8ZP8Eqa", 20, 2);
+    }
+
+    @Test(expected = AddressFormatException.InvalidChecksum.class)
+    public void testDecodeCheckedInvalidChecksum() {
+        Base58.decodeChecked("1BenRpVUFK65JFWcQSuHnJKzc4M8ZP8Eqb", true);
+    }
+
+    @Test(expected = AddressFormatException.InvalidDataLength.class)
+    public void testDecodeCheckedTooShort() {
+        Base58.decodeChecked("1z", false);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDecodeCheckedNot21Bytes() {
+        Base58.decodeChecked(Base58.encodeChecked(new byte[20]), true);
+    }
+
+    @Test
+    public void testCheckedBatch() {
+        Random random = new Random(25);
+        byte[][] payloads = new byte[100][];
+        for (int i = 0; i < payloads.length; i++) {
+            payloads[i] = new byte[1 + random.nextInt(40)];
+            random.nextBytes(payloads[i]);
+            if (i % 3 == 0) {
+                payloads[i][0] = 0;
+            }
+        }
+        String[] encoded = Base58.encodeCheckedAll(payloads);
+        assertEquals(payloads.length, encoded.length);
+        for (int i = 0; i < payloads.length; i++) {
+            assertEquals(referenceEncodeChecked(payloads[i]), encoded[i]);
+        }
+        byte[][] decoded = Base58.decodeCheckedAll(encoded, false);
+        for (int i = 0; i < payloads.length; i++) {
+            assertArrayEquals(payloads[i], decoded[i]);
+        }
+    }
+
+    // The base-256 to base-58 conversion by BigInteger division, with a '1' per leading zero byte.
+    private static String referenceEncode(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        BigInteger n = new BigInteger(1, bytes);
+        BigInteger radix = BigInteger.valueOf(58);
+        while (n.signum() > 0) {
+            BigInteger[] qr = n.divideAndRemainder(radix);
+            sb.append(Base58.ALPHABET[qr[1].intValue()]);
+            n = qr[0];
+        }
+        for (int i = 0; i < bytes.length && bytes[i] == 0; i++) {
+            sb.append('1');
+        }
+        return sb.reverse().toString();
+    }
+
+    private static String referenceEncodeChecked(byte[] payload) {
+        byte[] data = Arrays.copyOf(payload, payload.length + 4);
+        System.arraycopy(hash256.apply(payload), 0, data, payload.length, 4);
+        return referenceEncode(data);
+    }
 }
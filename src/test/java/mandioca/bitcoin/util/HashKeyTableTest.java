@@ -0,0 +1,106 @@
+package mandioca.bitcoin.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class HashKeyTableTest {
+
+    private static final Random random = new Random(160);
+
+    @Test
+    public void testAddAndContains() {
+        for (boolean prefilter : new boolean[]{false, true}) {
+            HashKeyTable table = new HashKeyTable(20, 10_000, prefilter);
+            Set<String> added = new HashSet<>();
+            byte[][] keys = randomKeys(10_000, 20);
+            for (byte[] key : keys) {
+                assertTrue(table.add(key));
+                added.add(Arrays.toString(key));
+            }
+            assertEquals(keys.length, table.size());
+            for (byte[] key : keys) {
+                assertTrue(table.contains(key));
+                assertFalse(table.add(key));   // already added
+            }
+            assertEquals(keys.length, table.size());
+            for (byte[] key : randomKeys(10_000, 20)) {
+                assertEquals(added.contains(Arrays.toString(key)), table.contains(key));
+            }
+        }
+    }
+
+    @Test
+    public void testContainsAtOffset() {
+        HashKeyTable table = new HashKeyTable(32, 8, true);
+        byte[] key = randomKeys(1, 32)[0];
+        table.add(key);
+        byte[] script = new byte[34];
+        System.arraycopy(key, 0, script, 2, key.length);
+        assertTrue(table.contains(script, 2));
+        assertFalse(table.contains(script, 1));
+        assertFalse(table.contains(new byte[31]));  // wrong length
+        assertTrue(table.add(script, 1));
+        assertTrue(table.contains(script, 1));
+    }
+
+    @Test
+    public void testKeysSharingPrefixes() {
+        // Keys differing only after the bytes hashed for the slot index and the prefilter probe the same slots.
+        HashKeyTable table = new HashKeyTable(20, 100, true);
+        byte[] key = new byte[20];
+        for (int i = 0; i < 100; i++) {
+            key[19] = (byte) i;
+            assertTrue(table.add(key));
+        }
+        for (int i = 0; i < 256; i++) {
+            key[19] = (byte) i;
+            assertEquals(i < 100, table.contains(key));
+        }
+    }
+
+    @Test
+    public void testBoundedMemory() {
+        HashKeyTable table = new HashKeyTable(20, 3, false);
+        assertEquals(4 + 4 * 20, table.getMemoryBytes());
+        for (byte[] key : randomKeys(3, 20)) {
+            table.add(key);
+        }
+        try {
+            table.add(randomKeys(1, 20)[0]);
+            fail("Added a key to a full table");
+        } catch (IllegalStateException e) {
+            assertEquals(3, table.size());
+        }
+        HashKeyTable prefiltered = new HashKeyTable(20, 1000, true);
+        assertEquals(2048 + 2048 * 20 + 16384 / 8, prefiltered.getMemoryBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortKeyLength() {
+        new HashKeyTable(8, 10, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddWrongKeyLength() {
+        new HashKeyTable(20, 10, false).add(new byte[32]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testContainsOutOfBounds() {
+        new HashKeyTable(20, 10, false).contains(new byte[25], 6);
+    }
+
+    private static byte[][] randomKeys(int count, int keyLength) {
+        byte[][] keys = new byte[count][keyLength];
+        for (byte[] key : keys) {
+            random.nextBytes(key);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,53 @@
+package mandioca.bitcoin.util;
+
+import org.junit.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.Random;
+
+import static mandioca.bitcoin.function.ByteArrayFunctions.asciiToBytes;
+import static mandioca.bitcoin.util.HexUtils.HEX;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class HmacSha256Test {
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final Random random = new Random(2104);
+
+    @Test
+    public void testBasic() {
+        byte[] mac = new HmacSha256().init(asciiToBytes.apply("key")).update(asciiToBytes.apply("hello")).doFinal();
+        assertEquals("9307b3b915efb5171ff14d8cb55fbcc798c6c0ef1456d66ded1a6aa723a58b7b", HEX.to64DigitPaddedHex(mac));
+    }
+
+    @Test
+    public void testMatchesMac() throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(MAC_ALGORITHM);
+        HmacSha256 hmac = new HmacSha256();
+        for (int keyLength : new int[]{1, 32, 64, 65, 100}) {
+            byte[] key = new byte[keyLength];
+            random.nextBytes(key);
+            mac.init(new SecretKeySpec(key, MAC_ALGORITHM));
+            hmac.init(key);
+            for (int length = 0; length <= 130; length += 13) {  // several MACs with the same key
+                byte[] message = new byte[length];
+                random.nextBytes(message);
+                assertArrayEquals(mac.doFinal(message), hmac.update(message).doFinal());
+            }
+        }
+    }
+
+    @Test
+    public void testDestinationAliasesKeyAndMessage() throws GeneralSecurityException {
+        byte[] key = new byte[HmacSha256.MAC_LEN];
+        random.nextBytes(key);
+        Mac mac = Mac.getInstance(MAC_ALGORITHM);
+        mac.init(new SecretKeySpec(key, MAC_ALGORITHM));
+        byte[] expected = mac.doFinal(key);
+        new HmacSha256().init(key).update(key).doFinal(key, 0);
+        assertArrayEquals(expected, key);
+    }
+}
@@ -14,6 +14,7 @@ import static mandioca.bitcoin.function.ByteArrayFunctions.asciiToBytes;
 import static mandioca.bitcoin.function.HashFunctions.hashRipemd160;
 import static mandioca.bitcoin.util.HexUtils.HEX;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 
 
 /**
@@ -173,4 +174,22 @@ public final class Ripemd160Test {
             assertArrayEquals(HEX.decode(testCase[0]), hashRipemd160.apply(asciiToBytes.apply(testCase[1])));
     }
 
+    @Test
+    public void testIncremental() {
+        byte[] msg = asciiToBytes.apply("12345678901234567890123456789012345678901234567890123456789012345678901234567890");
+        Ripemd160 ripemd160 = new Ripemd160();
+        for (int split = 0; split <= msg.length; split++) {
+            ripemd160.update(msg, 0, split).update(msg, split, msg.length - split);
+            assertEquals("9B752E45573D4B39F4DBD3323CAB82BF63326BFB", HEX.encode(ripemd160.digest()).toUpperCase());
+        }
+        for (byte b : msg) {
+            ripemd160.update(b);
+        }
+        byte[] dest = new byte[24];
+        ripemd160.digest(dest, 4);
+        assertEquals("9B752E45573D4B39F4DBD3323CAB82BF63326BFB", HEX.encode(dest).substring(8).toUpperCase());
+        // digest reset the hasher
+        assertArrayEquals(HEX.decode("9C1185A5C5E9FC54612808977EE8F548B2258D31"), ripemd160.digest());
+    }
+
 }
@@ -0,0 +1,94 @@
+package mandioca.bitcoin.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static mandioca.bitcoin.function.HashFunctions.hash256;
+import static org.junit.Assert.*;
+
+public class Sha256BatchTest {
+
+    private static final Random random = new Random(256);
+
+    // Sizes below, at, and above the vector backend's minimum batch, with partial last rows.
+    private static final int[] SIZES = {0, 1, 15, 16, 17, 31, 32, 33, 100};
+
+    @Test
+    public void testHash256All() {
+        for (Sha256Batch batch : backends()) {
+            for (int size : SIZES) {
+                byte[][] in = new byte[size][];
+                for (int i = 0; i < size; i++) {
+                    in[i] = new byte[(i * 7) % 200];  // 0 to 4 blocks, with every padding boundary
+                    random.nextBytes(in[i]);
+                }
+                byte[][] out = new byte[size][32];
+                batch.hash256All(in, out);
+                for (int i = 0; i < size; i++) {
+                    assertArrayEquals(batch + " message " + i, hash256.apply(in[i]), out[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testHashHeadersAndPairs() {
+        for (Sha256Batch batch : backends()) {
+            for (int length : new int[]{55, 56, 63, 64, 80}) {  // around one block, merkle pairs, block headers
+                byte[][] in = new byte[40][length];
+                for (byte[] message : in) {
+                    random.nextBytes(message);
+                }
+                byte[][] out = new byte[in.length][32];
+                batch.hash256All(in, out);
+                for (int i = 0; i < in.length; i++) {
+                    assertArrayEquals(hash256.apply(in[i]), out[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBadBatch() {
+        for (Sha256Batch batch : backends()) {
+            byte[][] in = new byte[40][80];
+            try {
+                batch.hash256All(in, new byte[39][32]);
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertEquals("Batch of 40 messages has 39 hash destinations", e.getMessage());
+            }
+            byte[][] out = new byte[40][32];
+            out[39] = new byte[31];
+            try {
+                batch.hash256All(in, out);
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertEquals("No room for a 32 byte hash in destination 39 of 31 bytes", e.getMessage());
+            }
+            assertArrayEquals(new byte[32], out[0]);  // nothing was hashed
+        }
+    }
+
+    @Test
+    public void testBlockCount() {
+        assertEquals(1, Sha256VectorBatch.blockCount(0));
+        assertEquals(1, Sha256VectorBatch.blockCount(55));
+        assertEquals(2, Sha256VectorBatch.blockCount(56));
+        assertEquals(2, Sha256VectorBatch.blockCount(80));
+        assertEquals(2, Sha256VectorBatch.blockCount(119));
+        assertEquals(3, Sha256VectorBatch.blockCount(120));
+    }
+
+    private static List<Sha256Batch> backends() {
+        List<Sha256Batch> backends = new ArrayList<>();
+        backends.add(Sha256ScalarBatch.INSTANCE);
+        if (Sha256Batch.isVectorApiAvailable()) {
+            backends.add(new Sha256VectorBatch());
+        }
+        return backends;
+    }
+}
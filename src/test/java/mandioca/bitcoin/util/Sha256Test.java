@@ -0,0 +1,66 @@
+package mandioca.bitcoin.util;
+
+import org.junit.Test;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static mandioca.bitcoin.function.ByteArrayFunctions.asciiToBytes;
+import static mandioca.bitcoin.util.HexUtils.HEX;
+import static org.junit.Assert.assertArrayEquals;
+
+public class Sha256Test {
+
+    private static final Random random = new Random(256);
+
+    @Test
+    public void testBasic() {
+        String[][] testCases = {
+                {"e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", ""},
+                {"ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", "abc"},
+                {"248d6a61d20638b8e5c026930c3e6039a33ce45964ff2167f6ecedd419db06c1", "abcdbcdecdefdefgefghfghighijhijkijkljklmklmnlmnomnopnopq"},
+        };
+        for (String[] testCase : testCases) {
+            assertArrayEquals(HEX.decode(testCase[0]), Sha256.hash(asciiToBytes.apply(testCase[1])));
+        }
+    }
+
+    @Test
+    public void testMatchesMessageDigest() throws NoSuchAlgorithmException {
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+        Sha256 sha256 = new Sha256();
+        for (int length = 0; length <= 200; length++) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            byte[] expected = messageDigest.digest(bytes);
+            assertArrayEquals(expected, sha256.update(bytes).digest());
+            int split = random.nextInt(length + 1);  // the same bytes, in two updates and a byte at a time
+            sha256.update(bytes, 0, split).update(bytes, split, length - split);
+            assertArrayEquals(expected, sha256.digest());
+            for (byte b : bytes) {
+                sha256.update(b);
+            }
+            assertArrayEquals(expected, sha256.digest());
+        }
+    }
+
+    @Test
+    public void testResumeCopiedState() throws NoSuchAlgorithmException {
+        byte[] prefix = new byte[80];
+        byte[] suffix = new byte[40];
+        random.nextBytes(prefix);
+        random.nextBytes(suffix);
+        Sha256 midstate = new Sha256().update(prefix);
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+        messageDigest.update(prefix);
+        messageDigest.update(suffix);
+        byte[] expected = messageDigest.digest();
+        for (int i = 0; i < 2; i++) {
+            byte[] digest = new byte[Sha256.DIGEST_LEN + 1];
+            new Sha256().set(midstate).update(suffix).digest(digest, 1);
+            assertArrayEquals(expected, Arrays.copyOfRange(digest, 1, digest.length));
+        }
+    }
+}